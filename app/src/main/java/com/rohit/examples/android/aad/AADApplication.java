@@ -0,0 +1,31 @@
+package com.rohit.examples.android.aad;
+
+import android.app.Application;
+import android.content.res.Configuration;
+
+/**
+ * Class definition for the application, sets up the process wide state once at start
+ */
+public class AADApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Watching the main thread for dropped frames and slow messages in every activity
+        JankMonitor.install(this);
+
+        // Creating every notification channel once for the whole process
+        StartupTracer.begin("AADApplication.createNotificationChannels");
+        NotificationChannels.createAll(this);
+        StartupTracer.end();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+
+        // Notification templates hold resolved strings, dropping them so a new locale is picked up
+        NotificationTemplates.clear();
+    }
+}
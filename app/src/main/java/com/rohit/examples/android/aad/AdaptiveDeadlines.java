@@ -0,0 +1,127 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.rohit.examples.android.aad.core.AdaptiveDeadline;
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobHistoryLog;
+import com.rohit.examples.android.aad.core.JobHistoryRecord;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class definition to hand out override deadlines learned from the waits of the jobs run by this app
+ * NotificationJobService records how long every job waited before its first attempt started, retries are
+   left out as their wait includes earlier runs and the backoff. On first use the waits of the last week are
+   read back from the JobHistory, so deadlines are known right after a process start.
+ * Waits recorded live while the history is read back are also in the history, only records written before
+   this instance was created are read back, so no wait counts twice.
+ */
+public class AdaptiveDeadlines {
+
+    private static final String TAG = "AdaptiveDeadlines";
+
+    // Share of jobs that should run on their constraints rather than be forced by their deadline
+    private static final double TARGET_PERCENTILE = 90;
+
+    // Longest time a job scheduled with an adaptive deadline waits
+    private static final long FRESHNESS_SLO_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    // Age of the oldest waits read back from the job history
+    private static final long WARM_UP_WINDOW_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    // Process wide instance
+    private static AdaptiveDeadlines sInstance;
+
+    private final AdaptiveDeadline mDeadline = new AdaptiveDeadline(TARGET_PERCENTILE, FRESHNESS_SLO_MILLIS);
+
+    // Wall clock time this instance was created at, later waits are recorded live
+    private final long mCreatedAtMillis = System.currentTimeMillis();
+
+    /**
+     * Returns the process wide deadlines, created on first use
+     * The recorded waits are read back in the background, until then the freshness SLO is handed out.
+     *
+     * @param context Context used to get the job history
+     * @return AdaptiveDeadlines instance
+     */
+    public static synchronized AdaptiveDeadlines getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AdaptiveDeadlines(JobHistory.getInstance(context.getApplicationContext()));
+        }
+        return sInstance;
+    }
+
+    private AdaptiveDeadlines(final JobHistory jobHistory) {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(jobHistory);
+            }
+        }, TAG).start();
+    }
+
+    /**
+     * Method to record how long a starting job waited since it was scheduled
+     *
+     * @param constraintKey Constraint key of the job
+     * @param waitMillis    Time between scheduling and start
+     */
+    public void recordWait(int constraintKey, long waitMillis) {
+        mDeadline.recordWait(constraintKey, waitMillis);
+    }
+
+    /**
+     * Method to propose the override deadline of a one-shot job
+     *
+     * @param constraintKey Constraint key of the job, see JobConstraints.constraintKey()
+     * @return deadline in milliseconds, the freshness SLO while too few waits are known
+     */
+    public long getDeadlineMillis(int constraintKey) {
+        return mDeadline.getDeadlineMillis(constraintKey);
+    }
+
+    /**
+     * Method to print the learned deadline of every constraint combination with enough waits
+     *
+     * @param writer Writer the deadlines are printed to
+     */
+    public void dump(PrintWriter writer) {
+        writer.println("Adaptive deadlines, freshness SLO " + mDeadline.getFreshnessSloMillis() + " ms:");
+        for (int key = 0; key < JobConstraints.KEY_COUNT; key++) {
+            // Every key without the deadline and periodic flags, the deadline doesn't depend on them
+            if ((key & (JobConstraints.FLAG_DEADLINE | JobConstraints.FLAG_PERIODIC)) != 0) {
+                continue;
+            }
+            long samples = mDeadline.getSampleCount(key);
+            if (samples > 0) {
+                writer.println("  " + JobConstraints.describe(key) + ": " + mDeadline.getDeadlineMillis(key)
+                        + " ms from " + samples + " waits");
+            }
+        }
+    }
+
+    /**
+     * Helper method feeding the waits of the jobs started during the warm up window, oldest first
+     * Records written since this instance was created are skipped, their waits were recorded live.
+     */
+    private void warmUp(JobHistory jobHistory) {
+        long sinceMillis = System.currentTimeMillis() - WARM_UP_WINDOW_MILLIS;
+        try {
+            jobHistory.query(-1, JobHistoryRecord.EVENT_STARTED, sinceMillis, new JobHistoryLog.Visitor() {
+                @Override
+                public void onRecord(JobHistoryRecord record) {
+                    if (record.getDetail() == JobHistoryRecord.DETAIL_WAIT_RECORDED
+                            && record.getTimeMillis() < mCreatedAtMillis) {
+                        mDeadline.recordWait(record.getConstraintKey(), record.getDurationMillis());
+                    }
+                }
+            });
+        } catch (IOException e) {
+            Log.w(TAG, "Can't read the job waits back", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.rohit.examples.android.aad;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+import com.rohit.examples.android.aad.core.EventBus;
+
+/**
+ * Class definition for the process wide event bus carrying app-internal events such as notification actions
+ * Subscriptions are scoped to a lifecycle and dropped when it is destroyed, the bus itself
+   only holds weak references so a subscriber is never kept alive by it.
+ */
+public final class AppEventBus {
+
+    // Process wide bus instance
+    private static final EventBus sEventBus = new EventBus();
+
+    private AppEventBus() {
+    }
+
+    /**
+     * @return process wide EventBus instance
+     */
+    public static EventBus get() {
+        return sEventBus;
+    }
+
+    /**
+     * Method to subscribe to a topic for as long as a lifecycle is not destroyed
+     * Must be called on the main thread, as Lifecycle.addObserver() requires.
+     *
+     * @param owner      Lifecycle owner the subscription is scoped to, usually the subscriber itself
+     * @param topic      Topic of the events
+     * @param subscriber Subscriber to be called for every event posted on the topic
+     */
+    public static void subscribe(LifecycleOwner owner, String topic, EventBus.Subscriber subscriber) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        lifecycle.addObserver(new ScopedSubscription(sEventBus.subscribe(topic, subscriber)));
+    }
+
+    /**
+     * Lifecycle observer ending a subscription when its lifecycle is destroyed
+     */
+    static class ScopedSubscription implements LifecycleObserver {
+
+        private final EventBus.Subscription mSubscription;
+
+        ScopedSubscription(EventBus.Subscription subscription) {
+            mSubscription = subscription;
+        }
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
+        void onDestroy() {
+            mSubscription.unsubscribe();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.rohit.examples.android.aad;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class definition to decode drawable resources off the main thread
+ * Bitmaps are sampled down to the size they are displayed at and kept in a bounded LRU cache,
+   which is trimmed whenever the system asks the app to release memory.
+ */
+public class BitmapLoader implements ComponentCallbacks2 {
+
+    private static final String TAG = "BitmapLoader";
+
+    /**
+     * Callback interface notified on the main thread once a bitmap is available
+     * The bitmap is null if the resource couldn't be decoded, the callback is called either way.
+     */
+    public interface Callback {
+        void onBitmapLoaded(Bitmap bitmap);
+    }
+
+    // Fraction of the heap, as a divisor, the cache is allowed to use
+    private static final int CACHE_HEAP_DIVISOR = 16;
+
+    // Process wide loader instance
+    private static BitmapLoader sInstance;
+
+    private final Resources mResources;
+
+    // Cache of decoded bitmaps keyed by resource ID and target size, sized in kilobytes
+    private final LruCache<String, Bitmap> mCache;
+
+    // Single background thread decoding bitmaps
+    private final ExecutorService mDecodeExecutor = Executors.newSingleThreadExecutor();
+
+    // Handler delivering callbacks on the main thread
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Returns the process wide loader, created on first use
+     *
+     * @param context Context used to access resources and register for memory callbacks
+     * @return BitmapLoader instance
+     */
+    public static synchronized BitmapLoader getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new BitmapLoader(appContext.getResources());
+            appContext.registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    private BitmapLoader(Resources resources) {
+        mResources = resources;
+
+        int cacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024 / CACHE_HEAP_DIVISOR);
+        mCache = new LruCache<String, Bitmap>(cacheSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+    }
+
+    /**
+     * Returns an already decoded bitmap without touching the disk
+     *
+     * @param resId     Drawable resource ID
+     * @param reqWidth  Width the bitmap is displayed at, in pixels
+     * @param reqHeight Height the bitmap is displayed at, in pixels
+     * @return cached bitmap or null
+     */
+    public Bitmap getCached(int resId, int reqWidth, int reqHeight) {
+        return mCache.get(cacheKey(resId, reqWidth, reqHeight));
+    }
+
+    /**
+     * Method to load a drawable resource sampled down to the requested size
+     * A cached bitmap is handed to the callback right away, otherwise it is decoded in the background
+       and the callback runs on the main thread.
+     *
+     * @param resId     Drawable resource ID
+     * @param reqWidth  Width the bitmap is displayed at, in pixels
+     * @param reqHeight Height the bitmap is displayed at, in pixels
+     * @param callback  Callback receiving the bitmap
+     */
+    public void load(final int resId, final int reqWidth, final int reqHeight, final Callback callback) {
+        final String key = cacheKey(resId, reqWidth, reqHeight);
+
+        Bitmap cached = mCache.get(key);
+        if (cached != null) {
+            callback.onBitmapLoaded(cached);
+            return;
+        }
+
+        mDecodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = null;
+                try {
+                    // Another request for the same bitmap may have been decoded while this one was queued
+                    bitmap = mCache.get(key);
+                    if (bitmap == null) {
+                        bitmap = decodeSampled(resId, reqWidth, reqHeight);
+                        if (bitmap != null) {
+                            mCache.put(key, bitmap);
+                        } else {
+                            Log.w(TAG, "Can't decode resource " + resId);
+                        }
+                    }
+                } finally {
+                    // Delivered even if decoding failed, callers may hold a broadcast open until then
+                    final Bitmap result = bitmap;
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onBitmapLoaded(result);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Helper method decoding a resource with the largest power of two sample size
+       that keeps both dimensions at or above the requested size
+     *
+     * @return decoded bitmap, or null if the resource can't be decoded or there is not enough memory
+     */
+    private Bitmap decodeSampled(int resId, int reqWidth, int reqHeight) {
+
+        // First pass reads the dimensions only, without allocating pixels
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(mResources, resId, options);
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        try {
+            return BitmapFactory.decodeResource(mResources, resId, options);
+        } catch (OutOfMemoryError e) {
+            Log.w(TAG, "Out of memory decoding resource " + resId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to compute the sample size for a bitmap
+     *
+     * @return power of two sample size, 1 if the bitmap is already smaller than requested
+     */
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+
+        if (height > reqHeight || width > reqWidth) {
+            int halfHeight = height / 2;
+            int halfWidth = width / 2;
+
+            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
+                inSampleSize *= 2;
+            }
+        }
+        return inSampleSize;
+    }
+
+    private static String cacheKey(int resId, int reqWidth, int reqHeight) {
+        return resId + ":" + reqWidth + "x" + reqHeight;
+    }
+
+    /**
+     * Releasing cached bitmaps when the system is running low on memory
+     * Everything is dropped once the app is in the background, half the cache while it is still visible.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            mCache.evictAll();
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+
+    }
+}
@@ -0,0 +1,35 @@
+package com.rohit.examples.android.aad;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Class definition for the manifest receiver restoring the jobs of the app after a reboot
+ * The periodic jobs kept by the JobStore are restored in one batch, and the slot jobs of the tasks
+   queued in the TaskMultiplexer are scheduled again once its queue is loaded.
+ */
+public class BootCompletedReceiver extends BroadcastReceiver {
+
+    /**
+     * Method to handle Intent received by the BroadcastReceiver
+     * The restore runs on the background thread of the JobStore, the broadcast is kept pending until it's done.
+     * @param context The Context in which the receiver is running.
+     * @param intent The Intent being received.
+     */
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+            return;
+        }
+
+        final PendingResult pendingResult = goAsync();
+        TaskMultiplexer.getInstance(context);
+        JobStore.getInstance(context).restore(new Runnable() {
+            @Override
+            public void run() {
+                pendingResult.finish();
+            }
+        });
+    }
+}
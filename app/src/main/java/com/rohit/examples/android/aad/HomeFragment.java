@@ -0,0 +1,119 @@
+package com.rohit.examples.android.aad;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.RelativeLayout;
+
+import androidx.fragment.app.Fragment;
+
+/**
+ * Class definition to handle Toast, the first screen hosted by MainActivity
+ */
+public class HomeFragment extends Fragment {
+
+    //Member variables for different view layouts
+    LinearLayout linearLayout;
+    RelativeLayout relativeLayout;
+    Button toastBtn;
+    Button nextButton;
+    Button custToastBtn;
+    Button sbBtn;
+
+    // Member variable for the dispatcher showing Toast and SnackBar messages
+    TransientMessageDispatcher mMessageDispatcher;
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        StartupTracer.begin("HomeFragment.inflate");
+        View view = inflater.inflate(R.layout.fragment_home, container, false);
+        StartupTracer.end();
+        return view;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        StartupTracer.begin("HomeFragment.findViews");
+
+        // Getting layout view ID from resource
+        relativeLayout = view.findViewById(R.id.parent);
+        toastBtn = view.findViewById(R.id.btn1);
+        custToastBtn = view.findViewById(R.id.btn2);
+        nextButton = view.findViewById(R.id.next_btn);
+        linearLayout = view.findViewById(R.id.next_btn_root);
+        sbBtn = view.findViewById(R.id.btn3);
+        StartupTracer.end();
+
+        // Creating the dispatcher for Toast and SnackBar messages, the custom toast layout is inflated on first use
+        mMessageDispatcher = new TransientMessageDispatcher(requireContext());
+
+        // Handling click events for the Toast, custom Toast and SnackBar buttons
+        toastBtn.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                showToast(view);
+            }
+        });
+        custToastBtn.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                showCustomToast(view);
+            }
+        });
+        sbBtn.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                showSnackBar(view);
+            }
+        });
+
+        /*
+         * Handling click events for next button
+         * Navigating to the notification screen in the same host, it is created on the first visit only
+         */
+        nextButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                ScreenNavigator.of(HomeFragment.this).navigate(ScreenNavigator.NOTIFICATION);
+            }
+        });
+    }
+
+    /**
+     * Method to show a normal Toast
+     *
+     * @param view View to be used for showing toast
+     */
+    public void showToast(View view) {
+        mMessageDispatcher.showToast(getText(R.string.toast_text));
+    }
+
+    /**
+     * Method to show a custom toast
+     * The custom toast layout is inflated by the dispatcher on first use and reused afterwards.
+     * @param view View to be used for showing custom toast
+     */
+    public void showCustomToast(View view) {
+        mMessageDispatcher.showCustomToast(getText(R.string.custom_toast_text));
+    }
+
+    /**
+     * Method to handle SnackBar
+     * The SnackBar is positioned above the Next button bar and reused for repeated taps.
+     * @param view View to be used for showing SnackBar
+     */
+    public void showSnackBar(View view) {
+        mMessageDispatcher.showSnackbar(view, getText(R.string.snackbar_text), R.string.sb_actiontext, linearLayout);
+    }
+
+    @Override
+    public void onDestroyView() {
+        mMessageDispatcher.dismissAll();
+        super.onDestroyView();
+    }
+}
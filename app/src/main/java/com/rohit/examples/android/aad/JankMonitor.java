@@ -0,0 +1,277 @@
+package com.rohit.examples.android.aad;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Printer;
+import android.view.Choreographer;
+
+import com.rohit.examples.android.aad.core.JankStats;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Class definition to watch the main thread for jank while any activity is visible
+ * A Choreographer frame callback measures the interval between frames, and the printer of the main
+   looper the run time of every message. A message still running after SLOW_MESSAGE_MILLIS gets the
+   stack of the main thread sampled from a watchdog thread, so the slow code path is known once it ends.
+ * Frames and messages are recorded in JankStats under the name of the resumed activity.
+ * Installed once by AADApplication, every callback runs on the main thread unless noted otherwise.
+ */
+public final class JankMonitor implements Application.ActivityLifecycleCallbacks, Choreographer.FrameCallback,
+        Printer {
+
+    // Run time of a message after which its stack is sampled and it is recorded as slow
+    private static final long SLOW_MESSAGE_MILLIS = 50;
+
+    // Number of innermost stack frames kept of a slow message
+    private static final int STACK_DEPTH = 12;
+
+    // Frame budget used until the refresh rate of the display is known, 60 Hz
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 1000000000L / 60;
+
+    // Name of the dump file in the app's files directory
+    public static final String DUMP_FILE_NAME = "jank_stats.txt";
+
+    // Process wide monitor instance
+    private static JankMonitor sInstance;
+
+    private final JankStats mStats = new JankStats();
+
+    private final Thread mMainThread = Looper.getMainLooper().getThread();
+
+    // Watchdog thread sampling the stack of the main thread while a message is slow
+    private final Handler mWatchdog;
+    private final Runnable mStackSampler = new Runnable() {
+        @Override
+        public void run() {
+            int sequence = mMessageSequence;
+            String stack = formatStack(mMainThread.getStackTrace());
+            mSampledStack = new SampledStack(sequence, stack);
+        }
+    };
+
+    // Sequence number of the running message, and the stack sampled while it ran, set by the watchdog
+    private volatile int mMessageSequence;
+    private volatile SampledStack mSampledStack;
+
+    // Start of the running message, in uptime milliseconds
+    private long mMessageStartMillis;
+
+    // Name of the resumed activity and number of resumed activities, frames are watched while it's not 0
+    private String mScreen = "none";
+    private int mResumedCount;
+
+    // Time of one frame on the current display and start of the last frame seen, 0 before the first one
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private long mLastFrameNanos;
+
+    /**
+     * Method to start the monitor, called once from the main thread when the application is created
+     *
+     * @param application Application whose activities are watched
+     */
+    public static synchronized void install(Application application) {
+        if (sInstance != null) {
+            return;
+        }
+        sInstance = new JankMonitor();
+        application.registerActivityLifecycleCallbacks(sInstance);
+        Looper.getMainLooper().setMessageLogging(sInstance);
+    }
+
+    private JankMonitor() {
+        HandlerThread watchdogThread = new HandlerThread("JankMonitor");
+        watchdogThread.start();
+        mWatchdog = new Handler(watchdogThread.getLooper());
+    }
+
+    /**
+     * @return statistics recorded so far, or null if the monitor isn't installed
+     */
+    public static synchronized JankStats getStats() {
+        return sInstance == null ? null : sInstance.mStats;
+    }
+
+    /**
+     * Method to write the report of the statistics recorded so far, can be called from any thread
+     *
+     * @param out Destination of the report
+     * @throws IOException if writing fails
+     */
+    public static void dump(Appendable out) throws IOException {
+        JankStats stats = getStats();
+        out.append("Main thread jank per screen:\n");
+        if (stats != null) {
+            stats.writeTo(out);
+        }
+    }
+
+    /**
+     * Method to print the report from the dump() of a component
+     *
+     * @param writer Writer of the dump, errors are reported through its checkError()
+     */
+    public static void dump(PrintWriter writer) {
+        try {
+            dump((Appendable) writer);
+        } catch (IOException e) {
+            // PrintWriter never throws, errors are reported through checkError()
+        }
+        writer.flush();
+    }
+
+    /**
+     * Method to write the report to DUMP_FILE_NAME in the app's files directory
+     * Does file I/O, not to be called on the main thread.
+     *
+     * @param context Context used to locate the files directory
+     * @return the dump file
+     * @throws IOException if writing fails
+     */
+    public static File dumpToFile(Context context) throws IOException {
+        File file = new File(context.getFilesDir(), DUMP_FILE_NAME);
+        Writer out = new FileWriter(file);
+        try {
+            dump(out);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * Method to name the screen frames and messages are recorded for, until the next activity resumes
+     * Used by an activity hosting several screens, called on the main thread.
+     *
+     * @param screen Name of the visible screen
+     */
+    public static void setScreen(String screen) {
+        JankMonitor monitor;
+        synchronized (JankMonitor.class) {
+            monitor = sInstance;
+        }
+        if (monitor != null) {
+            monitor.mScreen = screen;
+        }
+    }
+
+    /**
+     * Called by the main looper before and after every message it dispatches
+     * The looper writes ">>>>> Dispatching to ..." before and "<<<<< Finished to ..." after a message.
+     */
+    @Override
+    public void println(String line) {
+        if (line.charAt(0) == '>') {
+            mMessageSequence++;
+            mMessageStartMillis = SystemClock.uptimeMillis();
+            mWatchdog.postDelayed(mStackSampler, SLOW_MESSAGE_MILLIS);
+            return;
+        }
+
+        mWatchdog.removeCallbacks(mStackSampler);
+        long durationMillis = SystemClock.uptimeMillis() - mMessageStartMillis;
+        if (durationMillis < SLOW_MESSAGE_MILLIS) {
+            return;
+        }
+
+        // The sampler may still be running or may have missed the message, its call site is then unknown
+        SampledStack sampled = mSampledStack;
+        String callSite = sampled != null && sampled.mSequence == mMessageSequence ? sampled.mStack : null;
+        mStats.recordSlowMessage(mScreen, durationMillis, callSite);
+    }
+
+    /**
+     * Called at the start of every frame while an activity is resumed
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mLastFrameNanos != 0) {
+            mStats.recordFrame(mScreen, frameTimeNanos - mLastFrameNanos, mFrameBudgetNanos);
+        }
+
+        // Frames are only requested while the app is visible, so an idle app in background never wakes up
+        if (mResumedCount > 0) {
+            mLastFrameNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            mLastFrameNanos = 0;
+        }
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+        mScreen = activity.getClass().getSimpleName();
+        float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        if (refreshRate > 0) {
+            mFrameBudgetNanos = (long) (1000000000L / refreshRate);
+        }
+
+        // Watching frames again, unless the callback of the previous activity is still posted
+        mResumedCount++;
+        if (mResumedCount == 1 && mLastFrameNanos == 0) {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+        mResumedCount--;
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+    }
+
+    /**
+     * Helper method formatting the innermost frames of a stack, one "at" line per frame, runs on the watchdog
+     */
+    private static String formatStack(StackTraceElement[] stack) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < stack.length && i < STACK_DEPTH; i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append("    at ").append(stack[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Stack sampled by the watchdog, with the sequence number of the message it was sampled in
+     */
+    private static class SampledStack {
+        private final int mSequence;
+        private final String mStack;
+
+        SampledStack(int sequence, String stack) {
+            mSequence = sequence;
+            mStack = stack;
+        }
+    }
+}
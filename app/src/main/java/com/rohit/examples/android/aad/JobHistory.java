@@ -0,0 +1,115 @@
+package com.rohit.examples.android.aad;
+
+import android.app.job.JobInfo;
+import android.content.Context;
+import android.util.Log;
+
+import com.rohit.examples.android.aad.core.JobHistoryLog;
+import com.rohit.examples.android.aad.core.JobHistoryRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class definition to keep the persistent history of job lifecycle events
+ * Events are appended to a JobHistoryLog in the app's files directory from a single background thread,
+   so callers on the main thread never wait for the disk and events keep their order.
+ */
+public class JobHistory {
+
+    private static final String TAG = "JobHistory";
+
+    // Name of the log file in the app's files directory
+    public static final String FILE_NAME = "job_history.bin";
+
+    // Size the log file is rotated at, about 2700 events per file
+    private static final long MAX_FILE_BYTES = 64 * 1024;
+
+    // Process wide history instance
+    private static JobHistory sInstance;
+
+    private final JobHistoryLog mLog;
+
+    // Single thread appending events in order
+    private final ExecutorService mWriteExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Returns the process wide history, created on first use
+     *
+     * @param context Context used to locate the files directory
+     * @return JobHistory instance
+     */
+    public static synchronized JobHistory getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new JobHistory(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        }
+        return sInstance;
+    }
+
+    private JobHistory(File file) {
+        mLog = new JobHistoryLog(file, MAX_FILE_BYTES);
+    }
+
+    /**
+     * Method to record a job lifecycle event, the event is written in the background
+     *
+     * @param jobId          ID of the job
+     * @param event          One of the JobHistoryRecord.EVENT_* constants
+     * @param constraintKey  Constraint key of the job, or JobHistoryRecord.UNKNOWN_CONSTRAINTS
+     * @param detail         Event specific value
+     * @param durationMillis Run duration or delay, 0 if not applicable
+     */
+    public void record(final int jobId, final int event, final int constraintKey, final int detail,
+                       final long durationMillis) {
+        final long timeMillis = System.currentTimeMillis();
+        mWriteExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mLog.append(timeMillis, jobId, event, constraintKey, detail, durationMillis);
+                } catch (IOException e) {
+                    Log.w(TAG, "Can't record job event " + event + " of job " + jobId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to stream the recorded events, reads the disk and is not to be called on the main thread
+     *
+     * @param jobId       ID of the job, or -1 for every job
+     * @param event       One of the JobHistoryRecord.EVENT_* constants, or -1 for every event
+     * @param sinceMillis Earliest event time included, wall clock time
+     * @param visitor     Callback receiving the matching records, oldest first
+     * @throws IOException if the log can't be read
+     */
+    public void query(int jobId, int event, long sinceMillis, JobHistoryLog.Visitor visitor) throws IOException {
+        mLog.query(jobId, event, sinceMillis, visitor);
+    }
+
+    /**
+     * Method to count the runs of a job since a point in time, reads the disk
+     *
+     * @param jobId       ID of the job, or -1 for every job
+     * @param sinceMillis Earliest start time included, wall clock time
+     * @return number of runs
+     * @throws IOException if the log can't be read
+     */
+    public int countRuns(int jobId, long sinceMillis) throws IOException {
+        return mLog.countRuns(jobId, sinceMillis);
+    }
+
+    /**
+     * Helper method to look up the constraint key of a job known to the registry
+     *
+     * @param context Context used to get the registry
+     * @param jobId   ID of the job
+     * @return constraint key, or JobHistoryRecord.UNKNOWN_CONSTRAINTS
+     */
+    public static int constraintKeyOf(Context context, int jobId) {
+        JobInfo jobInfo = JobRegistry.getInstance(context).getJob(jobId);
+        return jobInfo == null ? JobHistoryRecord.UNKNOWN_CONSTRAINTS : JobRegistry.constraintKey(jobInfo);
+    }
+}
@@ -0,0 +1,157 @@
+package com.rohit.examples.android.aad;
+
+import android.app.job.JobInfo;
+import android.content.ComponentName;
+import android.os.Build;
+import android.os.PersistableBundle;
+
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.RetryPolicy;
+
+/**
+ * Class definition to translate platform independent job specs into JobInfo objects
+ */
+public final class JobInfoFactory {
+
+    /**
+     * Extras keys of the wall clock time a job was scheduled at and of its override deadline
+     * Kept in the job itself so the latency of a job scheduled before a process restart can still be measured.
+     */
+    public static final String EXTRA_SCHEDULED_AT = "com.rohit.examples.android.aad.extra.SCHEDULED_AT";
+    public static final String EXTRA_DEADLINE_MILLIS = "com.rohit.examples.android.aad.extra.DEADLINE_MILLIS";
+
+    /**
+     * Extras keys of the flex window a periodic job was scheduled with and of the one its spec asked for
+     * JobInfo only exposes the flex window from Android N, the two differ when the window was aligned.
+     */
+    public static final String EXTRA_FLEX_MILLIS = "com.rohit.examples.android.aad.extra.FLEX_MILLIS";
+    private static final String EXTRA_REQUESTED_FLEX_MILLIS = "com.rohit.examples.android.aad.extra.REQUESTED_FLEX";
+
+    // Extras key of the name of the pipeline run by the job
+    public static final String EXTRA_PIPELINE = "com.rohit.examples.android.aad.extra.PIPELINE";
+
+    // Extras keys of the retry policy of a job, read back by the job service when the job is stopped
+    private static final String EXTRA_BACKOFF_POLICY = "com.rohit.examples.android.aad.extra.BACKOFF_POLICY";
+    private static final String EXTRA_INITIAL_BACKOFF = "com.rohit.examples.android.aad.extra.INITIAL_BACKOFF";
+    private static final String EXTRA_JITTER = "com.rohit.examples.android.aad.extra.JITTER";
+    private static final String EXTRA_MAX_ATTEMPTS = "com.rohit.examples.android.aad.extra.MAX_ATTEMPTS";
+
+    private JobInfoFactory() {
+    }
+
+    /**
+     * Method to create a JobInfo.Builder from a job spec
+     * Call to setRequiredNetworkType(), setRequiresDeviceIdle() and setRequiresCharging() with the values of the spec,
+       and setOverrideDeadline() only if the spec has a deadline.
+     * A periodic spec calls setPeriodic(), with its flex window from Android N, the flex is ignored below.
+     * The scheduling time and deadline are stored in the extras for the latency statistics of the job service.
+     * A retry policy sets the jittered backoff criteria of the job and is stored in the extras for the stop path.
+     *
+     * @param jobId   ID of the job
+     * @param service Component Name of the Job Service running the job
+     * @param spec    Job spec to be translated
+     * @return JobInfo.Builder object, callers may add further options before building it
+     */
+    public static JobInfo.Builder newBuilder(int jobId, ComponentName service, JobSpec spec) {
+        return newBuilder(jobId, service, spec, spec.getFlexMillis());
+    }
+
+    /**
+     * Method to create a JobInfo.Builder from a periodic job spec whose flex window was aligned
+     *
+     * @param jobId      ID of the job
+     * @param service    Component Name of the Job Service running the job
+     * @param spec       Job spec to be translated, as requested
+     * @param flexMillis Flex window to schedule the job with, ignored for one-shot specs
+     * @return JobInfo.Builder object, callers may add further options before building it
+     */
+    public static JobInfo.Builder newBuilder(int jobId, ComponentName service, JobSpec spec, long flexMillis) {
+        JobInfo.Builder jobBuilder = new JobInfo.Builder(jobId, service)
+                .setRequiredNetworkType(spec.getNetworkType())
+                .setRequiresDeviceIdle(spec.isRequireDeviceIdle())
+                .setRequiresCharging(spec.isRequireCharging());
+
+        if (spec.hasOverrideDeadline()) {
+            jobBuilder.setOverrideDeadline(spec.getOverrideDeadlineMillis());
+        }
+
+        if (spec.isPeriodic()) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                jobBuilder.setPeriodic(spec.getIntervalMillis(), flexMillis);
+            } else {
+                jobBuilder.setPeriodic(spec.getIntervalMillis());
+            }
+        }
+
+        PersistableBundle extras = new PersistableBundle();
+        extras.putLong(EXTRA_SCHEDULED_AT, System.currentTimeMillis());
+        extras.putLong(EXTRA_DEADLINE_MILLIS, spec.getOverrideDeadlineMillis());
+        extras.putLong(EXTRA_FLEX_MILLIS, spec.isPeriodic() ? flexMillis : 0);
+        extras.putLong(EXTRA_REQUESTED_FLEX_MILLIS, spec.getFlexMillis());
+        if (spec.getPipeline() != null) {
+            extras.putString(EXTRA_PIPELINE, spec.getPipeline());
+        }
+
+        RetryPolicy retryPolicy = spec.getRetryPolicy();
+        if (retryPolicy != null) {
+            // JobScheduler rejects backoff criteria on idle jobs, those are retried in the next idle window
+            if (!spec.isRequireDeviceIdle()) {
+                jobBuilder.setBackoffCriteria(retryPolicy.getInitialBackoffMillis(jobId),
+                        retryPolicy.getBackoffPolicy());
+            }
+            extras.putInt(EXTRA_BACKOFF_POLICY, retryPolicy.getBackoffPolicy());
+            extras.putLong(EXTRA_INITIAL_BACKOFF, retryPolicy.getInitialBackoffMillis());
+            extras.putDouble(EXTRA_JITTER, retryPolicy.getJitter());
+            extras.putInt(EXTRA_MAX_ATTEMPTS, retryPolicy.getMaxAttempts());
+        }
+
+        jobBuilder.setExtras(extras);
+        return jobBuilder;
+    }
+
+    /**
+     * Method to read back the retry policy stored in the extras of a job
+     *
+     * @param extras Extras of the job, as returned by JobParameters.getExtras()
+     * @return retry policy of the job, or null if it was scheduled with the JobScheduler default
+     */
+    public static RetryPolicy getRetryPolicy(PersistableBundle extras) {
+        if (!extras.containsKey(EXTRA_BACKOFF_POLICY)) {
+            return null;
+        }
+        return new RetryPolicy.Builder()
+                .setBackoffPolicy(extras.getInt(EXTRA_BACKOFF_POLICY))
+                .setInitialBackoffMillis(extras.getLong(EXTRA_INITIAL_BACKOFF))
+                .setJitter((float) extras.getDouble(EXTRA_JITTER))
+                .setMaxAttempts(extras.getInt(EXTRA_MAX_ATTEMPTS))
+                .build();
+    }
+
+    /**
+     * Method to read back the job spec a job was built from
+     * Jobs scheduled without the extras of this factory get the spec closest to their JobInfo.
+     *
+     * @param jobInfo Job as returned by the JobScheduler
+     * @return job spec, equal to the one passed to newBuilder()
+     * @throws IllegalArgumentException if the job can't be described by a valid job spec
+     */
+    @SuppressWarnings("deprecation")
+    public static JobSpec toJobSpec(JobInfo jobInfo) {
+        PersistableBundle extras = jobInfo.getExtras();
+
+        JobSpec.Builder specBuilder = new JobSpec.Builder()
+                .setRequiredNetworkType(jobInfo.getNetworkType())
+                .setRequiresDeviceIdle(jobInfo.isRequireDeviceIdle())
+                .setRequiresCharging(jobInfo.isRequireCharging())
+                .setRetryPolicy(getRetryPolicy(extras))
+                .setPipeline(extras.getString(EXTRA_PIPELINE));
+
+        if (jobInfo.isPeriodic()) {
+            specBuilder.setPeriodic(jobInfo.getIntervalMillis(),
+                    extras.getLong(EXTRA_REQUESTED_FLEX_MILLIS, jobInfo.getIntervalMillis()));
+        } else if (jobInfo.hasLateConstraint()) {
+            specBuilder.setOverrideDeadline(extras.getLong(EXTRA_DEADLINE_MILLIS, jobInfo.getMaxExecutionDelayMillis()));
+        }
+        return specBuilder.build();
+    }
+}
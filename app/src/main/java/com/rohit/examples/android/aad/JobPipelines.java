@@ -0,0 +1,153 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+
+import com.rohit.examples.android.aad.core.FileCheckpointStore;
+import com.rohit.examples.android.aad.core.JobPipeline;
+import com.rohit.examples.android.aad.core.NotificationContent;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class definition for the pipelines of work steps run by NotificationJobService
+ * A job names its pipeline in its extras, see JobSpec.Builder.setPipeline(), jobs without one
+   run PIPELINE_NOTIFY, the single notification step every job ran before pipelines existed.
+ */
+public final class JobPipelines {
+
+    /**
+     * Name of the pipeline posting the job notification with the fixed text of the job channel
+     */
+    public static final String PIPELINE_NOTIFY = "notify";
+
+    /**
+     * Name of the pipeline fetching the recent job runs from the job history, turning them into
+       the notification text and posting the notification
+     */
+    public static final String PIPELINE_REFRESH = "refresh";
+
+    // Time window of the job runs counted by the refresh pipeline, in milliseconds
+    private static final long REFRESH_WINDOW_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // Names of the job and task checkpoint directories in the app's files directory
+    private static final String CHECKPOINT_DIR = "pipeline_checkpoints";
+    private static final String TASK_CHECKPOINT_DIR = "task_checkpoints";
+
+    // Process wide checkpoint stores
+    private static FileCheckpointStore sCheckpoints;
+    private static FileCheckpointStore sTaskCheckpoints;
+
+    private JobPipelines() {
+    }
+
+    /**
+     * Returns the process wide store of pipeline checkpoints, created on first use
+     *
+     * @param context Context used to locate the files directory
+     * @return checkpoint store
+     */
+    public static synchronized JobPipeline.CheckpointStore getCheckpoints(Context context) {
+        if (sCheckpoints == null) {
+            sCheckpoints = new FileCheckpointStore(
+                    new File(context.getApplicationContext().getFilesDir(), CHECKPOINT_DIR));
+        }
+        return sCheckpoints;
+    }
+
+    /**
+     * Returns the process wide store of the checkpoints of queued tasks, created on first use
+     * Kept apart from the job checkpoints, as task IDs and job IDs are handed out independently.
+     *
+     * @param context Context used to locate the files directory
+     * @return checkpoint store
+     */
+    public static synchronized JobPipeline.CheckpointStore getTaskCheckpoints(Context context) {
+        if (sTaskCheckpoints == null) {
+            sTaskCheckpoints = new FileCheckpointStore(
+                    new File(context.getApplicationContext().getFilesDir(), TASK_CHECKPOINT_DIR));
+        }
+        return sTaskCheckpoints;
+    }
+
+    /**
+     * Method to create the pipeline run by a job
+     *
+     * @param context Context the steps run with
+     * @param jobId   ID of the job, used as the notification key
+     * @param name    Name of the pipeline, or null for PIPELINE_NOTIFY
+     * @return JobPipeline object
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static JobPipeline create(Context context, int jobId, String name) {
+        return create(context, NotificationJobService.NOTIFICATION_KEY_PREFIX + jobId, name);
+    }
+
+    /**
+     * Method to create a pipeline posting under the given notification key, e.g. for a queued task
+     *
+     * @param context         Context the steps run with
+     * @param notificationKey Key of the notification posted by the pipeline
+     * @param name            Name of the pipeline, or null for PIPELINE_NOTIFY
+     * @return JobPipeline object
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static JobPipeline create(Context context, String notificationKey, String name) {
+        final Context appContext = context.getApplicationContext();
+
+        if (name == null || PIPELINE_NOTIFY.equals(name)) {
+            return new JobPipeline.Builder(PIPELINE_NOTIFY)
+                    .addStep("notify", new NotifyStep(appContext, notificationKey))
+                    .build();
+        }
+
+        if (PIPELINE_REFRESH.equals(name)) {
+            return new JobPipeline.Builder(PIPELINE_REFRESH)
+                    .addStep("fetch", new JobPipeline.Step() {
+                        @Override
+                        public String run(String input) throws IOException {
+                            // Reading the disk, the job history counts the runs of every job of the app
+                            long since = System.currentTimeMillis() - REFRESH_WINDOW_MILLIS;
+                            return String.valueOf(JobHistory.getInstance(appContext).countRuns(-1, since));
+                        }
+                    })
+                    .addStep("transform", new JobPipeline.Step() {
+                        @Override
+                        public String run(String input) {
+                            return appContext.getString(R.string.notify_job_refresh_text, Integer.parseInt(input));
+                        }
+                    })
+                    .addStep("notify", new NotifyStep(appContext, notificationKey))
+                    .build();
+        }
+
+        throw new IllegalArgumentException("Unknown pipeline: " + name);
+    }
+
+    /**
+     * Step posting the job notification, with its input as the content text if there is one
+     * Unchanged content is skipped and changed content alerts only once, see NotificationDispatcher.
+     */
+    private static class NotifyStep implements JobPipeline.Step {
+
+        private final Context mContext;
+        private final String mNotificationKey;
+
+        NotifyStep(Context context, String notificationKey) {
+            mContext = context;
+            mNotificationKey = notificationKey;
+        }
+
+        @Override
+        public String run(String input) {
+            NotificationTemplate template = NotificationTemplates.get(mContext, NotificationChannels.JOB_CHANNEL_ID);
+
+            NotificationContent content = input == null ? template.getContent()
+                    : new NotificationContent.Builder(template.getContent()).setContentText(input).build();
+
+            // A refresh showing the same text as the last one is not posted again
+            NotificationDispatcher.getInstance(mContext).post(mNotificationKey, template, content);
+            return input;
+        }
+    }
+}
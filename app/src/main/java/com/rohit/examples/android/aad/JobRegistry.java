@@ -0,0 +1,512 @@
+package com.rohit.examples.android.aad;
+
+import android.annotation.TargetApi;
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.app.job.JobWorkItem;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PersistableBundle;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobHistoryRecord;
+import com.rohit.examples.android.aad.core.JobPipeline;
+import com.rohit.examples.android.aad.core.FlexWindows;
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.JobSpecDiff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class definition to keep track of every job the app has handed to the JobScheduler
+ * Assigns collision-free job IDs and keeps an in-memory index of live jobs by ID and by constraint set,
+   so single jobs or subsets can be cancelled without asking the system for its pending jobs again.
+ * The index doubles as the snapshot batches of job specs are diffed against, see scheduleAll() and sync().
+ */
+public class JobRegistry {
+
+    private static final String TAG = "JobRegistry";
+
+    /**
+     * First and last job ID handed out by the registry
+     * The IDs above are reserved for the WorkStream job and the TaskMultiplexer slots.
+     */
+    private static final int FIRST_JOB_ID = 1;
+    private static final int LAST_JOB_ID = WorkStream.STREAM_JOB_ID - 1;
+
+    // Process wide registry instance
+    private static JobRegistry sInstance;
+
+    // Member variable for job scheduler
+    private final JobScheduler mScheduler;
+
+    // Member variable for the persistent history of job events
+    private final JobHistory mJobHistory;
+
+    // Member variable for the checkpoints of job pipelines, dropped when a job ID is reused or cancelled
+    private final JobPipeline.CheckpointStore mCheckpoints;
+
+    // Handler calling the give up listeners on the main thread
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    // Live jobs indexed by job ID
+    private final SparseArray<JobInfo> mJobsById = new SparseArray<>();
+
+    // Live job IDs indexed by constraint key
+    private final SparseArray<Set<Integer>> mJobsByConstraints = new SparseArray<>();
+
+    // Number of stopped attempts of live jobs, indexed by job ID
+    private final SparseIntArray mAttempts = new SparseIntArray();
+
+    // Listeners told about jobs given up after their last attempt
+    private final List<OnGiveUpListener> mGiveUpListeners = new CopyOnWriteArrayList<>();
+
+    // Next job ID candidate
+    private int mNextJobId = FIRST_JOB_ID;
+
+    /**
+     * Returns the process wide registry, created on first use
+     *
+     * @param context Context used to look up the JobScheduler service
+     * @return JobRegistry instance
+     */
+    public static synchronized JobRegistry getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new JobRegistry(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private JobRegistry(Context context) {
+        mScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        mJobHistory = JobHistory.getInstance(context);
+        mCheckpoints = JobPipelines.getCheckpoints(context);
+
+        /*
+         * Seeding the index once from the jobs the system still holds for us,
+           so IDs handed out after a process restart never collide with pending jobs.
+         */
+        for (JobInfo jobInfo : mScheduler.getAllPendingJobs()) {
+            index(jobInfo);
+            if (jobInfo.getId() >= mNextJobId && jobInfo.getId() < LAST_JOB_ID) {
+                mNextJobId = jobInfo.getId() + 1;
+            }
+        }
+    }
+
+    /**
+     * Method to reserve a job ID that is not used by any live job
+     *
+     * @return unused job ID
+     */
+    public synchronized int nextJobId() {
+        while (mJobsById.get(mNextJobId) != null) {
+            advance();
+        }
+        int jobId = mNextJobId;
+        advance();
+        return jobId;
+    }
+
+    /**
+     * Method to schedule a job and add it to the index
+     * A job with the same ID replaces the previously indexed one, as JobScheduler does.
+     *
+     * @param jobInfo Job to be scheduled
+     * @return true if the JobScheduler accepted the job
+     */
+    public synchronized boolean schedule(JobInfo jobInfo) {
+        if (mScheduler.schedule(jobInfo) != JobScheduler.RESULT_SUCCESS) {
+            return false;
+        }
+        unindex(jobInfo.getId());
+        index(jobInfo);
+
+        // A new job under this ID starts its pipeline from the first step
+        mCheckpoints.clear(jobInfo.getId());
+
+        mJobHistory.record(jobInfo.getId(), JobHistoryRecord.EVENT_SCHEDULED, constraintKey(jobInfo), 0, 0);
+        return true;
+    }
+
+    /**
+     * Method to add a work item to a job, scheduling the job if it is not live
+     * Unlike schedule(), a running job with an equal JobInfo is not replaced, it receives the work item.
+       Only the first item of a job is recorded in the job history.
+     *
+     * @param jobInfo Job running the work item, must be equal for every item of a running job
+     * @param work    Work item to be added
+     * @return true if the JobScheduler accepted the work item
+     */
+    @TargetApi(Build.VERSION_CODES.O)
+    public synchronized boolean enqueue(JobInfo jobInfo, JobWorkItem work) {
+        if (mScheduler.enqueue(jobInfo, work) != JobScheduler.RESULT_SUCCESS) {
+            return false;
+        }
+        if (mJobsById.get(jobInfo.getId()) == null) {
+            index(jobInfo);
+            mJobHistory.record(jobInfo.getId(), JobHistoryRecord.EVENT_SCHEDULED, constraintKey(jobInfo), 0, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Method to schedule a job described by a job spec under a fresh job ID
+     * The flex window of a periodic job is widened to overlap the windows of the oldest live periodic job
+       with the same constraints and interval, so JobScheduler can run both in one wakeup.
+     *
+     * @param service Component Name of the Job Service running the job
+     * @param spec    Job spec to be scheduled
+     * @return ID of the scheduled job, or -1 if the JobScheduler rejected it
+     */
+    public synchronized int schedule(ComponentName service, JobSpec spec) {
+        int jobId = nextJobId();
+        long flexMillis = spec.isPeriodic() ? alignFlexWindow(spec) : spec.getFlexMillis();
+        return schedule(JobInfoFactory.newBuilder(jobId, service, spec, flexMillis).build()) ? jobId : -1;
+    }
+
+    /**
+     * Method to make sure a batch of job specs is scheduled, without scheduling any of them twice
+     * The batch is compared against the live jobs of the service, a spec equal to a live job keeps that job
+       and costs no call to the JobScheduler, only the specs without a live job are scheduled.
+     * Can be called from any thread.
+     *
+     * @param service Component Name of the Job Service running the jobs
+     * @param specs   Job specs to be scheduled
+     * @return job IDs in batch order, -1 for a spec the JobScheduler rejected
+     */
+    public synchronized int[] scheduleAll(ComponentName service, List<JobSpec> specs) {
+        JobSpecDiff diff = JobSpecDiff.compute(liveSpecs(service, new ArrayList<Integer>()), specs);
+        return scheduleMissing(service, specs, diff);
+    }
+
+    /**
+     * Method to make the live jobs of a service match a batch of job specs
+     * Like scheduleAll(), and the live jobs of the service no spec of the batch matched are cancelled,
+       so reapplying the same batch, e.g. after an app update, makes no call to the JobScheduler at all.
+     * Live jobs that can't be described by a job spec can't match any spec, they are cancelled too.
+     * Can be called from any thread.
+     *
+     * @param service Component Name of the Job Service running the jobs
+     * @param specs   Every job spec the service should run
+     * @return job IDs in batch order, -1 for a spec the JobScheduler rejected
+     */
+    public synchronized int[] sync(ComponentName service, List<JobSpec> specs) {
+        List<Integer> undescribedJobIds = new ArrayList<>();
+        JobSpecDiff diff = JobSpecDiff.compute(liveSpecs(service, undescribedJobIds), specs);
+        for (int jobId : diff.getUnmatchedJobIds()) {
+            cancel(jobId);
+        }
+        for (int jobId : undescribedJobIds) {
+            cancel(jobId);
+        }
+        return scheduleMissing(service, specs, diff);
+    }
+
+    private int[] scheduleMissing(ComponentName service, List<JobSpec> specs, JobSpecDiff diff) {
+        int[] jobIds = new int[specs.size()];
+        for (int i = 0; i < specs.size(); i++) {
+            jobIds[i] = diff.getMatchedJobId(i);
+            if (jobIds[i] == JobSpecDiff.NOT_SCHEDULED) {
+                jobIds[i] = schedule(service, specs.get(i));
+            }
+        }
+        return jobIds;
+    }
+
+    /**
+     * Helper method to describe the live jobs of a service as job specs, from the index only
+     * Jobs that can't be described by a job spec are left out and their IDs added to undescribedJobIds.
+       Jobs under reserved IDs are left out too, they are managed by the WorkStream and the TaskMultiplexer alone.
+     */
+    private Map<Integer, JobSpec> liveSpecs(ComponentName service, List<Integer> undescribedJobIds) {
+        Map<Integer, JobSpec> specs = new HashMap<>();
+        for (int i = 0; i < mJobsById.size(); i++) {
+            JobInfo jobInfo = mJobsById.valueAt(i);
+            if (!service.equals(jobInfo.getService()) || jobInfo.getId() > LAST_JOB_ID) {
+                continue;
+            }
+            try {
+                specs.put(jobInfo.getId(), JobInfoFactory.toJobSpec(jobInfo));
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Job " + jobInfo.getId() + " has no valid job spec", e);
+                undescribedJobIds.add(jobInfo.getId());
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Helper method to line up the flex window of a periodic job spec with a compatible live job
+     *
+     * @param spec Periodic job spec
+     * @return aligned flex window, or the flex window of the spec if no compatible job is live
+     */
+    private long alignFlexWindow(JobSpec spec) {
+        Set<Integer> jobIds = mJobsByConstraints.get(spec.getConstraintKey());
+        if (jobIds == null) {
+            return spec.getFlexMillis();
+        }
+
+        // The oldest compatible job is the anchor every later job lines up with
+        PersistableBundle anchorExtras = null;
+        for (int jobId : jobIds) {
+            JobInfo jobInfo = mJobsById.get(jobId);
+            PersistableBundle extras = jobInfo.getExtras();
+            if (jobInfo.getIntervalMillis() != spec.getIntervalMillis()
+                    || !extras.containsKey(JobInfoFactory.EXTRA_SCHEDULED_AT)) {
+                continue;
+            }
+            if (anchorExtras == null || extras.getLong(JobInfoFactory.EXTRA_SCHEDULED_AT)
+                    < anchorExtras.getLong(JobInfoFactory.EXTRA_SCHEDULED_AT)) {
+                anchorExtras = extras;
+            }
+        }
+        if (anchorExtras == null) {
+            return spec.getFlexMillis();
+        }
+
+        return FlexWindows.alignedFlex(spec.getIntervalMillis(), spec.getFlexMillis(),
+                anchorExtras.getLong(JobInfoFactory.EXTRA_SCHEDULED_AT),
+                anchorExtras.getLong(JobInfoFactory.EXTRA_FLEX_MILLIS), System.currentTimeMillis());
+    }
+
+    /**
+     * Method to cancel a single job
+     *
+     * @param jobId ID of the job to be cancelled
+     * @return true if the job was live
+     */
+    public synchronized boolean cancel(int jobId) {
+        mScheduler.cancel(jobId);
+        mCheckpoints.clear(jobId);
+        return unindex(jobId) != null;
+    }
+
+    /**
+     * Method to cancel every job scheduled with the given constraint set
+     *
+     * @param constraintKey Constraint key as returned by {@link #constraintKey(JobInfo)}
+     * @return number of jobs cancelled
+     */
+    public synchronized int cancelByConstraints(int constraintKey) {
+        Set<Integer> jobIds = mJobsByConstraints.get(constraintKey);
+        if (jobIds == null) {
+            return 0;
+        }
+        List<Integer> snapshot = new ArrayList<>(jobIds);
+        for (int jobId : snapshot) {
+            cancel(jobId);
+        }
+        return snapshot.size();
+    }
+
+    /**
+     * Method to cancel every job of the app
+     *
+     * @return number of jobs cancelled
+     */
+    public synchronized int cancelAll() {
+        int count = mJobsById.size();
+        mScheduler.cancelAll();
+        for (int i = 0; i < count; i++) {
+            mCheckpoints.clear(mJobsById.keyAt(i));
+        }
+        mJobsById.clear();
+        mJobsByConstraints.clear();
+        mAttempts.clear();
+        return count;
+    }
+
+    /**
+     * Called once a job has run to completion and will not be run again by the system
+     *
+     * @param jobId ID of the finished job
+     */
+    public synchronized void onJobFinished(int jobId) {
+        JobInfo jobInfo = mJobsById.get(jobId);
+        if (jobInfo != null && !jobInfo.isPeriodic()) {
+            unindex(jobId);
+        } else {
+            // A periodic job starts a new period, the next stop is its first attempt again
+            mAttempts.delete(jobId);
+        }
+    }
+
+    /**
+     * Method to count a stopped attempt of a job
+     * Attempts are only counted in memory, a job stopped across process restarts starts counting again.
+     *
+     * @param jobId ID of the stopped job
+     * @return number of attempts made so far, including the stopped one
+     */
+    public synchronized int recordAttempt(int jobId) {
+        int attempts = mAttempts.get(jobId) + 1;
+        mAttempts.put(jobId, attempts);
+        return attempts;
+    }
+
+    /**
+     * @param jobId ID of a job
+     * @return number of stopped attempts of the job so far, 0 while it hasn't been stopped
+     */
+    public synchronized int getAttempts(int jobId) {
+        return mAttempts.get(jobId);
+    }
+
+    /**
+     * Method to drop a job that ran out of attempts and tell the give up listeners
+     * The caller answers the system with no reschedule, which drops a one-shot job. A periodic job would still
+       run again in its next period, so it is cancelled here.
+     *
+     * @param jobId    ID of the job given up
+     * @param attempts Number of attempts made
+     */
+    public void giveUp(final int jobId, final int attempts) {
+        synchronized (this) {
+            JobInfo jobInfo = unindex(jobId);
+            if (jobInfo != null && jobInfo.isPeriodic()) {
+                mScheduler.cancel(jobId);
+            }
+            mCheckpoints.clear(jobId);
+        }
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (OnGiveUpListener listener : mGiveUpListeners) {
+                    listener.onGiveUp(jobId, attempts);
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to tell the give up listeners about a task of TaskMultiplexer that ran out of attempts
+     * The slot job running the task is not given up, it keeps running the other tasks of its slot.
+     *
+     * @param taskId   ID of the task dropped
+     * @param attempts Number of attempts made
+     */
+    public void giveUpTask(final int taskId, final int attempts) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (OnGiveUpListener listener : mGiveUpListeners) {
+                    listener.onTaskGivenUp(taskId, attempts);
+                }
+            }
+        });
+    }
+
+    public void addOnGiveUpListener(OnGiveUpListener listener) {
+        mGiveUpListeners.add(listener);
+    }
+
+    public void removeOnGiveUpListener(OnGiveUpListener listener) {
+        mGiveUpListeners.remove(listener);
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @return live job with the given ID or null
+     */
+    public synchronized JobInfo getJob(int jobId) {
+        return mJobsById.get(jobId);
+    }
+
+    /**
+     * @param constraintKey Constraint key as returned by {@link #constraintKey(JobInfo)}
+     * @return IDs of the live jobs scheduled with the given constraint set
+     */
+    public synchronized List<Integer> getJobIds(int constraintKey) {
+        Set<Integer> jobIds = mJobsByConstraints.get(constraintKey);
+        return jobIds == null ? new ArrayList<Integer>() : new ArrayList<>(jobIds);
+    }
+
+    /**
+     * @return number of live jobs
+     */
+    public synchronized int size() {
+        return mJobsById.size();
+    }
+
+    /**
+     * Helper method to compute the constraint key of a job
+     * Jobs sharing network type, idle, charging and deadline requirements share the same key,
+       periodic jobs report a late constraint to JobScheduler but are keyed apart from deadline jobs.
+     *
+     * @param jobInfo Job to compute the key for
+     * @return constraint key, same as {@link JobSpec#getConstraintKey()} for the spec the job was built from
+     */
+    @SuppressWarnings("deprecation")
+    public static int constraintKey(JobInfo jobInfo) {
+        return JobConstraints.constraintKey(jobInfo.getNetworkType(), jobInfo.isRequireDeviceIdle(),
+                jobInfo.isRequireCharging(), jobInfo.hasLateConstraint() && !jobInfo.isPeriodic(),
+                jobInfo.isPeriodic());
+    }
+
+    private void advance() {
+        mNextJobId = mNextJobId == LAST_JOB_ID ? FIRST_JOB_ID : mNextJobId + 1;
+    }
+
+    private void index(JobInfo jobInfo) {
+        int key = constraintKey(jobInfo);
+        mJobsById.put(jobInfo.getId(), jobInfo);
+
+        Set<Integer> jobIds = mJobsByConstraints.get(key);
+        if (jobIds == null) {
+            jobIds = new HashSet<>();
+            mJobsByConstraints.put(key, jobIds);
+        }
+        jobIds.add(jobInfo.getId());
+    }
+
+    private JobInfo unindex(int jobId) {
+        mAttempts.delete(jobId);
+        JobInfo jobInfo = mJobsById.get(jobId);
+        if (jobInfo == null) {
+            return null;
+        }
+        mJobsById.remove(jobId);
+
+        int key = constraintKey(jobInfo);
+        Set<Integer> jobIds = mJobsByConstraints.get(key);
+        if (jobIds != null) {
+            jobIds.remove(jobId);
+            if (jobIds.isEmpty()) {
+                mJobsByConstraints.remove(key);
+            }
+        }
+        return jobInfo;
+    }
+
+    /**
+     * Callback for jobs given up by their retry policy and tasks dropped by TaskMultiplexer, called on the main thread
+     */
+    public interface OnGiveUpListener {
+
+        /**
+         * @param jobId    ID of the job given up
+         * @param attempts Number of attempts made
+         */
+        void onGiveUp(int jobId, int attempts);
+
+        /**
+         * @param taskId   ID of the task dropped from its slot
+         * @param attempts Number of attempts made
+         */
+        void onTaskGivenUp(int taskId, int attempts);
+    }
+}
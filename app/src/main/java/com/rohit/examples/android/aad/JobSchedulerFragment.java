@@ -0,0 +1,414 @@
+package com.rohit.examples.android.aad;
+
+import android.content.ComponentName;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.CompoundButton;
+import android.widget.RadioGroup;
+import android.widget.SeekBar;
+import android.widget.Switch;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.fragment.app.Fragment;
+
+import com.rohit.examples.android.aad.core.FlexWindows;
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.RetryPolicy;
+
+import java.util.Collections;
+
+/**
+ * Class definition to handle Job Scheduling, the third screen hosted by MainActivity
+ */
+public class JobSchedulerFragment extends Fragment implements JobRegistry.OnGiveUpListener {
+
+    /**
+     * Retry policy of the scheduled jobs
+     * Exponential backoff from 30 seconds, moved by up to half of it per job so jobs stopped together
+       by a lost constraint retry at different times, given up after 5 attempts.
+     */
+    private static final RetryPolicy JOB_RETRY_POLICY = new RetryPolicy.Builder()
+            .setBackoffPolicy(RetryPolicy.BACKOFF_POLICY_EXPONENTIAL)
+            .setInitialBackoffMillis(30 * 1000L)
+            .setJitter(0.5f)
+            .setMaxAttempts(5)
+            .build();
+
+    /**
+     * Periodic jobs repeat every (interval SeekBar progress + 1) * 15 minutes and may run in the last third
+       of each interval, the registry widens that flex window to line up with compatible periodic jobs.
+     */
+    private static final long INTERVAL_STEP_MILLIS = FlexWindows.MIN_INTERVAL_MILLIS;
+    private static final int FLEX_DIVISOR = 3;
+
+    // Member variable for RadioGroup view
+    RadioGroup networkOptions;
+
+    // Member variables Switches Device Idle and Device Charging for setting job options
+    private Switch mDeviceIdleSwitch;
+    private Switch mDeviceChargingSwitch;
+
+    // Member variable for Override Deadline SeekBar
+    private SeekBar mSeekBar;
+
+    // Member variable for the Switch replacing the SeekBar deadline by one learned from past jobs
+    private Switch mAdaptiveDeadlineSwitch;
+
+    // Member variables for the periodic mode Switch and the repeat interval SeekBar
+    private Switch mPeriodicSwitch;
+    private SeekBar mIntervalSeekBar;
+
+    // Member variable for the Component Name of the Job Service running the scheduled jobs
+    private ComponentName mServiceName;
+
+    // Member variable for the registry handing out job IDs and tracking scheduled jobs
+    JobRegistry mJobRegistry;
+
+    // Member variable for the multiplexer queueing one-shot work as tasks on a few shared jobs
+    private TaskMultiplexer mTaskMultiplexer;
+
+    // Member variable for the store keeping the periodic jobs across reboots
+    private JobStore mJobStore;
+
+    // Whether this screen is started, the give up listener is registered while it's started and shown
+    private boolean mStarted;
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        // Initializing the job registry, shared by every instance of this screen
+        StartupTracer.begin("JobSchedulerFragment.jobRegistry");
+        mJobRegistry = JobRegistry.getInstance(requireContext());
+        mTaskMultiplexer = TaskMultiplexer.getInstance(requireContext());
+        mJobStore = JobStore.getInstance(requireContext());
+        StartupTracer.end();
+    }
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        StartupTracer.begin("JobSchedulerFragment.inflate");
+        View view = inflater.inflate(R.layout.fragment_job_scheduler, container, false);
+        StartupTracer.end();
+        return view;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        StartupTracer.begin("JobSchedulerFragment.findViews");
+
+        // Getting view ID of RadioGroup from resource
+        networkOptions = view.findViewById(R.id.networkOptions);
+
+        /*
+         * Instantiating ComponentName to associate Job ID with JobInfo object by passing in
+           getPackageName() to obtain application package name and Job Scheduling class to get its all entities
+         */
+        mServiceName = new ComponentName(requireContext().getPackageName(), NotificationJobService.class.getName());
+
+        // Initializing the switch variables with their ID resource
+        mDeviceIdleSwitch = view.findViewById(R.id.idleSwitch);
+        mDeviceChargingSwitch = view.findViewById(R.id.chargingSwitch);
+
+        // Initializing the SeekBar variable with their ID resource
+        mSeekBar = view.findViewById(R.id.seekBar);
+
+        // Create and initialize SeekBar Progress text variable with Id resource
+        final TextView seekBarProgress = view.findViewById(R.id.seekBarProgress);
+
+        // Implement SeekBar object to track Progress changes and SeekBar thumb touch
+        mSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int i, boolean b) {
+                // Check SeekBar value greater than 0 to set SeekBar progress label accordingly
+                if (i > 0) {
+                    seekBarProgress.setText(String.format("" + getString(R.string.seekBar_time_unit), i));
+                } else {
+                    seekBarProgress.setText(getString(R.string.deadline_not_set));
+                }
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+
+            }
+        });
+
+        // Initializing the periodic mode views, the interval label follows the interval SeekBar
+        mPeriodicSwitch = view.findViewById(R.id.periodicSwitch);
+        mIntervalSeekBar = view.findViewById(R.id.intervalSeekBar);
+        final TextView intervalProgress = view.findViewById(R.id.intervalProgress);
+        intervalProgress.setText(getString(R.string.interval_time_unit, intervalMinutes(0)));
+
+        mIntervalSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int i, boolean b) {
+                intervalProgress.setText(getString(R.string.interval_time_unit, intervalMinutes(i)));
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+
+            }
+        });
+
+        /*
+         * A periodic job can't have an override deadline, only one of both SeekBars is enabled at a time
+         * An adaptive deadline replaces the one of the SeekBar
+         */
+        mAdaptiveDeadlineSwitch = view.findViewById(R.id.adaptiveDeadlineSwitch);
+        CompoundButton.OnCheckedChangeListener deadlineModeListener = new CompoundButton.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(CompoundButton compoundButton, boolean isChecked) {
+                boolean periodic = mPeriodicSwitch.isChecked();
+                mIntervalSeekBar.setEnabled(periodic);
+                mAdaptiveDeadlineSwitch.setEnabled(!periodic);
+                mSeekBar.setEnabled(!periodic && !mAdaptiveDeadlineSwitch.isChecked());
+            }
+        };
+        mPeriodicSwitch.setOnCheckedChangeListener(deadlineModeListener);
+        mAdaptiveDeadlineSwitch.setOnCheckedChangeListener(deadlineModeListener);
+
+        // Handling the Schedule, Cancel and Run Now button clicks
+        Button scheduleButton = view.findViewById(R.id.scheduleButton);
+        scheduleButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                scheduleJobs(view);
+            }
+        });
+        Button cancelButton = view.findViewById(R.id.cancelButton);
+        cancelButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                cancelJobs(view);
+            }
+        });
+        Button runNowButton = view.findViewById(R.id.runNowButton);
+        runNowButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                runNow(view);
+            }
+        });
+        StartupTracer.end();
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        mStarted = true;
+        updateGiveUpListener();
+    }
+
+    @Override
+    public void onStop() {
+        mStarted = false;
+        updateGiveUpListener();
+        super.onStop();
+    }
+
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        updateGiveUpListener();
+    }
+
+    /**
+     * Helper method listening to given up jobs only while this screen is started and not hidden by the navigator
+     */
+    private void updateGiveUpListener() {
+        // Removing first, so the listener is never added twice
+        mJobRegistry.removeOnGiveUpListener(this);
+        if (mStarted && !isHidden()) {
+            mJobRegistry.addOnGiveUpListener(this);
+        }
+    }
+
+    /**
+     * Called on the main thread when a job ran out of attempts while this screen is visible
+     *
+     * @param jobId    ID of the job given up
+     * @param attempts Number of attempts made
+     */
+    @Override
+    public void onGiveUp(int jobId, int attempts) {
+        Toast.makeText(requireContext(), getString(R.string.job_given_up_text, jobId, attempts),
+                Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Called on the main thread when a queued task ran out of attempts while this screen is visible
+     *
+     * @param taskId   ID of the task dropped
+     * @param attempts Number of attempts made
+     */
+    @Override
+    public void onTaskGivenUp(int taskId, int attempts) {
+        Toast.makeText(requireContext(), getString(R.string.task_given_up_text, taskId, attempts),
+                Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Method to schedule jobs
+     * @param view View to be used for creating jobs
+     */
+    public void scheduleJobs(View view) {
+
+        // Reading the user selection into a platform independent job spec
+        JobSpec jobSpec = readJobSpec();
+
+        /*
+         * A check to track whether at least one constraint is set
+         * Default network option is NETWORK_TYPE_NONE and not a valid constraint,
+           device idle, device charging and the override deadline each count as a constraint.
+         */
+        if (JobConstraints.isConstraintSet(jobSpec)) {
+            // Schedule the job and notify the user
+
+            if (jobSpec.isPeriodic()) {
+                /*
+                 * Call to scheduleAll() with JobRegistry object by passing in the Job Service and the job spec,
+                   the registry assigns a fresh Job ID and indexes the job by ID and constraint set,
+                   unless an identical job is already pending, which is then kept as it is.
+                 * Call to add() with JobStore object, so the job is restored after a reboot.
+                 */
+                int[] jobIds = mJobRegistry.scheduleAll(mServiceName, Collections.singletonList(jobSpec));
+                if (jobIds[0] != -1) {
+                    mJobStore.add(jobSpec);
+                }
+            } else {
+                /*
+                 * Call to enqueue() with TaskMultiplexer object by passing in the job spec, one-shot work is
+                   queued as a task and run by the job of its constraint set, so any number of them can be
+                   scheduled without reaching the limit of jobs the system allows per app.
+                 */
+                mTaskMultiplexer.enqueue(jobSpec);
+            }
+
+            // A toast message to let user know the job was scheduled
+            Toast.makeText(requireContext(), getString(R.string.job_scheduled_success_text), Toast.LENGTH_SHORT).show();
+        } else {
+            //A toast message to let user know the valid job constraint not set
+            Toast.makeText(requireContext(), getString(R.string.job_constraint_not_set), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * Method to run the work right away, ignoring the selected constraints
+     * The work is added to the stream job, a burst of taps costs a single job start.
+     * @param view View to be used for running the work
+     */
+    public void runNow(View view) {
+        WorkStream.getInstance(requireContext()).enqueue(JobPipelines.PIPELINE_REFRESH);
+
+        // A toast message to let user know the work runs right away
+        Toast.makeText(requireContext(), getString(R.string.job_streamed_text), Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Helper method to build a job spec from the current state of the views
+     *
+     * @return JobSpec object
+     */
+    private JobSpec readJobSpec() {
+
+        // Saving the default network option i.e., NETWORK_TYPE_NONE
+        int selectedNetworkOption = JobSpec.NETWORK_TYPE_NONE;
+
+        /*
+         * Assigning the appropriate network constant to selected network option using switch
+         */
+        switch (networkOptions.getCheckedRadioButtonId()) {
+            case R.id.noNetwork:
+                selectedNetworkOption = JobSpec.NETWORK_TYPE_NONE;
+                break;
+
+            case R.id.anyNetwork:
+                selectedNetworkOption = JobSpec.NETWORK_TYPE_ANY;
+                break;
+
+            case R.id.wifiNetwork:
+                selectedNetworkOption = JobSpec.NETWORK_TYPE_UNMETERED;
+
+        }
+
+        /*
+         * Setting the network type, device idle and device charging requirements from the user selection.
+         * Setting the seekBar progress value, in seconds, as the override deadline which is the maximum
+           scheduling latency, a progress of 0 leaves the deadline unset.
+         * With the adaptive deadline the override deadline is the one learned from the waits of past jobs
+           with the same constraints, most jobs run on their constraints and none waits past the freshness SLO.
+         * Setting the retry policy applied when a job is stopped before it finishes.
+         * Setting the refresh pipeline, fetch, transform and notify run in one job execution.
+         */
+        JobSpec.Builder specBuilder = new JobSpec.Builder()
+                .setRequiredNetworkType(selectedNetworkOption)
+                .setRequiresDeviceIdle(mDeviceIdleSwitch.isChecked())
+                .setRequiresCharging(mDeviceChargingSwitch.isChecked())
+                .setRetryPolicy(JOB_RETRY_POLICY)
+                .setPipeline(JobPipelines.PIPELINE_REFRESH);
+
+        // Setting either the repeat interval and its flex window or the override deadline
+        if (mPeriodicSwitch.isChecked()) {
+            long intervalMillis = (mIntervalSeekBar.getProgress() + 1) * INTERVAL_STEP_MILLIS;
+            specBuilder.setPeriodic(intervalMillis, intervalMillis / FLEX_DIVISOR);
+        } else if (mAdaptiveDeadlineSwitch.isChecked()) {
+            int constraintKey = JobConstraints.constraintKey(selectedNetworkOption,
+                    mDeviceIdleSwitch.isChecked(), mDeviceChargingSwitch.isChecked(), false);
+
+            // Without any constraint the job is refused, there is no wait to bound
+            if (constraintKey != 0) {
+                AdaptiveDeadlines adaptiveDeadlines = AdaptiveDeadlines.getInstance(requireContext());
+                specBuilder.setOverrideDeadline(adaptiveDeadlines.getDeadlineMillis(constraintKey));
+            }
+        } else {
+            specBuilder.setOverrideDeadlineSeconds(mSeekBar.getProgress());
+        }
+        return specBuilder.build();
+    }
+
+    /**
+     * Helper method to convert the interval SeekBar progress into minutes
+     */
+    private static long intervalMinutes(int progress) {
+        return (progress + 1) * INTERVAL_STEP_MILLIS / (60 * 1000L);
+    }
+
+    /**
+     * Method to cancel jobs
+     * @param view View to be used to cancel jobs from
+     */
+    public void cancelJobs(View view) {
+
+        /*
+         * Call to cancelAll() with JobRegistry object to remove all pending jobs,
+           the registry outlives this screen so jobs scheduled before a recreation are cancelled too.
+         * Call to clear() with TaskMultiplexer object to drop the queued tasks as well,
+           and with JobStore object so no job comes back after a reboot.
+         * A toast message to let user know the job was cancelled
+         */
+        mJobRegistry.cancelAll();
+        mTaskMultiplexer.clear();
+        mJobStore.clear();
+
+        Toast.makeText(requireContext(), getString(R.string.job_cancel_text), Toast.LENGTH_SHORT).show();
+    }
+}
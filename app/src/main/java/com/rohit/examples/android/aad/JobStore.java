@@ -0,0 +1,223 @@
+package com.rohit.examples.android.aad;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.JobSpecSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class definition to keep the periodic jobs scheduled by the user across reboots
+ * The JobScheduler forgets the jobs of the app on reboot. Every periodic job spec handed to the JobRegistry
+   is also kept here and saved as a single JobSpecSnapshot in the app's files directory, coalesced on a
+   background thread. After a reboot restore() reads the snapshot in one sequential pass and hands
+   the whole batch to JobRegistry.sync(), which schedules only the jobs the system doesn't hold already.
+ * One-shot work is kept by the TaskMultiplexer, whose queue snapshot is restored the same way.
+ */
+public class JobStore {
+
+    private static final String TAG = "JobStore";
+
+    // Name of the snapshot in the app's files directory
+    private static final String FILE_NAME = "job_specs.bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Process wide store instance
+    private static JobStore sInstance;
+
+    private final File mFile;
+    private final ComponentName mServiceName;
+    private final JobRegistry mJobRegistry;
+
+    // Single thread loading and saving the specs and restoring the jobs, in order
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    // Kept job specs in scheduling order, only used on the executor
+    private Set<JobSpec> mSpecs;
+
+    // Whether a save is already waiting on the executor, later changes are written by it
+    private boolean mSavePending;
+
+    /**
+     * Returns the process wide store, created on first use
+     * The snapshot is loaded in the background, specs can be added right away.
+     *
+     * @param context Context used to locate the files directory and the job registry
+     * @return JobStore instance
+     */
+    public static synchronized JobStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new JobStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private JobStore(Context context) {
+        mFile = new File(context.getFilesDir(), FILE_NAME);
+        mServiceName = new ComponentName(context, NotificationJobService.class);
+        mJobRegistry = JobRegistry.getInstance(context);
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mSpecs = load();
+            }
+        });
+    }
+
+    /**
+     * Method to keep a job spec scheduled through the JobRegistry, a spec already kept is not added twice
+     *
+     * @param spec Periodic job spec
+     */
+    public void add(final JobSpec spec) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mSpecs.add(spec)) {
+                    requestSave();
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to forget a job spec, e.g. once its job was given up
+     *
+     * @param spec Job spec as kept by add()
+     */
+    public void remove(final JobSpec spec) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mSpecs.remove(spec)) {
+                    requestSave();
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to forget every job spec, after every job of the app was cancelled
+     */
+    public void clear() {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mSpecs.clear();
+                requestSave();
+            }
+        });
+    }
+
+    /**
+     * Method to make the jobs of the registry match the kept job specs, in the background
+     * Jobs the system still holds are kept as they are, missing ones are scheduled, and jobs no kept spec
+       describes anymore are cancelled.
+     *
+     * @param onDone Runnable called on the background thread once the jobs are restored, or null
+     */
+    public void restore(final Runnable onDone) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    long start = SystemClock.elapsedRealtime();
+                    int[] jobIds = mJobRegistry.sync(mServiceName, new ArrayList<>(mSpecs));
+
+                    int rejected = 0;
+                    for (int jobId : jobIds) {
+                        if (jobId == -1) {
+                            rejected++;
+                        }
+                    }
+                    Log.i(TAG, "Restored " + jobIds.length + " jobs in "
+                            + (SystemClock.elapsedRealtime() - start) + " ms, " + rejected + " rejected");
+                } finally {
+                    if (onDone != null) {
+                        onDone.run();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Helper method posting a save of the specs, unless one is already waiting, runs on the executor
+     */
+    private void requestSave() {
+        if (mSavePending) {
+            return;
+        }
+        mSavePending = true;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mSavePending = false;
+                try {
+                    save();
+                } catch (IOException e) {
+                    Log.w(TAG, "Can't save the job specs", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Helper method writing the specs to a temporary file and renaming it over the previous snapshot
+     */
+    private void save() throws IOException {
+        File tempFile = new File(mFile.getPath() + TEMP_SUFFIX);
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        try {
+            JobSpecSnapshot.writeTo(out, mSpecs);
+            out.flush();
+            fileOut.getFD().sync();
+        } finally {
+            out.close();
+        }
+
+        if (!tempFile.renameTo(mFile)) {
+            throw new IOException("Can't rename " + tempFile);
+        }
+    }
+
+    /**
+     * Helper method reading the snapshot in one pass, an unreadable snapshot starts with no specs
+     */
+    private Set<JobSpec> load() {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+            try {
+                List<JobSpec> specs = JobSpecSnapshot.readFrom(in);
+                return new LinkedHashSet<>(specs);
+            } finally {
+                in.close();
+            }
+        } catch (FileNotFoundException e) {
+            return new LinkedHashSet<>();
+        } catch (IOException e) {
+            Log.w(TAG, "Can't read the job specs, starting empty", e);
+            return new LinkedHashSet<>();
+        }
+    }
+}
@@ -1,123 +1,137 @@
 package com.rohit.examples.android.aad;
 
+import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
 import android.os.Bundle;
-import android.view.Gravity;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.view.ViewGroup;
-import android.widget.Button;
-import android.widget.FrameLayout;
-import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
-import android.widget.TextView;
-import android.widget.Toast;
-
-import androidx.annotation.RequiresApi;
+import android.util.Log;
+
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.google.android.material.snackbar.Snackbar;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
 
 /**
- * Class definition to handle Toast
+ * Class definition for the single activity hosting every screen of the app
+ * The Toast, Notification and Job Scheduler screens are fragments shown by the ScreenNavigator, each one
+   created on its first visit and kept warm, so moving between them never starts an activity.
+ * Intents built with ScreenNavigator.actionOf() open a screen, the activity is singleTop so a
+   notification tap reuses the running host.
  */
-public class MainActivity extends AppCompatActivity {
-
-    //Member variables for different view layouts
-    LinearLayout linearLayout;
-    RelativeLayout relativeLayout;
-    Button toastBtn;
-    Button nextButton;
-    Button custToastBtn;
-    Button sbBtn;
-    TextView textView;
-    View viewLayout;
+public class MainActivity extends AppCompatActivity implements ScreenNavigator.Host {
+
+    private static final String TAG = "MainActivity";
+
+    // Argument of dumpsys writing the dumps to files as well
+    private static final String ARG_WRITE_FILES = "--files";
+
+    // Member variable for the navigator showing the screens in the container of the layout
+    private ScreenNavigator mNavigator;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
 
-        // Getting layout view ID from resource
-        relativeLayout = findViewById(R.id.parent);
-        toastBtn = findViewById(R.id.btn1);
-        custToastBtn = findViewById(R.id.btn2);
-        nextButton = findViewById(R.id.next_btn);
-        linearLayout = findViewById(R.id.next_btn_root);
+        StartupTracer.begin("MainActivity.setContentView");
+        setContentView(R.layout.activity_main);
+        StartupTracer.end();
 
         /*
-         * Inflating a custom toast layout on parent view
+         * Creating the navigator, after a recreation the FragmentManager already restored the visited screens
+         * On a fresh start only the screen asked for by the intent is created, home otherwise
          */
-        LayoutInflater inflater = getLayoutInflater();
-        viewLayout = inflater.inflate(R.layout.custom_toast, (ViewGroup) findViewById(R.id.custom_toast_container));
+        mNavigator = new ScreenNavigator(this, R.id.screen_container, savedInstanceState);
+        String destination = savedInstanceState == null ? ScreenNavigator.destinationOf(getIntent()) : null;
+        if (destination != null) {
+            mNavigator.navigate(destination);
+        } else {
+            mNavigator.showCurrent();
+        }
+    }
 
-        sbBtn = findViewById(R.id.btn3);
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        setIntent(intent);
+
+        // A notification tap while the host is running swaps to its screen
+        String destination = ScreenNavigator.destinationOf(intent);
+        if (destination != null) {
+            mNavigator.navigate(destination);
+        }
+    }
 
-        /*
-         * Handling click events for next button
-         * Defining intent to next activity
-         */
-        nextButton.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                Intent intent = new Intent(getApplicationContext(), NotificationActivity.class);
-                startActivity(intent);
-            }
-        });
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        // The JankMonitor names frames after the resumed activity, reporting the visible screen instead
+        JankMonitor.setScreen(mNavigator.getCurrent());
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        mNavigator.saveState(outState);
     }
 
     /**
-     * Method to show a normal Toast
-     *
-     * @param view View to be used for showing toast
+     * Going back to the previous screen, leaving the app from the first one
      */
-    public void showToast(View view) {
-        Toast.makeText(getApplicationContext(), getText(R.string.toast_text), Toast.LENGTH_SHORT).show();
+    @Override
+    public void onBackPressed() {
+        if (!mNavigator.navigateUp()) {
+            super.onBackPressed();
+        }
+    }
+
+    @Override
+    public ScreenNavigator getScreenNavigator() {
+        return mNavigator;
     }
 
     /**
-     * Method to show a custom toast
-     * @param view View to be used for showing custom toast
+     * Prints the startup phases and the main thread jank statistics, shown by
+       `adb shell dumpsys activity .MainActivity`
+     * With ARG_WRITE_FILES both are also written to the app's files directory, in the background, so they can be
+       pulled from production builds with `adb shell run-as`.
      */
-    public void showCustomToast(View view) {
-
-        // Getting text view ID and setting text string to show in Toast
-        textView = viewLayout.findViewById(R.id.text);
-        textView.setText(R.string.custom_toast_text);
-
-        // Instantiating Toast object with current context and setting gravity, duration and view to be used.
-        Toast toast = new Toast(getApplicationContext());
-        toast.setGravity(Gravity.BOTTOM, 0, 20);
-        toast.setDuration(Toast.LENGTH_SHORT);
-        toast.setView(viewLayout);
-        toast.show();
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+
+        writer.println("Startup phases (name, start ns, duration us):");
+        try {
+            StartupTracer.dump(writer);
+        } catch (IOException e) {
+            // PrintWriter never throws, errors are reported through checkError()
+        }
+        JankMonitor.dump(writer);
+
+        if (args != null && Arrays.asList(args).contains(ARG_WRITE_FILES)) {
+            writer.println("Writing " + StartupTracer.DUMP_FILE_NAME + " and " + JankMonitor.DUMP_FILE_NAME
+                    + " to " + getFilesDir());
+            writeDumpFiles();
+        }
+        writer.flush();
     }
 
     /**
-     * Method to handle SnackBar
-     * @param view View to be used for showing SnackBar
+     * Helper method writing the startup phases and jank statistics to their dump files, off the main thread
      */
-    @RequiresApi(api = Build.VERSION_CODES.M)
-    public void showSnackBar(View view) {
-
-        // Instantiating SnackBar object passing in view to used, text to show and duration
-        Snackbar snackbar = Snackbar.make(view, R.string.snackbar_text, Snackbar.LENGTH_LONG);
-
-        //Positioning the SnackBar relative to other views
-        FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) snackbar.getView().getLayoutParams();
-        layoutParams.setMargins(layoutParams.leftMargin, layoutParams.topMargin, layoutParams.rightMargin, linearLayout.getHeight());
-        snackbar.getView().setLayoutParams(layoutParams);
-
-        /*
-         * Setting action for SnackBar to be handled by user and showing it using show() method.
-         */
-        snackbar.setAction(R.string.sb_actiontext, new View.OnClickListener() {
+    private void writeDumpFiles() {
+        final Context context = getApplicationContext();
+        new Thread(new Runnable() {
             @Override
-            public void onClick(View view) {
-
+            public void run() {
+                try {
+                    StartupTracer.dumpToFile(context);
+                    JankMonitor.dumpToFile(context);
+                } catch (IOException e) {
+                    Log.w(TAG, "Can't write the dump files", e);
+                }
             }
-        });
-        snackbar.show();
+        }, TAG).start();
     }
 }
@@ -0,0 +1,74 @@
+package com.rohit.examples.android.aad;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+
+/**
+ * Class definition for the manifest receiver of the actions of the mascot notification
+ * It also receives the delete intents of the summaries posted by the NotificationDispatcher.
+ * Every action is first posted on the in-process AppEventBus, where a live NotificationFragment handles it.
+ * Only when nobody is subscribed, e.g. the process was started for this broadcast, the receiver handles
+   the action itself.
+ */
+public class NotificationActionReceiver extends BroadcastReceiver {
+
+    /**
+     * Method to handle Intent received by the BroadcastReceiver
+     * @param context The Context in which the receiver is running.
+     * @param intent The Intent being received.
+     */
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (action == null) {
+            return;
+        }
+
+        // A dismissed summary drops the notifications folded into it, no screen is interested in it
+        if (action.startsWith(NotificationDispatcher.ACTION_DISMISS_SUMMARY_PREFIX)) {
+            NotificationDispatcher.getInstance(context).onSummaryDismissed(
+                    action.substring(NotificationDispatcher.ACTION_DISMISS_SUMMARY_PREFIX.length()));
+            return;
+        }
+
+        // Recording the dismissal first, the notification state is kept whether the activity is alive or not
+        if (NotificationFragment.ACTION_DISMISS_NOTIFICATION.equals(action)) {
+            NotificationDispatcher.getInstance(context).onDismissed(NotificationFragment.NOTIFICATION_KEY);
+        }
+
+        if (AppEventBus.get().post(action, null) > 0) {
+            return;
+        }
+
+        // Without the activity there are no buttons to reset, only the update needs to be carried out
+        if (NotificationFragment.ACTION_UPDATE_NOTIFICATION.equals(action)) {
+            updateNotification(context.getApplicationContext());
+        }
+    }
+
+    /**
+     * Helper method posting the updated notification, keeping the broadcast alive until the bitmap is decoded
+       into the cache the notification template reads it from
+     */
+    private void updateNotification(final Context context) {
+        final PendingResult pendingResult = goAsync();
+
+        BitmapLoader.getInstance(context).load(R.drawable.mascot_1,
+                context.getResources().getDimensionPixelSize(R.dimen.notification_big_picture_width),
+                context.getResources().getDimensionPixelSize(R.dimen.notification_big_picture_height),
+                new BitmapLoader.Callback() {
+                    @Override
+                    public void onBitmapLoaded(Bitmap androidImage) {
+                        // Without the bitmap the update is posted in the default style
+                        try {
+                            NotificationFragment.postUpdatedNotification(context,
+                                    context.getString(R.string.notify_update));
+                        } finally {
+                            pendingResult.finish();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.rohit.examples.android.aad;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Build;
+
+/**
+ * Class definition to register the app's notification channels once per process
+ * Channels are created at application start (or on first use) and the NotificationManager is cached,
+   so posting a notification never pays for channel setup again.
+ */
+public final class NotificationChannels {
+
+    // Channel ID for the notifications posted from NotificationFragment
+    public static final String PRIMARY_CHANNEL_ID = "primary_notification_channel";
+
+    // Channel ID for the notifications posted from NotificationJobService
+    public static final String JOB_CHANNEL_ID = "job_notification_channel";
+
+    // Cached NotificationManager, set once the channels are created
+    private static volatile NotificationManager sNotificationManager;
+
+    private NotificationChannels() {
+    }
+
+    /**
+     * Returns the cached NotificationManager, creating every channel first if that didn't happen yet
+     *
+     * @param context Context used for the first lookup
+     * @return NotificationManager object
+     */
+    public static NotificationManager getNotificationManager(Context context) {
+        NotificationManager notificationManager = sNotificationManager;
+        if (notificationManager == null) {
+            notificationManager = createAll(context);
+        }
+        return notificationManager;
+    }
+
+    /**
+     * Method to create every notification channel of the app
+     * Safe to call more than once, only the first call talks to the NotificationManager.
+     *
+     * @param context Context used to look up the NotificationManager and channel labels
+     * @return NotificationManager object
+     */
+    public static synchronized NotificationManager createAll(Context context) {
+        if (sNotificationManager != null) {
+            return sNotificationManager;
+        }
+
+        Context appContext = context.getApplicationContext();
+        NotificationManager notificationManager =
+                (NotificationManager) appContext.getSystemService(Context.NOTIFICATION_SERVICE);
+
+        /*
+         * Checking device API version as Notification Channels are only available in API 26 and above
+         */
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            notificationManager.createNotificationChannel(newChannel(PRIMARY_CHANNEL_ID,
+                    appContext.getString(R.string.mascot_notify), appContext.getString(R.string.mascot_notify_desc)));
+            notificationManager.createNotificationChannel(newChannel(JOB_CHANNEL_ID,
+                    appContext.getString(R.string.job_notify), appContext.getString(R.string.job_notify_desc)));
+        }
+
+        sNotificationManager = notificationManager;
+        return notificationManager;
+    }
+
+    /**
+     * Helper method to build a high importance channel with lights and vibration enabled
+     */
+    private static NotificationChannel newChannel(String channelId, String name, String description) {
+        NotificationChannel notificationChannel =
+                new NotificationChannel(channelId, name, NotificationManager.IMPORTANCE_HIGH);
+
+        // Configuring notificationChannel object's initial settings viz., notification light color, vibration, etc.
+        notificationChannel.enableLights(true);
+        notificationChannel.setLightColor(Color.RED);
+        notificationChannel.enableVibration(true);
+        notificationChannel.setDescription(description);
+        return notificationChannel;
+    }
+}
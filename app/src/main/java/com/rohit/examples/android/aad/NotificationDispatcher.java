@@ -0,0 +1,441 @@
+package com.rohit.examples.android.aad;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.service.notification.StatusBarNotification;
+import android.text.TextUtils;
+
+import androidx.core.app.NotificationCompat;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+import com.rohit.examples.android.aad.core.NotificationIdAllocator;
+import com.rohit.examples.android.aad.core.NotificationStateStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class definition to post every notification of the app through one rate-limited path
+ * Posts for the same logical notification key within one flush window are coalesced into a single post.
+ * Each flush posts at most MAX_POSTS_PER_WINDOW notifications, summaries included. The overflow waits for
+   the next windows and is meanwhile folded into a grouped summary notification per channel, so bursts never
+   exceed the system's post-rate limit. Dismissing a summary drops the notifications still folded into it.
+ * Notifications posted as NotificationContent go through a NotificationStateStore first, a post repeating
+   the content already shown is skipped and a post changing it alerts only once.
+ * Notifications are posted with their key as tag, so a later process can find them among the active notifications.
+ * Can be called from any thread, notifications are posted from the main thread.
+ */
+public class NotificationDispatcher {
+
+    // Minimum time between two flushes, in milliseconds
+    public static final long FLUSH_WINDOW_MS = 500;
+
+    // Number of notifications posted per flush, the system drops posts above 5 per second
+    public static final int MAX_POSTS_PER_WINDOW = 2;
+
+    // Number of logical notification keys remembered by the ID allocator and the state store
+    private static final int MAX_NOTIFICATION_KEYS = 1024;
+
+    // Number of folded notifications listed line by line in a summary
+    private static final int MAX_SUMMARY_LINES = 5;
+
+    // Prefix of the group key and summary key of a channel
+    private static final String GROUP_KEY_PREFIX = "com.rohit.examples.android.aad.GROUP_";
+
+    // Prefix of the delete intent action of a summary, followed by the channel ID
+    static final String ACTION_DISMISS_SUMMARY_PREFIX = "com.rohit.examples.android.aad.DISMISS_SUMMARY_";
+
+    // Request code of the delete intents of the summaries
+    private static final int SUMMARY_REQUEST_CODE = 0;
+
+    // Process wide dispatcher instance
+    private static NotificationDispatcher sInstance;
+
+    private final Context mContext;
+    private final NotificationManager mNotificationManager;
+    private final NotificationIdAllocator mIdAllocator = new NotificationIdAllocator(MAX_NOTIFICATION_KEYS);
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final NotificationStateStore mStateStore = new NotificationStateStore(MAX_NOTIFICATION_KEYS);
+
+    // Posts waiting for a flush, oldest first, the latest post for a key replaces the earlier one
+    private final LinkedHashMap<String, PendingPost> mPending = new LinkedHashMap<>();
+
+    // Titles of the waiting notifications folded into the summary, per channel and key
+    private final Map<String, LinkedHashMap<String, CharSequence>> mFolded = new HashMap<>();
+
+    // Channels whose summary needs to be reposted or cancelled on the next flush
+    private final Set<String> mDirtySummaries = new HashSet<>();
+
+    private boolean mFlushScheduled;
+    private long mLastFlushTime = -FLUSH_WINDOW_MS;
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Returns the process wide dispatcher, created on first use
+     *
+     * @param context Context used to look up the NotificationManager
+     * @return NotificationDispatcher instance
+     */
+    public static synchronized NotificationDispatcher getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new NotificationDispatcher(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private NotificationDispatcher(Context context) {
+        mContext = context;
+        mNotificationManager = NotificationChannels.getNotificationManager(context);
+    }
+
+    /**
+     * Method to post or update a notification
+     * The builder is built on the next flush and must not be changed by the caller afterwards.
+     *
+     * @param channelId Channel the notification is posted to, used to group the overflow
+     * @param key       Logical notification key, later posts with the same key update the notification
+     * @param builder   Builder of the notification
+     * @return notification ID allocated for the key
+     */
+    public int post(String channelId, String key, NotificationCompat.Builder builder) {
+        int id = mIdAllocator.idFor(key);
+        builder.setGroup(GROUP_KEY_PREFIX + channelId);
+
+        synchronized (this) {
+            mPending.put(key, new PendingPost(channelId, key, id, builder));
+            scheduleFlush();
+        }
+        return id;
+    }
+
+    /**
+     * Method to post or update a notification from its content, unless it already shows that content
+     *
+     * @param key      Logical notification key
+     * @param template Template of the notification channel, providing the PendingIntents
+     * @param content  Content to be shown, usually cloned off the template content
+     * @return true if a post was issued, false if the notification already shows the content
+     */
+    public boolean post(String key, NotificationTemplate template, NotificationContent content) {
+        int result = mStateStore.post(key, content);
+        if (result == NotificationStateStore.RESULT_UNCHANGED) {
+            if (isStillShown(key)) {
+                return false;
+            }
+            // Auto-cancelled by a click, which sends no delete intent, so the notification is posted again
+            mStateStore.onDismissed(key);
+            result = mStateStore.post(key, content);
+        }
+
+        NotificationCompat.Builder builder = template.newBuilder(content);
+        if (result == NotificationStateStore.RESULT_UPDATE) {
+            // The notification is already shown, changing it must not sound or vibrate again
+            builder.setOnlyAlertOnce(true);
+        }
+        post(content.getChannelId(), key, builder);
+        return true;
+    }
+
+    /**
+     * A check to track whether a notification the state store considers shown is still in the status bar
+     * Waiting and folded posts count as shown, below Android M the state store is trusted as is.
+     */
+    private boolean isStillShown(String key) {
+        synchronized (this) {
+            if (mPending.containsKey(key)) {
+                return true;
+            }
+            for (LinkedHashMap<String, CharSequence> folded : mFolded.values()) {
+                if (folded.containsKey(key)) {
+                    return true;
+                }
+            }
+        }
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return true;
+        }
+
+        int id = mIdAllocator.peek(key);
+        for (StatusBarNotification notification : mNotificationManager.getActiveNotifications()) {
+            if (notification.getId() == id && key.equals(notification.getTag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A check to track whether a notification is in the status bar, waiting to be posted or folded
+     * The state store only knows the notifications posted by this process. When it knows nothing about the key,
+       e.g. the process was started for a notification action, the active notifications of the app are looked
+       up by tag, and the ID of the notification found is kept so the next post updates it.
+       Below Android M they can't be looked up, such a notification is taken as shown.
+     *
+     * @param key Logical notification key
+     * @return false if the notification was cancelled or dismissed
+     */
+    public boolean isShown(String key) {
+        int state = mStateStore.getState(key);
+        if (NotificationStateStore.isShown(state)) {
+            return isStillShown(key);
+        }
+        if (state != NotificationStateStore.STATE_NONE) {
+            return false;
+        }
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return true;
+        }
+
+        for (StatusBarNotification notification : mNotificationManager.getActiveNotifications()) {
+            if (key.equals(notification.getTag())) {
+                mIdAllocator.assign(key, notification.getId());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to record that the user dismissed a notification, called from its delete intent
+     *
+     * @param key Logical notification key
+     */
+    public void onDismissed(String key) {
+        mStateStore.onDismissed(key);
+    }
+
+    /**
+     * Method to record that the user dismissed the summary of a channel, called from its delete intent
+     * The notifications folded into it are dropped without being posted.
+     *
+     * @param channelId Channel of the summary
+     */
+    public void onSummaryDismissed(String channelId) {
+        synchronized (this) {
+            LinkedHashMap<String, CharSequence> folded = foldedFor(channelId);
+            for (String key : folded.keySet()) {
+                mPending.remove(key);
+                mStateStore.onDismissed(key);
+            }
+            folded.clear();
+            mDirtySummaries.remove(channelId);
+        }
+    }
+
+    /**
+     * @param key Logical notification key
+     * @return one of the NotificationStateStore.STATE_* constants
+     */
+    public int getState(String key) {
+        return mStateStore.getState(key);
+    }
+
+    /**
+     * Method to cancel a notification, whether it is shown, folded or still pending
+     *
+     * @param key Logical notification key
+     */
+    public void cancel(String key) {
+        mStateStore.cancel(key);
+        int id = mIdAllocator.peek(key);
+        mIdAllocator.release(key);
+
+        synchronized (this) {
+            mPending.remove(key);
+            for (Map.Entry<String, LinkedHashMap<String, CharSequence>> entry : mFolded.entrySet()) {
+                if (entry.getValue().remove(key) != null) {
+                    mDirtySummaries.add(entry.getKey());
+                    scheduleFlush();
+                }
+            }
+        }
+
+        if (id != -1) {
+            mNotificationManager.cancel(key, id);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            mMainHandler.postAtTime(mFlushRunnable, mLastFlushTime + FLUSH_WINDOW_MS);
+        }
+    }
+
+    /**
+     * Method posting the waiting notifications, runs on the main thread once per flush window
+     * Notifications left waiting are folded into the summary of their channel and posted by the next flushes,
+       oldest first.
+     */
+    private void flush() {
+        List<PendingPost> toPost = new ArrayList<>();
+        Map<String, LinkedHashMap<String, CharSequence>> summaries = new HashMap<>();
+
+        synchronized (this) {
+            mFlushScheduled = false;
+            mLastFlushTime = SystemClock.uptimeMillis();
+
+            // Summaries left over by the previous flush go first, so a steady stream of posts can't starve them
+            int budget = MAX_POSTS_PER_WINDOW;
+            budget -= takeDirtySummaries(summaries, budget);
+
+            /*
+             * Posting individually while the budget allows, one post is kept for the summary
+               as soon as some notifications have to wait.
+             */
+            Iterator<Map.Entry<String, PendingPost>> iterator = mPending.entrySet().iterator();
+            while (iterator.hasNext() && budget > 0 && (mPending.size() <= budget || budget > 1)) {
+                Map.Entry<String, PendingPost> entry = iterator.next();
+                PendingPost post = entry.getValue();
+                toPost.add(post);
+                iterator.remove();
+                budget--;
+                if (foldedFor(post.mChannelId).remove(entry.getKey()) != null) {
+                    mDirtySummaries.add(post.mChannelId);
+                }
+            }
+
+            for (Map.Entry<String, PendingPost> entry : mPending.entrySet()) {
+                PendingPost post = entry.getValue();
+                LinkedHashMap<String, CharSequence> folded = foldedFor(post.mChannelId);
+                post.build();
+                CharSequence title = post.mTitle;
+                if (!folded.containsKey(entry.getKey()) || !TextUtils.equals(folded.get(entry.getKey()), title)) {
+                    folded.put(entry.getKey(), title);
+                    mDirtySummaries.add(post.mChannelId);
+                }
+            }
+            takeDirtySummaries(summaries, budget);
+
+            // The waiting notifications and summaries are posted by the next flush
+            if (!mPending.isEmpty() || !mDirtySummaries.isEmpty()) {
+                scheduleFlush();
+            }
+        }
+
+        for (PendingPost post : toPost) {
+            mNotificationManager.notify(post.mKey, post.mId, post.build());
+        }
+
+        for (Map.Entry<String, LinkedHashMap<String, CharSequence>> entry : summaries.entrySet()) {
+            postSummary(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Helper method taking the dirty summaries that fit into the budget of a flush, a summary to be
+       cancelled takes no post
+     *
+     * @return number of posts taken from the budget
+     */
+    private int takeDirtySummaries(Map<String, LinkedHashMap<String, CharSequence>> summaries, int budget) {
+        int posts = 0;
+        Iterator<String> iterator = mDirtySummaries.iterator();
+        while (iterator.hasNext()) {
+            String channelId = iterator.next();
+            LinkedHashMap<String, CharSequence> folded = foldedFor(channelId);
+            if (!folded.isEmpty()) {
+                if (posts == budget) {
+                    continue;
+                }
+                posts++;
+            }
+            summaries.put(channelId, new LinkedHashMap<>(folded));
+            iterator.remove();
+        }
+        return posts;
+    }
+
+    /**
+     * Helper method to post the summary of the notifications folded on a channel, or cancel it if none is left
+     */
+    private void postSummary(String channelId, LinkedHashMap<String, CharSequence> folded) {
+        String groupKey = GROUP_KEY_PREFIX + channelId;
+        int summaryId = mIdAllocator.idFor(groupKey);
+
+        if (folded.isEmpty()) {
+            mNotificationManager.cancel(summaryId);
+            return;
+        }
+
+        String summaryTitle = mContext.getString(R.string.notify_summary_title, folded.size());
+
+        NotificationCompat.InboxStyle inboxStyle = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(summaryTitle);
+        int lines = 0;
+        for (CharSequence title : folded.values()) {
+            if (lines++ == MAX_SUMMARY_LINES) {
+                break;
+            }
+            inboxStyle.addLine(title);
+        }
+
+        NotificationCompat.Builder summaryBuilder = new NotificationCompat.Builder(mContext, channelId)
+                .setContentTitle(summaryTitle)
+                .setSmallIcon(R.drawable.ic_android)
+                .setStyle(inboxStyle)
+                .setNumber(folded.size())
+                .setGroup(groupKey)
+                .setGroupSummary(true)
+                .setOnlyAlertOnce(true)
+                .setDeleteIntent(PendingIntentPool.getInstance(mContext).getBroadcast(NotificationActionReceiver.class,
+                        ACTION_DISMISS_SUMMARY_PREFIX + channelId, SUMMARY_REQUEST_CODE));
+
+        mNotificationManager.notify(summaryId, summaryBuilder.build());
+    }
+
+    private LinkedHashMap<String, CharSequence> foldedFor(String channelId) {
+        LinkedHashMap<String, CharSequence> folded = mFolded.get(channelId);
+        if (folded == null) {
+            folded = new LinkedHashMap<>();
+            mFolded.put(channelId, folded);
+        }
+        return folded;
+    }
+
+    /**
+     * A post waiting for the next flush
+     */
+    private static class PendingPost {
+
+        final String mChannelId;
+        final String mKey;
+        final int mId;
+        final NotificationCompat.Builder mBuilder;
+
+        Notification mNotification;
+        CharSequence mTitle;
+
+        PendingPost(String channelId, String key, int id, NotificationCompat.Builder builder) {
+            mChannelId = channelId;
+            mKey = key;
+            mId = id;
+            mBuilder = builder;
+        }
+
+        Notification build() {
+            if (mNotification == null) {
+                mNotification = mBuilder.build();
+                mTitle = mNotification.extras.getCharSequence(Notification.EXTRA_TITLE);
+            }
+            return mNotification;
+        }
+    }
+}
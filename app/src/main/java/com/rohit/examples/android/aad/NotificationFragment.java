@@ -0,0 +1,317 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+
+import androidx.fragment.app.Fragment;
+import com.rohit.examples.android.aad.core.EventBus;
+import com.rohit.examples.android.aad.core.NotificationContent;
+import com.rohit.examples.android.aad.core.NotificationStateStore;
+
+/**
+ * Class definition to handle Notification, the second screen hosted by MainActivity
+ */
+public class NotificationFragment extends Fragment implements EventBus.Subscriber {
+
+    // Member variable for the Notify, Update and Cancel buttons
+    private Button btn_notify;
+    private Button btn_update;
+    private Button btn_cancel;
+
+    // Member variable Next button
+    private Button btn_next;
+
+    /**
+     * Saving a notification key constant to associate notification to update/cancel the notification in future
+     * The NotificationDispatcher maps the key to the notification ID.
+     */
+    public static final String NOTIFICATION_KEY = "mascot_notification";
+
+    /**
+     * Assigning unique constant for update notification action broadcast
+     * Uniqueness is ensured by prefixing app's package name in variable value
+     * The actions are sent to NotificationActionReceiver and reach this screen through the AppEventBus.
+     */
+    static final String ACTION_UPDATE_NOTIFICATION =
+            "com.rohit.examples.android.aad.ACTION_UPDATE_NOTIFICATION";
+
+    static final String ACTION_DISMISS_NOTIFICATION =
+            "com.rohit.examples.android.aad.ACTION_DISMISS_NOTIFICATION";
+
+    // Member variable to store NotificationDispatcher object, used to deliver notification to the user
+    private NotificationDispatcher mNotificationDispatcher;
+
+    // Member variables for the prebuilt notification template and the action strings
+    private NotificationTemplate mNotificationTemplate;
+    private CharSequence mUpdateActionText;
+    private CharSequence mUpdatedTitle;
+
+    // Member variable for the loader decoding and caching the big picture bitmap
+    private BitmapLoader mBitmapLoader;
+
+    // Size the big picture is displayed at, in pixels
+    private int mBigPictureWidth;
+    private int mBigPictureHeight;
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        StartupTracer.begin("NotificationFragment.inflate");
+        View view = inflater.inflate(R.layout.fragment_notification, container, false);
+        StartupTracer.end();
+        return view;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        StartupTracer.begin("NotificationFragment.findViews");
+
+        // Getting button btn_notify view ID from resource
+        btn_notify = view.findViewById(R.id.notify);
+
+        /*
+         * Handling Notify button clicks using onClickListener()
+         * Sending notification to system status bar using sendNotification() method
+         */
+        btn_notify.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                //Send the notification
+                sendNotification();
+            }
+        });
+
+        // Getting button btn_update view ID from resource
+        btn_update = view.findViewById(R.id.update);
+
+        /*
+         * Handling Update button clicks using onClickListener()
+         */
+        btn_update.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                //Update the notification
+                updateNotification();
+            }
+        });
+
+        // Getting button btn_cancel view ID from resource
+        btn_cancel = view.findViewById(R.id.cancel);
+
+        /*
+         * Handling Cancel button clicks using onClickListener()
+         */
+        btn_cancel.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                //Cancel the notification
+                cancelNotification();
+            }
+        });
+
+
+        // Getting button btn_next view ID from resource
+        btn_next = view.findViewById(R.id.next_btn);
+
+        /*
+         * Handling Next button clicks using onClickListener()
+         * Navigating to the job scheduler screen in the same host, it is created on the first visit only
+         */
+        btn_next.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                ScreenNavigator.of(NotificationFragment.this).navigate(ScreenNavigator.JOB_SCHEDULER);
+            }
+        });
+
+        StartupTracer.end();
+
+        StartupTracer.begin("NotificationFragment.subscribeEvents");
+
+        /*
+         * Subscribing to the notification actions on the in-process event bus until the views of this screen
+           are destroyed, also while it's hidden so the buttons are right when it's shown again.
+           The bus only holds a weak reference to the screen.
+         */
+        AppEventBus.subscribe(getViewLifecycleOwner(), ACTION_UPDATE_NOTIFICATION, this);
+        AppEventBus.subscribe(getViewLifecycleOwner(), ACTION_DISMISS_NOTIFICATION, this);
+        StartupTracer.end();
+
+        StartupTracer.begin("NotificationFragment.setupNotifications");
+
+        // Getting the dispatcher, channels are created once per process when it is first used
+        Context context = requireContext();
+        mNotificationDispatcher = NotificationDispatcher.getInstance(context);
+
+        // Getting the notification template, and resolving the action strings once
+        mNotificationTemplate = NotificationTemplates.get(context, NotificationChannels.PRIMARY_CHANNEL_ID);
+        mUpdateActionText = getString(R.string.notify_update_action_text);
+        mUpdatedTitle = getString(R.string.notify_update);
+
+        // Getting the bitmap loader and the size the big picture is decoded at
+        mBitmapLoader = BitmapLoader.getInstance(context);
+        mBigPictureWidth = getResources().getDimensionPixelSize(R.dimen.notification_big_picture_width);
+        mBigPictureHeight = getResources().getDimensionPixelSize(R.dimen.notification_big_picture_height);
+        StartupTracer.end();
+
+        /*
+         * On app first run, Notify Me! button should be the only button enabled,
+           because there is no notification yet to update or cancel.
+         * Otherwise the buttons follow the notification state kept by the dispatcher.
+         */
+        restoreNotificationButtonState();
+    }
+
+    /**
+     * Method to send Notification to status bar
+     */
+    public void sendNotification() {
+
+        /*
+         * Cloning the template content and setting the custom update action ACTION_UPDATE_NOTIFICATION,
+           the notification template resolves it to the pooled PendingIntent, the same token for every notification.
+         */
+        NotificationContent content = new NotificationContent.Builder(mNotificationTemplate.getContent())
+                .setAction(R.drawable.ic_update, mUpdateActionText, ACTION_UPDATE_NOTIFICATION)
+                .build();
+
+        /*
+         * Call to post() on NotificationDispatcher object, the notification is built and posted on the next flush,
+           unless it already shows this content.
+         */
+        mNotificationDispatcher.post(NOTIFICATION_KEY, mNotificationTemplate, content);
+
+        /*
+         * After a notification is sent, the cancel and update buttons should be enabled,
+           and the notification button should be disabled, because the notification has been delivered.
+         */
+        setNotificationButtonState(false, true, true);
+    }
+
+    /**
+     * Method to update Notification to status bar
+     * Loading the drawable resource as a Bitmap sampled to the big picture size into the BitmapLoader cache,
+       off the main thread unless it is already cached.
+     * Call to postUpdatedNotification() to change the notification style to accommodate the new image (Big Picture),
+       set the image and the title, and post it under NOTIFICATION_KEY with NotificationDispatcher.
+     */
+    public void updateNotification() {
+
+        // The application context, the notification is posted even if this screen went away meanwhile
+        final Context context = requireContext().getApplicationContext();
+        mBitmapLoader.load(R.drawable.mascot_1, mBigPictureWidth, mBigPictureHeight, new BitmapLoader.Callback() {
+            @Override
+            public void onBitmapLoaded(Bitmap androidImage) {
+                postUpdatedNotification(context, mUpdatedTitle);
+            }
+        });
+
+        /*
+         * After the notification is updated, the update and notify buttons should be disabled,
+           leaving only the cancel button enabled.
+         */
+        setNotificationButtonState(false, false, true);
+    }
+
+    /**
+     * Helper method posting the notification with the big picture style, also used without the screen
+       by NotificationActionReceiver
+     * The big picture must already be in the BitmapLoader cache. Posting the same update twice, e.g. from
+       a burst of update clicks, issues a single post, and the update alerts only once.
+     * The bitmap is decoded asynchronously, a notification cancelled or dismissed meanwhile is not brought back.
+       The dispatcher also finds the notification in the status bar when this process didn't post it.
+     *
+     * @param context      Context used to get the notification template and dispatcher
+     * @param updatedTitle Title shown with the big picture
+     * @return false if the notification is no longer shown and nothing was posted
+     */
+    static boolean postUpdatedNotification(Context context, CharSequence updatedTitle) {
+        NotificationDispatcher notificationDispatcher = NotificationDispatcher.getInstance(context);
+        if (!notificationDispatcher.isShown(NOTIFICATION_KEY)) {
+            return false;
+        }
+
+        NotificationTemplate template = NotificationTemplates.get(context, NotificationChannels.PRIMARY_CHANNEL_ID);
+        NotificationContent content = new NotificationContent.Builder(template.getContent())
+                .setBigPicture(R.drawable.mascot_1, updatedTitle)
+                .build();
+
+        notificationDispatcher.post(NOTIFICATION_KEY, template, content);
+        return true;
+    }
+
+    /**
+     * Method to cancel Notification from status bar
+     */
+    public void cancelNotification() {
+        /*
+         * Call to cancel() by passing in the NOTIFICATION_KEY with NotificationDispatcher object to
+           cancel the notification, including an update still waiting to be posted.
+         */
+        mNotificationDispatcher.cancel(NOTIFICATION_KEY);
+
+        /*
+         * If the notification is canceled, the buttons should return to their initial states,
+           with only the notify button enabled.
+         */
+        setNotificationButtonState(true, false, false);
+    }
+
+    /**
+     * Helper method to set the buttons from the state of the notification kept by the NotificationDispatcher
+     * The state outlives this screen, so a recreated screen shows the buttons of the notification
+       actually in the status bar.
+     */
+    private void restoreNotificationButtonState() {
+        switch (mNotificationDispatcher.getState(NOTIFICATION_KEY)) {
+            case NotificationStateStore.STATE_POSTED:
+                setNotificationButtonState(false, true, true);
+                break;
+
+            case NotificationStateStore.STATE_UPDATED:
+                setNotificationButtonState(false, false, true);
+                break;
+
+            default:
+                setNotificationButtonState(true, false, false);
+        }
+    }
+
+    /**
+     * Method to handle the notification actions posted on the AppEventBus, called on the main thread
+     * Updating the notification on ACTION_UPDATE_NOTIFICATION, and returning the buttons to their initial
+       states on ACTION_DISMISS_NOTIFICATION.
+     *
+     * @param topic   Action of the notification
+     * @param payload Unused
+     */
+    @Override
+    public void onEvent(String topic, Object payload) {
+        if (ACTION_UPDATE_NOTIFICATION.equals(topic)) {
+            updateNotification();
+        } else if (ACTION_DISMISS_NOTIFICATION.equals(topic)) {
+            // NotificationActionReceiver already recorded the dismissal
+            restoreNotificationButtonState();
+        }
+    }
+
+    /**
+     * A utility method to handle notification button states on different notification stages: notify(),
+       update() and cancel().
+     * @param isNotifyEnabled to enable/disable Notify Me! button state
+     * @param isUpdateEnabled to enable/disable Update Me! button state
+     * @param isCancelEnabled to enable/disable Cancel Me! button state
+     */
+    void setNotificationButtonState(Boolean isNotifyEnabled, Boolean isUpdateEnabled, Boolean isCancelEnabled) {
+
+        btn_notify.setEnabled(isNotifyEnabled);
+        btn_update.setEnabled(isUpdateEnabled);
+        btn_cancel.setEnabled(isCancelEnabled);
+    }
+}
@@ -1,33 +1,100 @@
 package com.rohit.examples.android.aad;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
+import android.app.job.JobInfo;
 import android.app.job.JobParameters;
 import android.app.job.JobService;
 import android.content.Intent;
-import android.graphics.Color;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
 import android.os.Build;
+import android.os.PersistableBundle;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
 
-import androidx.core.app.NotificationCompat;
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobHistoryRecord;
+import com.rohit.examples.android.aad.core.JobLatencyStats;
+import com.rohit.examples.android.aad.core.JobPipeline;
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.RetryPolicy;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class definition to handle Job Scheduling
  */
 public class NotificationJobService extends JobService {
 
-    // Constant and unique channel ID for the notification
-    public static final String PRIMARY_CHANNEL_ID =
-            "primary_notification_channel";
+    private static final String TAG = "NotificationJobService";
+
     /**
-     * Saving a notification ID constant to associate notification to update/cancel the notification in future
+     * Prefix of the notification key of a job, each job gets its own notification
+     * The NotificationDispatcher maps the key to the notification ID and folds completion storms into a summary.
      */
-    public static final int NOTIFICATION_ID = 0;
-    //Member variable for NotificationManager
-    NotificationManager mNotifyManager;
+    public static final String NOTIFICATION_KEY_PREFIX = "job_notification_";
+
+    // Number of worker threads running jobs and number of jobs allowed to wait for a worker
+    private static final int JOB_WORKER_COUNT = 2;
+    private static final int JOB_QUEUE_CAPACITY = 16;
+
+    // Keep alive time of idle worker threads, in seconds
+    private static final long JOB_WORKER_KEEP_ALIVE = 30;
+
+    // Longest time the system lets a job run before it stops it
+    private static final long EXECUTION_LIMIT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Bounded executor running job work off the main thread
+     * Shared by every service instance, idle workers time out so nothing is kept alive between jobs.
+     */
+    private static final ThreadPoolExecutor sJobExecutor = new ThreadPoolExecutor(
+            JOB_WORKER_COUNT, JOB_WORKER_COUNT,
+            JOB_WORKER_KEEP_ALIVE, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(JOB_QUEUE_CAPACITY));
+
+    static {
+        sJobExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queueing latency and run duration of the jobs run by this process, per constraint combination
+     * Fixed memory, printed by dump() so `adb shell dumpsys activity service .NotificationJobService` shows percentiles.
+     */
+    private static final JobLatencyStats sLatencyStats = new JobLatencyStats();
+
+    // Member variable for the work of running jobs, indexed by job ID
+    private final SparseArray<JobTask> mInFlightJobs = new SparseArray<>();
+
+    // Member variable for the persistent history of job events
+    private JobHistory mJobHistory;
+
+    // Member variable for the deadlines learned from the job waits
+    private AdaptiveDeadlines mAdaptiveDeadlines;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        mJobHistory = JobHistory.getInstance(this);
+
+        // Created before any start is recorded, so its read back of the history can't see a wait recorded live
+        mAdaptiveDeadlines = AdaptiveDeadlines.getInstance(this);
+    }
 
     /**
      * Called when the system determines that your task should be run
+     * The work is handed to the background executor so it never blocks the main thread,
+       jobFinished() is called by the worker once it is done.
      *
      * @param jobParameters Parameters specifying info about this job
      * @return true from this method if your job needs to continue running or
@@ -36,52 +103,39 @@ public class NotificationJobService extends JobService {
     @Override
     public boolean onStartJob(JobParameters jobParameters) {
 
-        // Create the notification channel
-        createNotificationChannel();
-
-        /*
-         * Setting up the notification content intent to launch the app when clciked
-         */
-        PendingIntent contentPendingIntent = PendingIntent
-                .getActivity(
-                        this, NOTIFICATION_ID,
-                        new Intent(this, JobSchedulerActivity.class),
-                        PendingIntent.FLAG_UPDATE_CURRENT
-                );
-
-        /*
-         * Instantiating notification builder with current context and NotificationChannel ID
-         * Adding title, text and icon to the builder
-         * Setting the priority of the notification to HIGH using PRIORITY_HIGH constant
-           and sound, vibration, etc. to default values using DEFAULT_ALL constant.
-         * Call to setContentIntent() by passing PendingIntent object to set the content intent when
-           the notification is clicked.
-         * Setting true to setAutoCancel(), closing the notification when the user taps on it
-         */
-        NotificationCompat.Builder notifyBuilder;
+        JobTask jobTask = new JobTask(jobParameters, JobHistory.constraintKeyOf(this, jobParameters.getJobId()));
+        long waitMillis = recordStart(jobParameters, jobTask.mConstraintKey);
+        if (waitMillis == -1) {
+            mJobHistory.record(jobParameters.getJobId(), JobHistoryRecord.EVENT_STARTED, jobTask.mConstraintKey, 0, 0);
+        } else {
+            mJobHistory.record(jobParameters.getJobId(), JobHistoryRecord.EVENT_STARTED, jobTask.mConstraintKey,
+                    JobHistoryRecord.DETAIL_WAIT_RECORDED, waitMillis);
+            mAdaptiveDeadlines.recordWait(jobTask.mConstraintKey, waitMillis);
+        }
 
-        notifyBuilder = new NotificationCompat.Builder(this, PRIMARY_CHANNEL_ID)
-                .setContentTitle(getString(R.string.notify_job_title))
-                .setContentText(getString(R.string.notify_job_content_text))
-                .setContentIntent(contentPendingIntent)
-                .setSmallIcon(R.drawable.ic_job_running)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setDefaults(NotificationCompat.DEFAULT_ALL)
-                .setAutoCancel(true);
+        // The job of a task slot must not be replaced while its tasks are drained
+        if (TaskMultiplexer.isSlotJob(jobParameters.getJobId())) {
+            TaskMultiplexer.getInstance(this).onSlotStarted(jobParameters.getJobId());
+        }
 
-        /*
-         * Call to notify() to post a notification to be shown in the status bar with NotificationManager object
-           by passing unique NOTIFICATION_ID and build() to combine all of the options that have been set
-           and return a new Notification object.
-         */
-        mNotifyManager.notify(NOTIFICATION_ID, notifyBuilder.build());
+        synchronized (mInFlightJobs) {
+            try {
+                jobTask.mFuture = sJobExecutor.submit(jobTask);
+                mInFlightJobs.put(jobParameters.getJobId(), jobTask);
+            } catch (RejectedExecutionException e) {
+                // Every worker is busy and the queue is full, hand the job back to the system for a retry
+                jobFinished(jobParameters, retryOrGiveUp(jobParameters, jobTask.mConstraintKey));
+                onSlotEnded(jobParameters);
+            }
+        }
 
-        // Return false, because for this app, all of the work is completed in the onStartJob() callback.
-        return false;
+        // Return true, because the work continues on the executor and jobFinished() is called when it's done.
+        return true;
     }
 
     /**
      * Called if the system has determined that you must stop execution of your job
+     * The in-flight work is interrupted, the worker checks for it between steps and stops cooperatively.
      *
      * @param jobParameters Parameters specifying info about this job as supplied to the job in the onStartJob()
      * @return true to indicate to the JobManager whether you'd like to reschedule this job based on the retry
@@ -91,37 +145,283 @@ public class NotificationJobService extends JobService {
     @Override
     public boolean onStopJob(JobParameters jobParameters) {
 
-        // Return true, because if the job fails, we want the job to be rescheduled instead of dropped.
+        JobTask jobTask;
+        synchronized (mInFlightJobs) {
+            jobTask = mInFlightJobs.get(jobParameters.getJobId());
+            mInFlightJobs.remove(jobParameters.getJobId());
+        }
+
+        // Nothing is running anymore, the work already completed and there is nothing to reschedule
+        if (jobTask == null || jobTask.mFuture.isDone()) {
+            return false;
+        }
+
+        jobTask.mFuture.cancel(true);
+        onSlotEnded(jobParameters);
+
+        long runMillis = jobTask.elapsedMillis();
+        sLatencyStats.recordRun(jobTask.mConstraintKey, runMillis);
+        mJobHistory.record(jobParameters.getJobId(), JobHistoryRecord.EVENT_STOPPED,
+                jobTask.mConstraintKey, stopReason(jobTask.mConstraintKey, runMillis), runMillis);
+
+        /*
+         * Return true, because the work was cut short and we want the job to be rescheduled instead of dropped,
+           unless the retry policy of the job ran out of attempts.
+         */
+        return retryOrGiveUp(jobParameters, jobTask.mConstraintKey);
+    }
+
+    /**
+     * Helper method deciding whether a job that could not finish is rescheduled, following its retry policy
+     * The JobScheduler applies the jittered backoff set by JobInfoFactory, the expected delay is recorded
+       in the job history. A job out of attempts is dropped, a periodic one cancelled, and the give up
+       listeners are called.
+     *
+     * @param jobParameters Parameters specifying info about this job
+     * @param constraintKey Constraint key of the job
+     * @return true if the job should be rescheduled
+     */
+    private boolean retryOrGiveUp(JobParameters jobParameters, int constraintKey) {
+        int jobId = jobParameters.getJobId();
+        JobRegistry jobRegistry = JobRegistry.getInstance(this);
+        int attempts = jobRegistry.recordAttempt(jobId);
+
+        RetryPolicy retryPolicy = JobInfoFactory.getRetryPolicy(jobParameters.getExtras());
+        if (retryPolicy != null && !retryPolicy.shouldRetry(attempts)) {
+            mJobHistory.record(jobId, JobHistoryRecord.EVENT_GAVE_UP, constraintKey, attempts, 0);
+            forget(jobRegistry.getJob(jobId));
+            jobRegistry.giveUp(jobId, attempts);
+            return false;
+        }
+
+        long backoffMillis = retryPolicy == null ? 0 : retryPolicy.getBackoffMillis(jobId, attempts);
+        mJobHistory.record(jobId, JobHistoryRecord.EVENT_RESCHEDULED, constraintKey, attempts, backoffMillis);
         return true;
     }
 
-    /*
-     * Method to create Notification Channel
+    /**
+     * Helper method dropping a given up periodic job from the JobStore, so it's not restored after a reboot
+     */
+    private void forget(JobInfo jobInfo) {
+        if (jobInfo == null || !jobInfo.isPeriodic()) {
+            return;
+        }
+        try {
+            JobStore.getInstance(this).remove(JobInfoFactory.toJobSpec(jobInfo));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Job " + jobInfo.getId() + " has no valid job spec", e);
+        }
+    }
+
+    /**
+     * Helper method telling why the system most likely stopped a job, from the device state at the stop
+     * JobParameters.getStopReason() needs Android S. The idle constraint of the JobScheduler is only met
+       with the screen off, so a screen turned on tells that it no longer holds.
+     *
+     * @return one of the JobHistoryRecord.STOP_REASON_* constants
      */
-    public void createNotificationChannel() {
+    private int stopReason(int constraintKey, long runMillis) {
+        Intent batteryStatus = registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        boolean charging = batteryStatus != null && batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
 
-        //Defining NotificationManager object with NOTIFICATION_SERVICE constant
-        mNotifyManager = (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
+        PowerManager powerManager = (PowerManager) getSystemService(POWER_SERVICE);
+        boolean idle = powerManager != null && !powerManager.isInteractive();
 
-        /*
-         * Adding a check on SDK version as for Notification channels are only available in OREO and higher
+        int networkType = JobSpec.NETWORK_TYPE_NONE;
+        ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(CONNECTIVITY_SERVICE);
+        if (connectivityManager != null) {
+            NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+            if (networkInfo != null && networkInfo.isConnected()) {
+                networkType = connectivityManager.isActiveNetworkMetered()
+                        ? JobSpec.NETWORK_TYPE_ANY : JobSpec.NETWORK_TYPE_UNMETERED;
+            }
+        }
+
+        return JobConstraints.stopReason(constraintKey, runMillis, EXECUTION_LIMIT_MILLIS, networkType,
+                charging, idle);
+    }
+
+    /**
+     * Helper method telling the TaskMultiplexer that the job of a task slot ended, no-op for other jobs
+     */
+    private void onSlotEnded(JobParameters jobParameters) {
+        if (TaskMultiplexer.isSlotJob(jobParameters.getJobId())) {
+            TaskMultiplexer.getInstance(this).onSlotEnded(jobParameters.getJobId());
+        }
+    }
+
+    /**
+     * Prints the latency statistics of the jobs run since the process started
+     */
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        writer.println("Job latency per constraint combination:");
+        try {
+            sLatencyStats.writeTo(writer);
+        } catch (IOException e) {
+            // PrintWriter never throws, errors are reported through checkError()
+        }
+        mAdaptiveDeadlines.dump(writer);
+        writer.flush();
+    }
+
+    /**
+     * Helper method to record the queueing latency of a starting job
+     * Jobs scheduled without the extras of JobInfoFactory have no scheduling time and are skipped.
+     * Only first attempts are measured, the wait of a rescheduled job would include its earlier runs and
+       its backoff, as the system keeps the extras of the job it was scheduled with.
+     * Periodic jobs are skipped for the same reason, every period keeps the scheduling time of the first one.
+     *
+     * @return time the job waited since it was scheduled, or -1 if it's not known
+     */
+    private long recordStart(JobParameters jobParameters, int constraintKey) {
+        PersistableBundle extras = jobParameters.getExtras();
+        long scheduledAt = extras.getLong(JobInfoFactory.EXTRA_SCHEDULED_AT, -1);
+        if (scheduledAt == -1 || isPeriodic(extras, constraintKey)
+                || JobRegistry.getInstance(this).getAttempts(jobParameters.getJobId()) > 0) {
+            return -1;
+        }
+        long waitMillis = Math.max(0, System.currentTimeMillis() - scheduledAt);
+        long deadlineMillis = extras.getLong(JobInfoFactory.EXTRA_DEADLINE_MILLIS, JobSpec.NO_DEADLINE);
+        sLatencyStats.recordStart(constraintKey, waitMillis, deadlineMillis);
+        return waitMillis;
+    }
+
+    /**
+     * Helper method to tell whether a starting job is periodic
+     * Jobs missing from the registry have no known constraint key, their flex window extra is used instead.
+     */
+    private static boolean isPeriodic(PersistableBundle extras, int constraintKey) {
+        if (constraintKey < JobConstraints.KEY_COUNT) {
+            return (constraintKey & JobConstraints.FLAG_PERIODIC) != 0;
+        }
+        return extras.getLong(JobInfoFactory.EXTRA_FLEX_MILLIS, 0) > 0;
+    }
+
+    /**
+     * Method doing the actual work of a job, runs on a worker thread of the job executor
+     * Runs the pipeline named in the job extras, fetch, transform and notify for the refresh pipeline.
+       Every completed step is checkpointed, a job stopped half way resumes with the next step when it runs again.
+     * The job of a task slot runs the pipelines of the queued tasks of its slot instead,
+       and the stream job the pipelines of its work items.
+     *
+     * @param jobParameters Parameters specifying info about this job
+     * @throws InterruptedException if the job was stopped while running
+     * @throws IOException          if a step or the checkpoint store failed
+     */
+    private void performJob(JobParameters jobParameters) throws InterruptedException, IOException {
+
+        if (TaskMultiplexer.isSlotJob(jobParameters.getJobId())) {
+            TaskMultiplexer.getInstance(this).drain(jobParameters.getJobId());
+            return;
+        }
+        if (WorkStream.isStreamJob(jobParameters.getJobId()) && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            WorkStream.getInstance(this).drain(jobParameters);
+            return;
+        }
+
+        JobPipeline pipeline = JobPipelines.create(this, jobParameters.getJobId(),
+                jobParameters.getExtras().getString(JobInfoFactory.EXTRA_PIPELINE));
+
+        pipeline.run(jobParameters.getJobId(), null, JobPipelines.getCheckpoints(this));
+    }
+
+    /**
+     * Runnable wrapping a single job execution on the job executor
+     */
+    private class JobTask implements Runnable {
+
+        private final JobParameters mJobParameters;
+
+        // Constraint key of the job and start time, in elapsed realtime, for the job history
+        private final int mConstraintKey;
+        private final long mStartTime = SystemClock.elapsedRealtime();
+
+        // Future of this task on the job executor, set right after submission
+        private Future<?> mFuture;
+
+        JobTask(JobParameters jobParameters, int constraintKey) {
+            mJobParameters = jobParameters;
+            mConstraintKey = constraintKey;
+        }
+
+        long elapsedMillis() {
+            return SystemClock.elapsedRealtime() - mStartTime;
+        }
+
+        /**
+         * Removing the job from the in-flight jobs once the work ended
+         *
+         * @return false if onStopJob() got there first and the job must not be reported anymore
+         */
+        private boolean removeInFlight() {
+            synchronized (mInFlightJobs) {
+                if (mInFlightJobs.get(mJobParameters.getJobId()) == null) {
+                    return false;
+                }
+                mInFlightJobs.remove(mJobParameters.getJobId());
+                return true;
+            }
+        }
+
+        /**
+         * Answering the system for a failed job, unless onStopJob() got there first
+         * The job is rescheduled or given up following its retry policy.
          */
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            // Creating NotificationChannel with all params, light; light color, vibration and text label
-            NotificationChannel notificationChannel = new NotificationChannel(
-                    PRIMARY_CHANNEL_ID,
-                    getString(R.string.job_notify),
-                    NotificationManager.IMPORTANCE_HIGH
-            );
-
-            notificationChannel.enableLights(true);
-            notificationChannel.setLightColor(Color.RED);
-            notificationChannel.enableVibration(true);
-            notificationChannel.setDescription(getString(R.string.job_notify_desc));
-
-            // Call to createNotificationChannel() by passing in NotificationChannel object
-            // with NotificationManager object
-            mNotifyManager.createNotificationChannel(notificationChannel);
+        private void onFailed(Exception e) {
+            Log.w(TAG, "Job " + mJobParameters.getJobId() + " failed", e);
+            if (removeInFlight()) {
+                try {
+                    sLatencyStats.recordRun(mConstraintKey, elapsedMillis());
+                    jobFinished(mJobParameters, retryOrGiveUp(mJobParameters, mConstraintKey));
+                } finally {
+                    onSlotEnded(mJobParameters);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                performJob(mJobParameters);
+            } catch (InterruptedException e) {
+                // onStopJob() already answered the system, nothing else to report
+                return;
+            } catch (IOException e) {
+                onFailed(e);
+                return;
+            } catch (RuntimeException e) {
+                // A bug in a step must not leave the job waiting for the system timeout
+                onFailed(e);
+                return;
+            }
+
+            /*
+             * Removing the job from the in-flight jobs, if onStopJob() got there first the
+               system already considers the job stopped and jobFinished() must not be called.
+             */
+            if (!removeInFlight()) {
+                return;
+            }
+
+            long runMillis = elapsedMillis();
+            sLatencyStats.recordRun(mConstraintKey, runMillis);
+            mJobHistory.record(mJobParameters.getJobId(), JobHistoryRecord.EVENT_FINISHED,
+                    mConstraintKey, 0, runMillis);
+
+            // The job is done and will not run again, drop it from the registry index
+            JobRegistry.getInstance(NotificationJobService.this).onJobFinished(mJobParameters.getJobId());
+
+            /*
+             * The system finishes the stream job by itself once it ran out of work items,
+               calling jobFinished() could drop an item enqueued at the same moment.
+             */
+            if (!WorkStream.isStreamJob(mJobParameters.getJobId())) {
+                jobFinished(mJobParameters, false);
+            }
+
+            // Tasks queued after the drain ended get a new slot job, now that this one is finished
+            onSlotEnded(mJobParameters);
         }
     }
 }
@@ -0,0 +1,107 @@
+package com.rohit.examples.android.aad;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.core.app.NotificationCompat;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+
+/**
+ * Class definition for the fixed part of a notification
+ * Strings are resolved and PendingIntents looked up once, each post only creates a builder from
+   these fields and then changes what varies.
+ * The action button and big picture of a content are resolved through the PendingIntentPool and the
+   BitmapLoader cache, the big picture has to be loaded before the content is posted.
+ */
+public final class NotificationTemplate {
+
+    private final Context mContext;
+    private final NotificationContent mContent;
+    private final PendingIntent mContentIntent;
+    private final PendingIntent mDeleteIntent;
+    private final PendingIntentPool mPendingIntentPool;
+    private final BitmapLoader mBitmapLoader;
+
+    // Size big pictures are decoded at, in pixels
+    private final int mBigPictureWidth;
+    private final int mBigPictureHeight;
+
+    // Request code of the PendingIntents of action buttons
+    private static final int ACTION_REQUEST_CODE = 0;
+
+    /**
+     * @param context       Context notifications are built with
+     * @param content       Fixed content of the notifications
+     * @param contentIntent PendingIntent sent when the notification is clicked
+     * @param deleteIntent  PendingIntent sent when the notification is dismissed, may be null
+     */
+    public NotificationTemplate(Context context, NotificationContent content,
+                                PendingIntent contentIntent, PendingIntent deleteIntent) {
+        mContext = context;
+        mContent = content;
+        mContentIntent = contentIntent;
+        mDeleteIntent = deleteIntent;
+        mPendingIntentPool = PendingIntentPool.getInstance(context);
+        mBitmapLoader = BitmapLoader.getInstance(context);
+        mBigPictureWidth = context.getResources().getDimensionPixelSize(R.dimen.notification_big_picture_width);
+        mBigPictureHeight = context.getResources().getDimensionPixelSize(R.dimen.notification_big_picture_height);
+    }
+
+    public String getChannelId() {
+        return mContent.getChannelId();
+    }
+
+    /**
+     * @return fixed content of the notifications
+     */
+    public NotificationContent getContent() {
+        return mContent;
+    }
+
+    /**
+     * Method to create a builder pre-filled with the template fields
+     *
+     * @return new NotificationCompat.Builder object
+     */
+    public NotificationCompat.Builder newBuilder() {
+        return newBuilder(mContent);
+    }
+
+    /**
+     * Method to create a builder from content cloned off this template, with the template's PendingIntents
+     *
+     * @param content Content to be shown, usually built from {@link #getContent()}
+     * @return new NotificationCompat.Builder object
+     */
+    public NotificationCompat.Builder newBuilder(NotificationContent content) {
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(mContext, content.getChannelId())
+                .setContentTitle(content.getContentTitle())
+                .setContentText(content.getContentText())
+                .setSmallIcon(content.getSmallIcon())
+                .setPriority(content.getPriority())
+                .setDefaults(content.getDefaults())
+                .setContentIntent(mContentIntent)
+                .setAutoCancel(content.isAutoCancel());
+
+        if (mDeleteIntent != null) {
+            builder.setDeleteIntent(mDeleteIntent);
+        }
+
+        if (content.getAction() != null) {
+            builder.addAction(content.getActionIcon(), content.getActionTitle(), mPendingIntentPool.getBroadcast(
+                    NotificationActionReceiver.class, content.getAction(), ACTION_REQUEST_CODE));
+        }
+
+        // A picture evicted from the cache since it was loaded leaves the default style
+        Bitmap bigPicture = content.getBigPicture() == 0 ? null
+                : mBitmapLoader.getCached(content.getBigPicture(), mBigPictureWidth, mBigPictureHeight);
+        if (bigPicture != null) {
+            builder.setStyle(new NotificationCompat.BigPictureStyle()
+                    .bigPicture(bigPicture)
+                    .setBigContentTitle(content.getBigContentTitle()));
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,90 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class definition to keep one prebuilt NotificationTemplate per notification channel
+ */
+public final class NotificationTemplates {
+
+    // Request code constant for the PendingIntents attached to the templates
+    private static final int REQUEST_CODE = 0;
+
+    private static final Map<String, NotificationTemplate> sTemplates = new HashMap<>();
+
+    private NotificationTemplates() {
+    }
+
+    /**
+     * Returns the template of a channel, created on first use
+     *
+     * @param context   Context used to resolve strings and PendingIntents
+     * @param channelId One of the channel IDs in NotificationChannels
+     * @return NotificationTemplate object
+     */
+    public static synchronized NotificationTemplate get(Context context, String channelId) {
+        NotificationTemplate template = sTemplates.get(channelId);
+        if (template == null) {
+            template = create(context.getApplicationContext(), channelId);
+            sTemplates.put(channelId, template);
+        }
+        return template;
+    }
+
+    /**
+     * Dropping every template, the strings they hold are resolved again on next use
+     * Called when the configuration (e.g. the locale) changes.
+     */
+    public static synchronized void clear() {
+        sTemplates.clear();
+    }
+
+    private static NotificationTemplate create(Context context, String channelId) {
+        PendingIntentPool pendingIntentPool = PendingIntentPool.getInstance(context);
+
+        /*
+         * Setting the priority of the notification to HIGH using PRIORITY_HIGH constant
+           and sound, vibration, etc. to default values using DEFAULT_ALL constant.
+         * Setting true to setAutoCancel(), closing the notification when the user taps on it
+         */
+        NotificationContent.Builder contentBuilder = new NotificationContent.Builder(channelId)
+                .setPriority(NotificationContent.PRIORITY_HIGH)
+                .setDefaults(NotificationContent.DEFAULT_ALL)
+                .setAutoCancel(true);
+
+        switch (channelId) {
+            case NotificationChannels.PRIMARY_CHANNEL_ID:
+                // Content intent opens the notification screen, delete intent resets its buttons
+                contentBuilder
+                        .setContentTitle(context.getString(R.string.notify_content_title))
+                        .setContentText(context.getString(R.string.notify_content_text))
+                        .setSmallIcon(R.drawable.ic_android);
+
+                return new NotificationTemplate(context, contentBuilder.build(),
+                        pendingIntentPool.getActivity(MainActivity.class,
+                                ScreenNavigator.actionOf(ScreenNavigator.NOTIFICATION), REQUEST_CODE),
+                        pendingIntentPool.getBroadcast(NotificationActionReceiver.class,
+                                NotificationFragment.ACTION_DISMISS_NOTIFICATION, REQUEST_CODE));
+
+            case NotificationChannels.JOB_CHANNEL_ID:
+                // Content intent opens the job scheduler screen
+                contentBuilder
+                        .setContentTitle(context.getString(R.string.notify_job_title))
+                        .setContentText(context.getString(R.string.notify_job_content_text))
+                        .setSmallIcon(R.drawable.ic_job_running);
+
+                return new NotificationTemplate(context, contentBuilder.build(),
+                        pendingIntentPool.getActivity(MainActivity.class,
+                                ScreenNavigator.actionOf(ScreenNavigator.JOB_SCHEDULER), REQUEST_CODE),
+                        null);
+
+            default:
+                throw new IllegalArgumentException("Unknown notification channel: " + channelId);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.rohit.examples.android.aad;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import com.rohit.examples.android.aad.core.PendingIntentKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class definition to keep one stable PendingIntent per action, target and request code
+ * PendingIntents are created once with FLAG_UPDATE_CURRENT and reused by every notification post,
+   so the system keeps the same token instead of minting a new one each time.
+ */
+public class PendingIntentPool {
+
+    // Process wide pool instance
+    private static PendingIntentPool sInstance;
+
+    private final Context mContext;
+
+    private final Map<PendingIntentKey, PendingIntent> mPool = new HashMap<>();
+
+    /**
+     * Returns the process wide pool, created on first use
+     *
+     * @param context Context the PendingIntents are created with
+     * @return PendingIntentPool instance
+     */
+    public static synchronized PendingIntentPool getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new PendingIntentPool(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private PendingIntentPool(Context context) {
+        mContext = context;
+    }
+
+    /**
+     * Returns a PendingIntent starting an activity
+     *
+     * @param activityClass Activity to be started
+     * @param requestCode   Request code of the PendingIntent
+     * @return pooled PendingIntent
+     */
+    public synchronized PendingIntent getActivity(Class<?> activityClass, int requestCode) {
+        return getActivity(activityClass, null, requestCode);
+    }
+
+    /**
+     * Returns a PendingIntent starting an activity with an action
+     * The action tells apart PendingIntents of the same activity, extras would not.
+     *
+     * @param activityClass Activity to be started
+     * @param action        Intent action, or null
+     * @param requestCode   Request code of the PendingIntent
+     * @return pooled PendingIntent
+     */
+    public synchronized PendingIntent getActivity(Class<?> activityClass, String action, int requestCode) {
+        PendingIntentKey key = new PendingIntentKey(PendingIntentKey.TYPE_ACTIVITY,
+                action, activityClass.getName(), requestCode);
+
+        PendingIntent pendingIntent = mPool.get(key);
+        if (pendingIntent == null) {
+            Intent intent = new Intent(mContext, activityClass).setAction(action);
+            pendingIntent = PendingIntent.getActivity(mContext, requestCode,
+                    intent, PendingIntent.FLAG_UPDATE_CURRENT);
+            mPool.put(key, pendingIntent);
+        }
+        return pendingIntent;
+    }
+
+    /**
+     * Returns a PendingIntent sending an explicit broadcast to a receiver of the app
+     * The receiver is declared in the manifest, so the broadcast is delivered even when the process is not running.
+     *
+     * @param receiverClass Receiver the broadcast is sent to
+     * @param action        Broadcast action
+     * @param requestCode   Request code of the PendingIntent
+     * @return pooled PendingIntent
+     */
+    public synchronized PendingIntent getBroadcast(Class<?> receiverClass, String action, int requestCode) {
+        PendingIntentKey key = new PendingIntentKey(PendingIntentKey.TYPE_BROADCAST,
+                action, receiverClass.getName(), requestCode);
+
+        PendingIntent pendingIntent = mPool.get(key);
+        if (pendingIntent == null) {
+            Intent intent = new Intent(mContext, receiverClass).setAction(action);
+            pendingIntent = PendingIntent.getBroadcast(mContext, requestCode,
+                    intent, PendingIntent.FLAG_UPDATE_CURRENT);
+            mPool.put(key, pendingIntent);
+        }
+        return pendingIntent;
+    }
+
+    /**
+     * @return number of pooled PendingIntents
+     */
+    public synchronized int size() {
+        return mPool.size();
+    }
+}
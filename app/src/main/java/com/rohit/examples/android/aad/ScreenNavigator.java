@@ -0,0 +1,210 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.fragment.app.FragmentTransaction;
+
+import java.util.ArrayList;
+
+/**
+ * Class definition to navigate between the screens of the app inside the single MainActivity host
+ * Every screen is a fragment created on its first visit and kept afterwards. Leaving a screen hides it
+   along with its views, so coming back to it is a view swap instead of an activity start, a window
+   creation and a layout inflation.
+ * The visited screens form a back stack, navigating to a screen already on it pops the screens above it.
+ * Fragments and the back stack are restored by the FragmentManager and the saved state after a recreation.
+ */
+public class ScreenNavigator {
+
+    /**
+     * Destinations of the navigator, also the fragment tags and the screen names of the JankMonitor
+     */
+    public static final String HOME = "home";
+    public static final String NOTIFICATION = "notification";
+    public static final String JOB_SCHEDULER = "job_scheduler";
+
+    // Every destination, the first one is the root of the back stack
+    private static final String[] DESTINATIONS = {HOME, NOTIFICATION, JOB_SCHEDULER};
+
+    // Prefix of the intent actions opening a destination, e.g. from the content intent of a notification
+    private static final String ACTION_PREFIX = "com.rohit.examples.android.aad.SHOW_";
+
+    // Key of the back stack in the saved state of the host
+    private static final String STATE_BACK_STACK = "screen_back_stack";
+
+    /**
+     * Interface for the activity hosting the screens, so they can reach the navigator
+     */
+    public interface Host {
+        ScreenNavigator getScreenNavigator();
+    }
+
+    private final FragmentActivity mActivity;
+    private final int mContainerId;
+
+    // Visited destinations, the current one last, screens below it may not be created yet
+    private final ArrayList<String> mBackStack;
+
+    /**
+     * @param activity           Activity hosting the screens
+     * @param containerId        ID of the view the screens are added to
+     * @param savedInstanceState Saved state of the activity, or null on a fresh start
+     */
+    public ScreenNavigator(FragmentActivity activity, int containerId, Bundle savedInstanceState) {
+        mActivity = activity;
+        mContainerId = containerId;
+
+        ArrayList<String> backStack = savedInstanceState == null ? null
+                : savedInstanceState.getStringArrayList(STATE_BACK_STACK);
+        if (backStack == null || backStack.isEmpty()) {
+            backStack = new ArrayList<>();
+            backStack.add(DESTINATIONS[0]);
+        }
+        mBackStack = backStack;
+    }
+
+    /**
+     * Returns the navigator of the activity hosting a screen
+     *
+     * @param fragment Screen hosted by a ScreenNavigator.Host
+     * @return ScreenNavigator of the host
+     */
+    public static ScreenNavigator of(Fragment fragment) {
+        return ((Host) fragment.requireActivity()).getScreenNavigator();
+    }
+
+    /**
+     * Method to show a destination, created on its first visit
+     * Pushed on the back stack, or the destinations above it are popped if it's already on the stack.
+     *
+     * @param destination One of the destination constants
+     */
+    public void navigate(String destination) {
+        int index = mBackStack.indexOf(destination);
+        if (index == -1) {
+            mBackStack.add(destination);
+        } else {
+            mBackStack.subList(index + 1, mBackStack.size()).clear();
+        }
+        showCurrent();
+    }
+
+    /**
+     * Method to go back to the previous destination
+     *
+     * @return false if the current destination is the root, the host then handles back itself
+     */
+    public boolean navigateUp() {
+        if (mBackStack.size() <= 1) {
+            return false;
+        }
+        mBackStack.remove(mBackStack.size() - 1);
+        showCurrent();
+        return true;
+    }
+
+    public String getCurrent() {
+        return mBackStack.get(mBackStack.size() - 1);
+    }
+
+    /**
+     * Method to make sure the current destination is the one shown, every other screen is hidden
+     * Called by the host once created, and after every change of the back stack.
+     */
+    public void showCurrent() {
+        String current = getCurrent();
+        FragmentManager fragmentManager = mActivity.getSupportFragmentManager();
+        FragmentTransaction transaction = fragmentManager.beginTransaction().setReorderingAllowed(true);
+
+        for (String destination : DESTINATIONS) {
+            Fragment screen = fragmentManager.findFragmentByTag(destination);
+            if (destination.equals(current)) {
+                if (screen == null) {
+                    transaction.add(mContainerId, createScreen(destination), destination);
+                } else {
+                    transaction.show(screen);
+                }
+            } else if (screen != null && !screen.isHidden()) {
+                transaction.hide(screen);
+            }
+        }
+        transaction.commitNow();
+
+        mActivity.setTitle(titleOf(current));
+        JankMonitor.setScreen(current);
+    }
+
+    /**
+     * Method to save the back stack, called from onSaveInstanceState() of the host
+     *
+     * @param outState Saved state of the host
+     */
+    public void saveState(Bundle outState) {
+        outState.putStringArrayList(STATE_BACK_STACK, mBackStack);
+    }
+
+    /**
+     * Helper method to build the action of an intent opening a destination in MainActivity
+     *
+     * @param destination One of the destination constants
+     * @return intent action
+     */
+    public static String actionOf(String destination) {
+        return ACTION_PREFIX + destination;
+    }
+
+    /**
+     * Helper method to read the destination an intent of actionOf() opens
+     *
+     * @param intent Intent the host was started with
+     * @return destination, or null if the intent doesn't open one
+     */
+    public static String destinationOf(Intent intent) {
+        String action = intent == null ? null : intent.getAction();
+        for (String destination : DESTINATIONS) {
+            if (actionOf(destination).equals(action)) {
+                return destination;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Helper method creating the fragment of a destination
+     */
+    private static Fragment createScreen(String destination) {
+        switch (destination) {
+            case HOME:
+                return new HomeFragment();
+
+            case NOTIFICATION:
+                return new NotificationFragment();
+
+            case JOB_SCHEDULER:
+                return new JobSchedulerFragment();
+
+            default:
+                throw new IllegalArgumentException("Unknown destination: " + destination);
+        }
+    }
+
+    /**
+     * Helper method returning the string resource ID of the title of a destination
+     */
+    private static int titleOf(String destination) {
+        switch (destination) {
+            case NOTIFICATION:
+                return R.string.title_notification;
+
+            case JOB_SCHEDULER:
+                return R.string.title_job_scheduler;
+
+            default:
+                return R.string.title_home;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.os.Trace;
+
+import com.rohit.examples.android.aad.core.PhaseTimings;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+
+/**
+ * Class definition to time the startup phases of the app
+ * Each phase opens an android.os.Trace section, visible in systrace, and is recorded in an in-memory
+   ring buffer that can be dumped to a file from production builds.
+ * Phases are expected to be opened and closed on the main thread, nested phases are allowed.
+ */
+public final class StartupTracer {
+
+    // Number of phases kept in the ring buffer
+    private static final int CAPACITY = 256;
+
+    // Name of the dump file in the app's files directory
+    public static final String DUMP_FILE_NAME = "startup_trace.tsv";
+
+    private static final PhaseTimings sTimings = new PhaseTimings(CAPACITY);
+
+    // Names and start times of the open phases, innermost last
+    private static final ArrayDeque<String> sOpenNames = new ArrayDeque<>();
+    private static final ArrayDeque<Long> sOpenStarts = new ArrayDeque<>();
+
+    private StartupTracer() {
+    }
+
+    /**
+     * Method to open a phase
+     *
+     * @param name Name of the phase, e.g. "MainActivity.setContentView"
+     */
+    public static void begin(String name) {
+        Trace.beginSection(name);
+        sOpenNames.push(name);
+        sOpenStarts.push(SystemClock.elapsedRealtimeNanos());
+    }
+
+    /**
+     * Method to close the innermost open phase and record its duration
+     */
+    public static void end() {
+        long endNanos = SystemClock.elapsedRealtimeNanos();
+        Trace.endSection();
+
+        if (sOpenNames.isEmpty()) {
+            return;
+        }
+        long startNanos = sOpenStarts.pop();
+        sTimings.record(sOpenNames.pop(), startNanos, endNanos - startNanos);
+    }
+
+    /**
+     * @return phases recorded so far
+     */
+    public static PhaseTimings getTimings() {
+        return sTimings;
+    }
+
+    /**
+     * Method to write every recorded phase
+     *
+     * @param out Destination of the dump
+     * @throws IOException if writing fails
+     */
+    public static void dump(Writer out) throws IOException {
+        sTimings.writeTo(out);
+    }
+
+    /**
+     * Method to write every recorded phase to DUMP_FILE_NAME in the app's files directory
+     * Does file I/O, not to be called on the main thread.
+     *
+     * @param context Context used to locate the files directory
+     * @return the dump file
+     * @throws IOException if writing fails
+     */
+    public static File dumpToFile(Context context) throws IOException {
+        File file = new File(context.getFilesDir(), DUMP_FILE_NAME);
+        Writer out = new FileWriter(file);
+        try {
+            dump(out);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,349 @@
+package com.rohit.examples.android.aad;
+
+import android.app.job.JobInfo;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.PersistableBundle;
+import android.util.Log;
+
+import com.rohit.examples.android.aad.core.JobPipeline;
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.TaskQueue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class definition to run any number of one-shot tasks on a small fixed pool of jobs
+ * Tasks are kept in a TaskQueue in the app, grouped into slots by their constraints, and every slot with
+   queued tasks has one job of its own under a reserved job ID. When the constraints of a slot hold,
+   NotificationJobService drains every task of the slot in one execution, so tens of thousands of deferred
+   tasks take at most TaskQueue.SLOT_COUNT of the jobs the platform allows an app to have.
+ * The queue is saved to the app's files directory after every change, coalesced on a background thread.
+ */
+public class TaskMultiplexer {
+
+    private static final String TAG = "TaskMultiplexer";
+
+    // Reserved job IDs of the slots, the last TaskQueue.SLOT_COUNT IDs, never handed out by JobRegistry
+    public static final int FIRST_SLOT_JOB_ID = Integer.MAX_VALUE - TaskQueue.SLOT_COUNT + 1;
+
+    // Prefix of the notification key of a task, kept apart from the notification keys of jobs
+    public static final String NOTIFICATION_KEY_PREFIX = "task_notification_";
+
+    // Name of the queue snapshot in the app's files directory
+    private static final String FILE_NAME = "task_queue.bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Number of failed runs of a task before it is dropped, so one failing task can't hold up its slot
+     * The runs are spaced by the jittered backoff of TaskQueue.SLOT_RETRY_POLICY, as the job scheduler
+       retries the slot job after every failure.
+     */
+    private static final int MAX_TASK_ATTEMPTS = 5;
+
+    // Process wide multiplexer instance
+    private static TaskMultiplexer sInstance;
+
+    private final Context mContext;
+    private final File mFile;
+    private final ComponentName mServiceName;
+    private final JobRegistry mJobRegistry;
+    private final JobPipeline.CheckpointStore mCheckpoints;
+
+    // Single thread loading and saving the queue and scheduling the slot jobs, in order
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    // Released once the queue is loaded, the queue is only used after it
+    private final CountDownLatch mLoaded = new CountDownLatch(1);
+    private volatile TaskQueue mQueue;
+
+    // Slots whose job is running, their job is not replaced while the tasks are drained
+    private final boolean[] mRunningSlots = new boolean[TaskQueue.SLOT_COUNT];
+
+    // Whether a save is already waiting on the executor, later changes are written by it
+    private boolean mSavePending;
+
+    /**
+     * Returns the process wide multiplexer, created on first use
+     * The queue is loaded in the background, tasks can be enqueued right away.
+     *
+     * @param context Context used to locate the files directory and the job registry
+     * @return TaskMultiplexer instance
+     */
+    public static synchronized TaskMultiplexer getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new TaskMultiplexer(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private TaskMultiplexer(Context context) {
+        mContext = context;
+        mFile = new File(context.getFilesDir(), FILE_NAME);
+        mServiceName = new ComponentName(context, NotificationJobService.class);
+        mJobRegistry = JobRegistry.getInstance(context);
+        mCheckpoints = JobPipelines.getTaskCheckpoints(context);
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mQueue = load();
+                mLoaded.countDown();
+
+                // Slot jobs lost with the previous process, e.g. after a reboot, are scheduled again
+                for (int slot : mQueue.getActiveSlots()) {
+                    updateSlot(slot, mQueue.getEarliestDeadline(slot));
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to queue a one-shot task, the job of its slot is scheduled or moved to an earlier deadline
+     * Can be called from any thread, the task is added in the background.
+     *
+     * @param spec Constraints, deadline and pipeline of the task, its retry policy is replaced by the one of the slot
+     * @throws IllegalArgumentException if the spec is periodic, periodic work needs a job of its own
+     */
+    public void enqueue(final JobSpec spec) {
+        TaskQueue.slotOf(spec);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                TaskQueue.Task task = mQueue.add(spec, System.currentTimeMillis());
+                updateSlot(task.getSlot(), task.getDeadlineAtMillis());
+                requestSave();
+            }
+        });
+    }
+
+    /**
+     * Method to drop every queued task and cancel the slot jobs
+     */
+    public void clear() {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mQueue.clear();
+                for (int slot = 0; slot < TaskQueue.SLOT_COUNT; slot++) {
+                    mJobRegistry.cancel(FIRST_SLOT_JOB_ID + slot);
+                }
+                requestSave();
+            }
+        });
+    }
+
+    /**
+     * @param jobId ID of a job
+     * @return true if the job runs the tasks of a slot
+     */
+    public static boolean isSlotJob(int jobId) {
+        return jobId >= FIRST_SLOT_JOB_ID;
+    }
+
+    /**
+     * Called by NotificationJobService when a slot job starts, before its tasks are drained
+     *
+     * @param jobId ID of the slot job
+     */
+    public synchronized void onSlotStarted(int jobId) {
+        mRunningSlots[jobId - FIRST_SLOT_JOB_ID] = true;
+    }
+
+    /**
+     * Method to run every task of a slot, oldest first, on the calling worker thread
+     * Tasks queued while the slot is drained are run by the same execution. A failing task stays queued
+       and ends the execution, so the slot job is retried with its backoff, until it ran out of attempts.
+       A step throwing a RuntimeException counts as a failure too, a task naming an unknown pipeline is
+       dropped right away, as it would never run.
+     *
+     * @param jobId ID of the slot job
+     * @throws InterruptedException if the slot job was stopped, the running task is run again next time
+     * @throws IOException          if a task failed
+     */
+    public void drain(int jobId) throws InterruptedException, IOException {
+        mLoaded.await();
+        int slot = jobId - FIRST_SLOT_JOB_ID;
+
+        TaskQueue.Task task;
+        while ((task = mQueue.peek(slot)) != null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            JobPipeline pipeline;
+            try {
+                pipeline = JobPipelines.create(mContext, NOTIFICATION_KEY_PREFIX + task.getId(), task.getPipeline());
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Task " + task.getId() + " dropped", e);
+                removeTask(task);
+                continue;
+            }
+
+            try {
+                pipeline.run(task.getId(), null, mCheckpoints);
+            } catch (IOException e) {
+                onTaskFailed(task, e);
+            } catch (RuntimeException e) {
+                onTaskFailed(task, new IOException(e));
+            }
+            removeTask(task);
+        }
+    }
+
+    /**
+     * Helper method counting a failed run of a task
+     * The failure is thrown again while the task has attempts left, otherwise the task is dropped
+       and the give up listeners are called.
+     */
+    private void onTaskFailed(TaskQueue.Task task, IOException e) throws IOException {
+        int attempts = mQueue.recordFailure(task.getId());
+        if (attempts < MAX_TASK_ATTEMPTS) {
+            requestSave();
+            throw e;
+        }
+        Log.w(TAG, "Task " + task.getId() + " dropped after " + attempts + " attempts", e);
+        mJobRegistry.giveUpTask(task.getId(), attempts);
+    }
+
+    /**
+     * Helper method removing a task that ran or was dropped, with its checkpoints
+     */
+    private void removeTask(TaskQueue.Task task) {
+        mQueue.remove(task.getId());
+        mCheckpoints.clear(task.getId());
+        requestSave();
+    }
+
+    /**
+     * Called by NotificationJobService once a slot job finished or was stopped, after the system was answered
+     * Tasks queued after the drain ended get a new slot job, unless the stopped job is rescheduled anyway.
+     *
+     * @param jobId ID of the slot job
+     */
+    public void onSlotEnded(int jobId) {
+        final int slot = jobId - FIRST_SLOT_JOB_ID;
+        synchronized (this) {
+            mRunningSlots[slot] = false;
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                updateSlot(slot, mQueue.getEarliestDeadline(slot));
+            }
+        });
+    }
+
+    /**
+     * Helper method making sure the job of a slot runs by the given deadline, runs on the executor
+     * A live slot job is only replaced for an earlier deadline, and never while it is running,
+       as scheduling over a running job stops it.
+     */
+    private synchronized void updateSlot(int slot, long deadlineAtMillis) {
+        if (mRunningSlots[slot]) {
+            return;
+        }
+
+        int jobId = FIRST_SLOT_JOB_ID + slot;
+        JobInfo liveJob = mJobRegistry.getJob(jobId);
+        if (mQueue.size(slot) == 0) {
+            if (liveJob != null) {
+                mJobRegistry.cancel(jobId);
+            }
+            return;
+        }
+        if (liveJob != null && deadlineAtMillis >= liveDeadline(liveJob)) {
+            return;
+        }
+
+        JobSpec slotSpec = mQueue.getSlotSpec(slot, System.currentTimeMillis());
+        if (!mJobRegistry.schedule(JobInfoFactory.newBuilder(jobId, mServiceName, slotSpec).build())) {
+            Log.w(TAG, "Can't schedule the job of slot " + slot);
+        }
+    }
+
+    /**
+     * Helper method returning the wall clock deadline of a live slot job, or TaskQueue.NO_DEADLINE
+     */
+    private static long liveDeadline(JobInfo jobInfo) {
+        PersistableBundle extras = jobInfo.getExtras();
+        long deadlineMillis = extras.getLong(JobInfoFactory.EXTRA_DEADLINE_MILLIS, JobSpec.NO_DEADLINE);
+        if (deadlineMillis == JobSpec.NO_DEADLINE) {
+            return TaskQueue.NO_DEADLINE;
+        }
+        return extras.getLong(JobInfoFactory.EXTRA_SCHEDULED_AT) + deadlineMillis;
+    }
+
+    /**
+     * Helper method posting a save of the queue, unless one is already waiting
+     */
+    private synchronized void requestSave() {
+        if (mSavePending) {
+            return;
+        }
+        mSavePending = true;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (TaskMultiplexer.this) {
+                    mSavePending = false;
+                }
+                try {
+                    save();
+                } catch (IOException e) {
+                    Log.w(TAG, "Can't save the task queue", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Helper method writing the queue to a temporary file and renaming it over the previous snapshot
+     */
+    private void save() throws IOException {
+        File tempFile = new File(mFile.getPath() + TEMP_SUFFIX);
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        try {
+            mQueue.writeTo(out);
+            out.flush();
+            fileOut.getFD().sync();
+        } finally {
+            out.close();
+        }
+
+        if (!tempFile.renameTo(mFile)) {
+            throw new IOException("Can't rename " + tempFile);
+        }
+    }
+
+    /**
+     * Helper method reading the queue snapshot, an unreadable snapshot starts an empty queue
+     */
+    private TaskQueue load() {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+            try {
+                return TaskQueue.readFrom(in);
+            } finally {
+                in.close();
+            }
+        } catch (FileNotFoundException e) {
+            return new TaskQueue();
+        } catch (IOException e) {
+            Log.w(TAG, "Can't read the task queue, starting empty", e);
+            return new TaskQueue();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.rohit.examples.android.aad;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import com.google.android.material.snackbar.Snackbar;
+
+/**
+ * Class definition to show Toasts and Snackbars of an activity without flooding the system queue
+ * One Toast, one custom Toast and one Snackbar are created and reused, a new message replaces
+   the one shown instead of queueing behind it, and a message identical to the one still shown is dropped.
+ * To be used from the main thread.
+ */
+public class TransientMessageDispatcher {
+
+    // Time a message stays on screen, Toast.LENGTH_SHORT and Snackbar.LENGTH_LONG
+    private static final long TOAST_DURATION_MS = 2000;
+    private static final long SNACKBAR_DURATION_MS = 2750;
+
+    // Vertical offset of the custom toast from the bottom of the screen
+    private static final int CUSTOM_TOAST_Y_OFFSET = 20;
+
+    private final Context mContext;
+
+    // Reused plain toast and the message it shows
+    private Toast mToast;
+    private final ShownMessage mToastMessage = new ShownMessage();
+
+    // Reused custom toast, inflated on first use, and the message it shows
+    private Toast mCustomToast;
+    private TextView mCustomToastText;
+    private final ShownMessage mCustomToastMessage = new ShownMessage();
+
+    // Reused snackbar and the message it shows
+    private Snackbar mSnackbar;
+    private final ShownMessage mSnackbarMessage = new ShownMessage();
+
+    /**
+     * @param context Context the messages are shown with
+     */
+    public TransientMessageDispatcher(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * Method to show a normal Toast
+     *
+     * @param text Message to be shown
+     */
+    public void showToast(CharSequence text) {
+        if (mToastMessage.isShowing(text, TOAST_DURATION_MS)) {
+            return;
+        }
+
+        if (mToast == null) {
+            mToast = Toast.makeText(mContext, text, Toast.LENGTH_SHORT);
+        } else {
+            mToast.setText(text);
+        }
+        mToast.show();
+        mToastMessage.shown(text);
+    }
+
+    /**
+     * Method to show the custom toast layout, inflated the first time it is needed
+     *
+     * @param text Message to be shown
+     */
+    public void showCustomToast(CharSequence text) {
+        if (mCustomToastMessage.isShowing(text, TOAST_DURATION_MS)) {
+            return;
+        }
+
+        if (mCustomToast == null) {
+            // Inflating the custom toast layout and setting gravity, duration and view to be used.
+            View viewLayout = LayoutInflater.from(mContext).inflate(R.layout.custom_toast, null);
+            mCustomToastText = viewLayout.findViewById(R.id.text);
+
+            mCustomToast = new Toast(mContext);
+            mCustomToast.setGravity(Gravity.BOTTOM, 0, CUSTOM_TOAST_Y_OFFSET);
+            mCustomToast.setDuration(Toast.LENGTH_SHORT);
+            mCustomToast.setView(viewLayout);
+        }
+        mCustomToastText.setText(text);
+        mCustomToast.show();
+        mCustomToastMessage.shown(text);
+    }
+
+    /**
+     * Method to show a Snackbar with an OK action, raised above a bottom bar
+     * The margin is read from the bottom bar's height only when the Snackbar is first created.
+     *
+     * @param anchor    View used to find the parent the Snackbar is shown in
+     * @param text      Message to be shown
+     * @param actionRes String resource ID of the action label
+     * @param bottomBar View the Snackbar is shown above
+     */
+    public void showSnackbar(View anchor, CharSequence text, int actionRes, View bottomBar) {
+        if (mSnackbarMessage.isShowing(text, SNACKBAR_DURATION_MS)) {
+            return;
+        }
+
+        if (mSnackbar == null) {
+            mSnackbar = Snackbar.make(anchor, text, Snackbar.LENGTH_LONG);
+
+            //Positioning the SnackBar relative to other views
+            FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) mSnackbar.getView().getLayoutParams();
+            layoutParams.setMargins(layoutParams.leftMargin, layoutParams.topMargin, layoutParams.rightMargin,
+                    bottomBar.getHeight());
+            mSnackbar.getView().setLayoutParams(layoutParams);
+
+            // Setting action for SnackBar to be handled by user
+            mSnackbar.setAction(actionRes, new View.OnClickListener() {
+                @Override
+                public void onClick(View view) {
+
+                }
+            });
+        } else {
+            mSnackbar.setText(text);
+        }
+        mSnackbar.show();
+        mSnackbarMessage.shown(text);
+    }
+
+    /**
+     * Method to hide every message shown, to be called when the activity goes away
+     */
+    public void dismissAll() {
+        if (mToast != null) {
+            mToast.cancel();
+        }
+        if (mCustomToast != null) {
+            mCustomToast.cancel();
+        }
+        if (mSnackbar != null) {
+            mSnackbar.dismiss();
+        }
+        mToastMessage.clear();
+        mCustomToastMessage.clear();
+        mSnackbarMessage.clear();
+    }
+
+    /**
+     * The last message shown by a Toast or Snackbar and when it was shown
+     */
+    private static class ShownMessage {
+
+        private CharSequence mText;
+        private long mShownAt;
+
+        boolean isShowing(CharSequence text, long durationMs) {
+            return mText != null && TextUtils.equals(mText, text)
+                    && SystemClock.uptimeMillis() - mShownAt < durationMs;
+        }
+
+        void shown(CharSequence text) {
+            mText = text;
+            mShownAt = SystemClock.uptimeMillis();
+        }
+
+        void clear() {
+            mText = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.rohit.examples.android.aad;
+
+import android.annotation.TargetApi;
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobWorkItem;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import com.rohit.examples.android.aad.core.JobPipeline;
+import com.rohit.examples.android.aad.core.JobSpec;
+
+import java.io.IOException;
+
+/**
+ * Class definition to stream work items into a single running job
+ * From Android O every item is enqueued as a JobWorkItem onto the stream job. While the job runs,
+   NotificationJobService dequeues and completes the items one by one, items enqueued meanwhile are
+   picked up by the same execution, so a burst of items costs one job start and one service bind.
+ * Below Android O items are queued as tasks of the TaskMultiplexer, to run right away.
+ */
+public class WorkStream {
+
+    private static final String TAG = "WorkStream";
+
+    // Reserved job ID of the stream job, right below the TaskMultiplexer slots, never handed out by JobRegistry
+    public static final int STREAM_JOB_ID = TaskMultiplexer.FIRST_SLOT_JOB_ID - 1;
+
+    /**
+     * Notification key shared by every work item
+     * A burst of items updates one notification, which the NotificationDispatcher posts once per flush.
+     */
+    public static final String NOTIFICATION_KEY = "stream_notification";
+
+    // Number of deliveries of a work item before it is completed without running, so it can't block the stream
+    private static final int MAX_DELIVERIES = 5;
+
+    // Process wide stream instance
+    private static WorkStream sInstance;
+
+    private final Context mContext;
+    private final JobRegistry mJobRegistry;
+
+    /**
+     * Stream job, built once so every enqueue passes an equal JobInfo
+     * JobScheduler adds the work to a running job only if the JobInfo is equal, a different one replaces the job.
+     */
+    private final JobInfo mStreamJob;
+
+    /**
+     * Returns the process wide stream, created on first use
+     *
+     * @param context Context used to look up the job registry
+     * @return WorkStream instance
+     */
+    public static synchronized WorkStream getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new WorkStream(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private WorkStream(Context context) {
+        mContext = context;
+        mJobRegistry = JobRegistry.getInstance(context);
+
+        // The stream runs right away, the deadline is its only constraint
+        mStreamJob = new JobInfo.Builder(STREAM_JOB_ID, new ComponentName(context, NotificationJobService.class))
+                .setOverrideDeadline(0)
+                .build();
+    }
+
+    /**
+     * Method to add a work item to the stream, can be called from any thread
+     *
+     * @param pipeline Name of the pipeline run by the item, or null for JobPipelines.PIPELINE_NOTIFY
+     * @return true if the item was accepted
+     */
+    public boolean enqueue(String pipeline) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            TaskMultiplexer.getInstance(mContext).enqueue(new JobSpec.Builder()
+                    .setOverrideDeadline(0)
+                    .setPipeline(pipeline)
+                    .build());
+            return true;
+        }
+
+        Intent work = new Intent();
+        if (pipeline != null) {
+            work.putExtra(JobInfoFactory.EXTRA_PIPELINE, pipeline);
+        }
+        return mJobRegistry.enqueue(mStreamJob, new JobWorkItem(work));
+    }
+
+    /**
+     * @param jobId ID of a job
+     * @return true if the job is the stream job
+     */
+    public static boolean isStreamJob(int jobId) {
+        return jobId == STREAM_JOB_ID;
+    }
+
+    /**
+     * Method to run the work items of the stream job until none is left, on the calling worker thread
+     * Every item is completed once its pipeline ran. Once dequeueWork() returned null the system finishes
+       the job by itself, jobFinished() must not be called for it.
+     * A failing item is left uncompleted and ends the execution, the system delivers it again when the
+       rescheduled job runs, until it was delivered MAX_DELIVERIES times.
+     *
+     * @param jobParameters Parameters of the running stream job
+     * @throws InterruptedException if the job was stopped, the running item is delivered again
+     * @throws IOException          if an item failed
+     */
+    @TargetApi(Build.VERSION_CODES.O)
+    public void drain(JobParameters jobParameters) throws InterruptedException, IOException {
+        JobWorkItem item;
+        while ((item = jobParameters.dequeueWork()) != null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (item.getDeliveryCount() > MAX_DELIVERIES) {
+                Log.w(TAG, "Work item " + item.getWorkId() + " dropped after " + MAX_DELIVERIES + " deliveries");
+            } else {
+                JobPipeline pipeline = JobPipelines.create(mContext, NOTIFICATION_KEY,
+                        item.getIntent().getStringExtra(JobInfoFactory.EXTRA_PIPELINE));
+
+                // Items are short, an interrupted item is run again from its first step
+                pipeline.run(STREAM_JOB_ID, null, JobPipeline.NO_CHECKPOINTS);
+            }
+            jobParameters.completeWork(item);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobSpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building job specs and evaluating their constraints, as done on every schedule request
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobSpecBenchmark {
+
+    private JobSpec mSpec;
+
+    // Cycles through every combination of user selections
+    private int mCounter;
+
+    @Setup
+    public void setUp() {
+        mSpec = new JobSpec.Builder()
+                .setRequiredNetworkType(JobSpec.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setOverrideDeadlineSeconds(30)
+                .build();
+    }
+
+    @Benchmark
+    public JobSpec buildSpec() {
+        int selection = mCounter++;
+        return new JobSpec.Builder()
+                .setRequiredNetworkType(selection % 3)
+                .setRequiresDeviceIdle((selection & 4) != 0)
+                .setRequiresCharging((selection & 8) != 0)
+                .setOverrideDeadlineSeconds(selection & 0xF)
+                .build();
+    }
+
+    @Benchmark
+    public boolean evaluateConstraints() {
+        return JobConstraints.isConstraintSet(mSpec);
+    }
+
+    @Benchmark
+    public int constraintKey() {
+        return mSpec.getConstraintKey();
+    }
+}
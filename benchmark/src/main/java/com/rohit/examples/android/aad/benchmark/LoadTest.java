@@ -0,0 +1,337 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.LatencyHistogram;
+import com.rohit.examples.android.aad.core.NotificationContent;
+import com.rohit.examples.android.aad.core.NotificationIdAllocator;
+import com.rohit.examples.android.aad.core.NotificationStateStore;
+import com.rohit.examples.android.aad.core.RetryPolicy;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Load generator pushing jobs through LocalJobScheduler and notifications through LocalNotificationManager
+ * Both run on a virtual clock advanced in 1 ms steps, so a run with the same arguments schedules, stops
+   and drops exactly the same work. Only the wall clock figures change from one machine to the next.
+ *
+ * Arguments are key=value pairs, e.g. "seconds=60 jobRate=2000 notificationRate=2000 seed=1 report=load.txt"
+ */
+public class LoadTest {
+
+    // Length of a step of the virtual clock
+    private static final long STEP_MILLIS = 1;
+
+    // Interval of the device state changes, every change may stop running jobs
+    private static final long DEVICE_STATE_INTERVAL_MILLIS = 1000;
+
+    // Number of distinct job IDs and notification keys, reused so jobs replace each other
+    private static final int JOB_ID_COUNT = 1000;
+    private static final int NOTIFICATION_KEY_COUNT = 200;
+
+    // Range of the virtual run time of a job, and the share of runs failing and asking for a retry
+    private static final int MAX_RUN_MILLIS = 20;
+    private static final float FAILURE_RATE = 0.02f;
+
+    // Share of the notification requests cancelling instead of posting
+    private static final float CANCEL_RATE = 0.1f;
+
+    // Retry policy of the jobs of JobSchedulerFragment
+    private static final RetryPolicy RETRY_POLICY = new RetryPolicy.Builder()
+            .setBackoffPolicy(RetryPolicy.BACKOFF_POLICY_EXPONENTIAL)
+            .setInitialBackoffMillis(30 * 1000L)
+            .setJitter(0.5f)
+            .setMaxAttempts(5)
+            .build();
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+
+        int seconds = Integer.parseInt(option(options, "seconds", "60"));
+        int jobRate = Integer.parseInt(option(options, "jobRate", "2000"));
+        int notificationRate = Integer.parseInt(option(options, "notificationRate", "2000"));
+        long seed = Long.parseLong(option(options, "seed", "1"));
+
+        StringBuilder report = new StringBuilder();
+        new JobLoad(seed).run(seconds * 1000L, jobRate, report);
+        new NotificationLoad(seed).run(seconds * 1000L, notificationRate, report);
+
+        System.out.print(report);
+        String reportPath = options.get("report");
+        if (reportPath != null) {
+            Writer writer = new FileWriter(reportPath);
+            try {
+                writer.write(report.toString());
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    private static String option(Map<String, String> options, String key, String defaultValue) {
+        String value = options.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Helper method returning the number of requests due by a point in time at a constant rate
+     */
+    private static long dueBy(long nowMillis, int ratePerSecond) {
+        return nowMillis * ratePerSecond / 1000;
+    }
+
+    private static void appendLatency(StringBuilder out, String name, LatencyHistogram histogram, String unit) {
+        out.append("  ").append(name)
+                .append(" p50=").append(histogram.getPercentile(50)).append(unit)
+                .append(" p90=").append(histogram.getPercentile(90)).append(unit)
+                .append(" p99=").append(histogram.getPercentile(99)).append(unit)
+                .append(" max=").append(histogram.getMax()).append(unit)
+                .append('\n');
+    }
+
+    private static void appendThroughput(StringBuilder out, long operations, long durationMillis, long wallNanos) {
+        out.append("  throughput ").append(operations * 1000 / Math.max(1, durationMillis)).append("/s virtual, ")
+                .append(operations * 1000000000L / Math.max(1, wallNanos)).append("/s wall clock")
+                .append('\n');
+    }
+
+    /**
+     * Class definition for the job load, standing in for NotificationJobService as well
+     * Runs take a random virtual time, a few fail, and stopped runs are retried until RETRY_POLICY gives up,
+       as NotificationJobService does.
+     */
+    private static final class JobLoad implements LocalJobScheduler.JobService {
+
+        private final Random mRandom;
+        private final LocalClock mClock = new LocalClock();
+        private final LocalJobScheduler mScheduler = new LocalJobScheduler(mClock, this);
+
+        // Constraint combinations offered by JobSchedulerFragment
+        private final JobSpec[] mSpecs;
+
+        // End of the running jobs by ID, and the same runs ordered by end
+        private final Map<Integer, Run> mRuns = new HashMap<>();
+        private final PriorityQueue<Run> mEnds = new PriorityQueue<>();
+
+        // Attempts of the jobs since their last successful run
+        private final Map<Integer, Integer> mAttempts = new HashMap<>();
+
+        private long mOfferedCount;
+        private long mGivenUpCount;
+
+        JobLoad(long seed) {
+            mRandom = new Random(seed);
+            mSpecs = new JobSpec[]{
+                    new JobSpec.Builder().setOverrideDeadlineSeconds(0).setRetryPolicy(RETRY_POLICY).build(),
+                    new JobSpec.Builder().setRequiredNetworkType(JobSpec.NETWORK_TYPE_ANY)
+                            .setRetryPolicy(RETRY_POLICY).build(),
+                    new JobSpec.Builder().setRequiredNetworkType(JobSpec.NETWORK_TYPE_UNMETERED)
+                            .setOverrideDeadline(5000).setRetryPolicy(RETRY_POLICY).build(),
+                    new JobSpec.Builder().setRequiresCharging(true).setRetryPolicy(RETRY_POLICY).build(),
+                    new JobSpec.Builder().setRequiresDeviceIdle(true).setRequiresCharging(true)
+                            .setRetryPolicy(RETRY_POLICY).build()
+            };
+        }
+
+        void run(long durationMillis, int ratePerSecond, StringBuilder out) {
+            long startNanos = System.nanoTime();
+            for (long now = 0; now <= durationMillis; now += STEP_MILLIS) {
+                if (now % DEVICE_STATE_INTERVAL_MILLIS == 0) {
+                    mScheduler.setDeviceState(mRandom.nextInt(3), mRandom.nextBoolean(), mRandom.nextBoolean());
+                }
+                while (mOfferedCount < dueBy(now, ratePerSecond)) {
+                    mScheduler.schedule(mRandom.nextInt(JOB_ID_COUNT), mSpecs[mRandom.nextInt(mSpecs.length)]);
+                    mOfferedCount++;
+                }
+                finishRunsEndingBy(now);
+                mScheduler.advanceTo(now);
+            }
+            long wallNanos = System.nanoTime() - startNanos;
+
+            out.append("jobs: offered=").append(mOfferedCount)
+                    .append(" accepted=").append(mScheduler.getScheduledCount())
+                    .append(" rejected=").append(mScheduler.getRejectedCount())
+                    .append(" started=").append(mScheduler.getStartedCount())
+                    .append(" finished=").append(mScheduler.getFinishedCount())
+                    .append(" stopped=").append(mScheduler.getStoppedCount())
+                    .append(" rescheduled=").append(mScheduler.getRescheduledCount())
+                    .append(" gaveUp=").append(mGivenUpCount)
+                    .append(" deadlineMisses=").append(mScheduler.getDeadlineMissCount())
+                    .append('\n');
+            appendThroughput(out, mScheduler.getStartedCount(), durationMillis, wallNanos);
+            appendLatency(out, "queueing", mScheduler.getQueueingLatency(), "ms");
+        }
+
+        @Override
+        public boolean onStartJob(int jobId, JobSpec spec) {
+            Run run = new Run(jobId, mClock.now() + 1 + mRandom.nextInt(MAX_RUN_MILLIS),
+                    mRandom.nextFloat() < FAILURE_RATE);
+            mRuns.put(jobId, run);
+            mEnds.add(run);
+            return true;
+        }
+
+        @Override
+        public boolean onStopJob(int jobId) {
+            mRuns.remove(jobId);
+            return retryOrGiveUp(jobId);
+        }
+
+        private void finishRunsEndingBy(long nowMillis) {
+            while (!mEnds.isEmpty() && mEnds.peek().mEndMillis <= nowMillis) {
+                Run run = mEnds.poll();
+                // Runs that were stopped or replaced meanwhile are skipped
+                if (mRuns.get(run.mJobId) != run) {
+                    continue;
+                }
+                mRuns.remove(run.mJobId);
+                if (run.mFails) {
+                    mScheduler.jobFinished(run.mJobId, retryOrGiveUp(run.mJobId));
+                } else {
+                    mAttempts.remove(run.mJobId);
+                    mScheduler.jobFinished(run.mJobId, false);
+                }
+            }
+        }
+
+        private boolean retryOrGiveUp(int jobId) {
+            Integer attempts = mAttempts.get(jobId);
+            int attempt = attempts == null ? 1 : attempts + 1;
+            if (RETRY_POLICY.shouldRetry(attempt)) {
+                mAttempts.put(jobId, attempt);
+                return true;
+            }
+            mAttempts.remove(jobId);
+            mGivenUpCount++;
+            return false;
+        }
+    }
+
+    /**
+     * Class definition for a job run, ordered by its end
+     */
+    private static final class Run implements Comparable<Run> {
+
+        final int mJobId;
+        final long mEndMillis;
+        final boolean mFails;
+
+        Run(int jobId, long endMillis, boolean fails) {
+            mJobId = jobId;
+            mEndMillis = endMillis;
+            mFails = fails;
+        }
+
+        @Override
+        public int compareTo(Run other) {
+            return mEndMillis < other.mEndMillis ? -1 : (mEndMillis == other.mEndMillis ? 0 : 1);
+        }
+    }
+
+    /**
+     * Class definition for the notification load, going through the same steps as NotificationDispatcher.post()
+     * Unchanged content is skipped unless the notification is no longer shown, and changes update the shown
+       notification, so the update rate limit of the platform drops most of a burst.
+     */
+    private static final class NotificationLoad {
+
+        private final Random mRandom;
+        private final LocalClock mClock = new LocalClock();
+        private final LocalNotificationManager mNotificationManager =
+                LocalNotificationManager.withPlatformLimits(mClock);
+        private final NotificationStateStore mStateStore = new NotificationStateStore(NOTIFICATION_KEY_COUNT);
+        private final NotificationIdAllocator mIdAllocator = new NotificationIdAllocator(NOTIFICATION_KEY_COUNT);
+
+        private final String[] mKeys = new String[NOTIFICATION_KEY_COUNT];
+        private final NotificationContent[] mContents;
+
+        // Wall clock time of the post path in microseconds
+        private final LatencyHistogram mPostLatency = new LatencyHistogram();
+
+        private long mOfferedCount;
+        private long mSkippedCount;
+        private long mDroppedCount;
+
+        NotificationLoad(long seed) {
+            mRandom = new Random(seed);
+            for (int i = 0; i < NOTIFICATION_KEY_COUNT; i++) {
+                mKeys[i] = "job_notification_" + i;
+            }
+
+            NotificationContent template = new NotificationContent.Builder("job_notification_channel")
+                    .setContentTitle("Job Service")
+                    .setPriority(NotificationContent.PRIORITY_HIGH)
+                    .setAutoCancel(true)
+                    .build();
+            mContents = new NotificationContent[4];
+            for (int i = 0; i < mContents.length; i++) {
+                mContents[i] = new NotificationContent.Builder(template)
+                        .setContentText("Your Job ran " + (i + 1) + " times")
+                        .build();
+            }
+        }
+
+        void run(long durationMillis, int ratePerSecond, StringBuilder out) {
+            long startNanos = System.nanoTime();
+            for (long now = 0; now <= durationMillis; now += STEP_MILLIS) {
+                mClock.advanceTo(now);
+                while (mOfferedCount < dueBy(now, ratePerSecond)) {
+                    String key = mKeys[mRandom.nextInt(NOTIFICATION_KEY_COUNT)];
+                    if (mRandom.nextFloat() < CANCEL_RATE) {
+                        cancel(key);
+                    } else {
+                        long postStartNanos = System.nanoTime();
+                        post(key, mContents[mRandom.nextInt(mContents.length)]);
+                        mPostLatency.record((System.nanoTime() - postStartNanos) / 1000);
+                    }
+                    mOfferedCount++;
+                }
+            }
+            long wallNanos = System.nanoTime() - startNanos;
+
+            out.append("notifications: offered=").append(mOfferedCount)
+                    .append(" posted=").append(mNotificationManager.getPostCount())
+                    .append(" updated=").append(mNotificationManager.getUpdateCount())
+                    .append(" skipped=").append(mSkippedCount)
+                    .append(" cancelled=").append(mNotificationManager.getCancelCount())
+                    .append(" dropped=").append(mDroppedCount)
+                    .append(" (rateLimited=").append(mNotificationManager.getRateLimitedCount())
+                    .append(" overLimit=").append(mNotificationManager.getOverLimitCount())
+                    .append(")\n");
+            appendThroughput(out, mOfferedCount, durationMillis, wallNanos);
+            appendLatency(out, "post", mPostLatency, "us");
+        }
+
+        private void post(String key, NotificationContent content) {
+            int id = mIdAllocator.idFor(key);
+            if (mStateStore.post(key, content) == NotificationStateStore.RESULT_UNCHANGED
+                    && mNotificationManager.isActive(id)) {
+                mSkippedCount++;
+                return;
+            }
+            if (!mNotificationManager.notify(id, content)) {
+                mDroppedCount++;
+            }
+        }
+
+        private void cancel(String key) {
+            mStateStore.cancel(key);
+            int id = mIdAllocator.peek(key);
+            if (id != -1) {
+                mNotificationManager.cancel(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.rohit.examples.android.aad.benchmark;
+
+/**
+ * Virtual clock shared by the local stand-ins of the system services
+ * Time only moves when the caller advances it, so runs with the same input are reproducible.
+ */
+public class LocalClock {
+
+    private long mNowMillis;
+
+    public long now() {
+        return mNowMillis;
+    }
+
+    /**
+     * Method to move the clock forward, the clock never goes back
+     *
+     * @param nowMillis New time in milliseconds
+     */
+    public void advanceTo(long nowMillis) {
+        if (nowMillis < mNowMillis) {
+            throw new IllegalArgumentException("Time can't go back: " + nowMillis + " < " + mNowMillis);
+        }
+        mNowMillis = nowMillis;
+    }
+}
@@ -0,0 +1,377 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.JobConstraints;
+import com.rohit.examples.android.aad.core.JobSpec;
+import com.rohit.examples.android.aad.core.LatencyHistogram;
+import com.rohit.examples.android.aad.core.RetryPolicy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local stand-in for JobScheduler, running on a LocalClock
+ * Models the parts of JobSchedulerService the app depends on:
+ * - Constraints: a job starts once the device state satisfies its network, idle and charging constraints,
+     or once its override deadline passed
+ * - Limits: an app may have MAX_JOBS_PER_APP jobs scheduled, and at most MAX_JOB_CONTEXTS_COUNT jobs run at once
+ * - Stop signals: a running job is stopped when its constraints are lost or it runs past MAX_EXECUTION_MILLIS,
+     and is rescheduled with its backoff if onStopJob() asks for it
+ * - Periodic jobs: run once per flex window, the next window is counted from the end of the run
+ *
+ * Jobs only start in advanceTo(), so a run driven by the same calls is reproducible.
+ */
+public class LocalJobScheduler {
+
+    /**
+     * Results of {@link #schedule(int, JobSpec)}, as returned by JobScheduler.schedule()
+     */
+    public static final int RESULT_FAILURE = 0;
+    public static final int RESULT_SUCCESS = 1;
+
+    // Number of jobs an app may have scheduled, the platform throws past it, here the job is rejected
+    public static final int MAX_JOBS_PER_APP = 100;
+
+    // Number of jobs running at once, over every app
+    public static final int MAX_JOB_CONTEXTS_COUNT = 16;
+
+    // Time a job may run before it is stopped
+    public static final long MAX_EXECUTION_MILLIS = 10 * 60 * 1000L;
+
+    // Backoff of a job without a retry policy, the JobScheduler default
+    private static final RetryPolicy DEFAULT_RETRY_POLICY = new RetryPolicy.Builder().build();
+
+    // Time of a job without an override deadline
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Callback standing in for the JobService of the app
+     */
+    public interface JobService {
+
+        /**
+         * @return true if the job keeps running until jobFinished() is called, false if it is done
+         */
+        boolean onStartJob(int jobId, JobSpec spec);
+
+        /**
+         * @return true if the job should be rescheduled with its backoff
+         */
+        boolean onStopJob(int jobId);
+    }
+
+    private final LocalClock mClock;
+    private final JobService mService;
+    private final int mMaxJobs;
+    private final int mMaxRunning;
+
+    // Jobs by ID, in the order they became pending
+    private final Map<Integer, Job> mPending = new LinkedHashMap<>();
+    private final Map<Integer, Job> mRunning = new LinkedHashMap<>();
+
+    // Device state the constraints are checked against
+    private int mNetworkType = JobSpec.NETWORK_TYPE_UNMETERED;
+    private boolean mDeviceIdle;
+    private boolean mCharging = true;
+
+    // Time from a job becoming ready to its start, backoff and flex windows excluded
+    private final LatencyHistogram mQueueingLatency = new LatencyHistogram();
+
+    private long mScheduledCount;
+    private long mRejectedCount;
+    private long mStartedCount;
+    private long mFinishedCount;
+    private long mStoppedCount;
+    private long mRescheduledCount;
+    private long mDeadlineMissCount;
+
+    /**
+     * Creates a scheduler with the limits of the platform
+     *
+     * @param clock   Clock the scheduler runs on
+     * @param service Callback receiving the job starts and stops
+     */
+    public LocalJobScheduler(LocalClock clock, JobService service) {
+        this(clock, service, MAX_JOBS_PER_APP, MAX_JOB_CONTEXTS_COUNT);
+    }
+
+    /**
+     * @param clock      Clock the scheduler runs on
+     * @param service    Callback receiving the job starts and stops
+     * @param maxJobs    Number of jobs that may be scheduled, running jobs included
+     * @param maxRunning Number of jobs running at once
+     */
+    public LocalJobScheduler(LocalClock clock, JobService service, int maxJobs, int maxRunning) {
+        mClock = clock;
+        mService = service;
+        mMaxJobs = maxJobs;
+        mMaxRunning = maxRunning;
+    }
+
+    /**
+     * Method to schedule a job, replacing a job with the same ID, a running job is stopped first
+     *
+     * @param jobId ID of the job
+     * @param spec  Constraints of the job
+     * @return RESULT_SUCCESS, or RESULT_FAILURE if the app has too many jobs scheduled
+     * @throws IllegalArgumentException if the spec is invalid
+     */
+    public int schedule(int jobId, JobSpec spec) {
+        JobConstraints.validate(spec);
+
+        boolean isReplacing = mPending.remove(jobId) != null;
+        Job running = mRunning.remove(jobId);
+        if (running != null) {
+            isReplacing = true;
+            mStoppedCount++;
+            mService.onStopJob(jobId);
+        }
+        if (!isReplacing && mPending.size() + mRunning.size() >= mMaxJobs) {
+            mRejectedCount++;
+            return RESULT_FAILURE;
+        }
+
+        long now = mClock.now();
+        Job job = new Job(jobId, spec);
+        if (spec.isPeriodic()) {
+            job.mReadyAtMillis = now + spec.getIntervalMillis() - spec.getFlexMillis();
+        } else {
+            job.mReadyAtMillis = now;
+            if (spec.hasOverrideDeadline()) {
+                job.mDeadlineAtMillis = now + spec.getOverrideDeadlineMillis();
+            }
+        }
+        mPending.put(jobId, job);
+        mScheduledCount++;
+        return RESULT_SUCCESS;
+    }
+
+    /**
+     * Method to cancel a pending or running job, a running job receives onStopJob() and is not rescheduled
+     *
+     * @param jobId ID of the job
+     */
+    public void cancel(int jobId) {
+        if (mPending.remove(jobId) == null && mRunning.remove(jobId) != null) {
+            mStoppedCount++;
+            mService.onStopJob(jobId);
+        }
+    }
+
+    /**
+     * Method to signal the end of a running job, calls for jobs that are not running are ignored
+     *
+     * @param jobId           ID of the job
+     * @param needsReschedule true to retry the job with its backoff
+     */
+    public void jobFinished(int jobId, boolean needsReschedule) {
+        Job job = mRunning.remove(jobId);
+        if (job == null) {
+            return;
+        }
+        if (needsReschedule) {
+            reschedule(job);
+        } else {
+            mFinishedCount++;
+            nextPeriod(job);
+        }
+    }
+
+    /**
+     * Method to change the device state, running jobs whose constraints are no longer met are stopped
+     *
+     * @param networkType One of the JobSpec.NETWORK_TYPE_* constants, NETWORK_TYPE_NONE when offline
+     * @param deviceIdle  true if the device is idle
+     * @param charging    true if the device is charging
+     */
+    public void setDeviceState(int networkType, boolean deviceIdle, boolean charging) {
+        mNetworkType = networkType;
+        mDeviceIdle = deviceIdle;
+        mCharging = charging;
+
+        for (Job job : new ArrayList<>(mRunning.values())) {
+            if (!job.mStartedByDeadline && !isSatisfied(job.mSpec)) {
+                stop(job);
+            }
+        }
+    }
+
+    /**
+     * Method to move the clock forward, stopping the jobs running too long and starting the ready jobs
+     * Ready jobs start in the order they became pending, as long as fewer than maxRunning jobs run.
+     *
+     * @param nowMillis New time in milliseconds
+     */
+    public void advanceTo(long nowMillis) {
+        mClock.advanceTo(nowMillis);
+
+        if (!mRunning.isEmpty()) {
+            for (Job job : new ArrayList<>(mRunning.values())) {
+                if (nowMillis - job.mStartedAtMillis >= MAX_EXECUTION_MILLIS) {
+                    stop(job);
+                }
+            }
+        }
+
+        if (mRunning.size() >= mMaxRunning || mPending.isEmpty()) {
+            return;
+        }
+        List<Job> ready = new ArrayList<>();
+        for (Job job : mPending.values()) {
+            if (mRunning.size() + ready.size() >= mMaxRunning) {
+                break;
+            }
+            if (nowMillis >= job.mReadyAtMillis
+                    && (nowMillis >= job.mDeadlineAtMillis || isSatisfied(job.mSpec))) {
+                ready.add(job);
+            }
+        }
+        for (Job job : ready) {
+            start(job, nowMillis);
+        }
+    }
+
+    public int getPendingCount() {
+        return mPending.size();
+    }
+
+    public int getRunningCount() {
+        return mRunning.size();
+    }
+
+    public long getScheduledCount() {
+        return mScheduledCount;
+    }
+
+    /**
+     * @return number of jobs rejected because the app had too many jobs scheduled
+     */
+    public long getRejectedCount() {
+        return mRejectedCount;
+    }
+
+    public long getStartedCount() {
+        return mStartedCount;
+    }
+
+    /**
+     * @return number of runs that ended without asking for a reschedule
+     */
+    public long getFinishedCount() {
+        return mFinishedCount;
+    }
+
+    /**
+     * @return number of runs stopped by a lost constraint, the execution limit, a cancel or a replacing job
+     */
+    public long getStoppedCount() {
+        return mStoppedCount;
+    }
+
+    /**
+     * @return number of jobs rescheduled with their backoff
+     */
+    public long getRescheduledCount() {
+        return mRescheduledCount;
+    }
+
+    /**
+     * @return number of jobs started after their override deadline, because every job slot was taken
+     */
+    public long getDeadlineMissCount() {
+        return mDeadlineMissCount;
+    }
+
+    public LatencyHistogram getQueueingLatency() {
+        return mQueueingLatency;
+    }
+
+    private void start(Job job, long nowMillis) {
+        mPending.remove(job.mId);
+        mRunning.put(job.mId, job);
+
+        job.mStartedAtMillis = nowMillis;
+        job.mStartedByDeadline = nowMillis >= job.mDeadlineAtMillis && !isSatisfied(job.mSpec);
+        if (job.mDeadlineAtMillis != NO_DEADLINE && nowMillis > job.mDeadlineAtMillis) {
+            mDeadlineMissCount++;
+        }
+        mQueueingLatency.record(nowMillis - job.mReadyAtMillis);
+        mStartedCount++;
+
+        if (!mService.onStartJob(job.mId, job.mSpec)) {
+            jobFinished(job.mId, false);
+        }
+    }
+
+    private void stop(Job job) {
+        mRunning.remove(job.mId);
+        mStoppedCount++;
+        if (mService.onStopJob(job.mId)) {
+            reschedule(job);
+        } else {
+            nextPeriod(job);
+        }
+    }
+
+    /**
+     * Helper method putting a job back with its backoff, as the platform does the override deadline is dropped
+     */
+    private void reschedule(Job job) {
+        RetryPolicy policy = job.mSpec.getRetryPolicy() != null ? job.mSpec.getRetryPolicy() : DEFAULT_RETRY_POLICY;
+        job.mAttempts++;
+        job.mReadyAtMillis = mClock.now() + policy.getBackoffMillis(job.mId, job.mAttempts);
+        job.mDeadlineAtMillis = NO_DEADLINE;
+        mPending.put(job.mId, job);
+        mRescheduledCount++;
+    }
+
+    /**
+     * Helper method putting a periodic job back for its next flex window
+     */
+    private void nextPeriod(Job job) {
+        if (!job.mSpec.isPeriodic()) {
+            return;
+        }
+        job.mAttempts = 0;
+        job.mReadyAtMillis = mClock.now() + job.mSpec.getIntervalMillis() - job.mSpec.getFlexMillis();
+        mPending.put(job.mId, job);
+    }
+
+    private boolean isSatisfied(JobSpec spec) {
+        switch (spec.getNetworkType()) {
+            case JobSpec.NETWORK_TYPE_ANY:
+                if (mNetworkType == JobSpec.NETWORK_TYPE_NONE) {
+                    return false;
+                }
+                break;
+
+            case JobSpec.NETWORK_TYPE_UNMETERED:
+                if (mNetworkType != JobSpec.NETWORK_TYPE_UNMETERED) {
+                    return false;
+                }
+                break;
+        }
+        return (!spec.isRequireDeviceIdle() || mDeviceIdle) && (!spec.isRequireCharging() || mCharging);
+    }
+
+    /**
+     * Class definition for a scheduled job and its timing
+     */
+    private static final class Job {
+
+        final int mId;
+        final JobSpec mSpec;
+
+        long mReadyAtMillis;
+        long mDeadlineAtMillis = NO_DEADLINE;
+        long mStartedAtMillis;
+        boolean mStartedByDeadline;
+        int mAttempts;
+
+        Job(int id, JobSpec spec) {
+            mId = id;
+            mSpec = spec;
+        }
+    }
+}
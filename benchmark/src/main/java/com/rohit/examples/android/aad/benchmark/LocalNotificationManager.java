@@ -0,0 +1,157 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local stand-in for NotificationManager
+ * Keeps the posted content by notification ID in memory instead of sending it over binder.
+ * Optionally applies the limits of NotificationManagerService: the number of notifications an app may show,
+   and the rate at which it may update them. Posts over a limit are dropped, as the platform drops them silently.
+ */
+public class LocalNotificationManager {
+
+    // Number of notifications an app may show at once, MAX_PACKAGE_NOTIFICATIONS of the platform
+    public static final int MAX_PACKAGE_NOTIFICATIONS = 50;
+
+    // Updates an app may post per second, MAX_PACKAGE_ENQUEUE_RATE of the platform
+    public static final float MAX_PACKAGE_ENQUEUE_RATE = 5f;
+
+    // Value of the limits disabling them
+    public static final int NO_LIMIT = 0;
+
+    private final Map<Integer, NotificationContent> mPosted = new HashMap<>();
+
+    private final LocalClock mClock;
+    private final int mMaxActive;
+    private final float mMaxUpdatesPerSecond;
+
+    /*
+     * Token bucket approximating the platform's enqueue rate estimate, holding at most one second of updates
+     */
+    private double mUpdateTokens;
+    private long mRefilledAtMillis;
+
+    private long mPostCount;
+    private long mUpdateCount;
+    private long mCancelCount;
+    private long mRateLimitedCount;
+    private long mOverLimitCount;
+
+    /**
+     * Creates a notification manager without limits, e.g. to measure the cost of posting alone
+     */
+    public LocalNotificationManager() {
+        this(new LocalClock(), NO_LIMIT, NO_LIMIT);
+    }
+
+    /**
+     * @param clock               Clock the update rate is measured with
+     * @param maxActive           Number of notifications shown at once, or NO_LIMIT
+     * @param maxUpdatesPerSecond Updates of shown notifications allowed per second, or NO_LIMIT
+     */
+    public LocalNotificationManager(LocalClock clock, int maxActive, float maxUpdatesPerSecond) {
+        mClock = clock;
+        mMaxActive = maxActive;
+        mMaxUpdatesPerSecond = maxUpdatesPerSecond;
+        mUpdateTokens = maxUpdatesPerSecond;
+        mRefilledAtMillis = clock.now();
+    }
+
+    /**
+     * Creates a notification manager with the limits of the platform
+     *
+     * @param clock Clock the update rate is measured with
+     * @return LocalNotificationManager instance
+     */
+    public static LocalNotificationManager withPlatformLimits(LocalClock clock) {
+        return new LocalNotificationManager(clock, MAX_PACKAGE_NOTIFICATIONS, MAX_PACKAGE_ENQUEUE_RATE);
+    }
+
+    /**
+     * Method to post or update a notification
+     *
+     * @param id      ID of the notification
+     * @param content Content to be shown
+     * @return true if the notification is shown, false if the post was dropped by a limit
+     */
+    public boolean notify(int id, NotificationContent content) {
+        boolean isUpdate = mPosted.containsKey(id);
+        if (isUpdate) {
+            if (!tryAcquireUpdate()) {
+                mRateLimitedCount++;
+                return false;
+            }
+            mUpdateCount++;
+        } else if (mMaxActive != NO_LIMIT && mPosted.size() >= mMaxActive) {
+            mOverLimitCount++;
+            return false;
+        }
+
+        mPosted.put(id, content);
+        mPostCount++;
+        return true;
+    }
+
+    public void cancel(int id) {
+        if (mPosted.remove(id) != null) {
+            mCancelCount++;
+        }
+    }
+
+    public boolean isActive(int id) {
+        return mPosted.containsKey(id);
+    }
+
+    public int getActiveCount() {
+        return mPosted.size();
+    }
+
+    /**
+     * @return number of posts shown, updates included
+     */
+    public long getPostCount() {
+        return mPostCount;
+    }
+
+    public long getUpdateCount() {
+        return mUpdateCount;
+    }
+
+    public long getCancelCount() {
+        return mCancelCount;
+    }
+
+    /**
+     * @return number of updates dropped because the app posted faster than the allowed rate
+     */
+    public long getRateLimitedCount() {
+        return mRateLimitedCount;
+    }
+
+    /**
+     * @return number of new notifications dropped because the app showed too many already
+     */
+    public long getOverLimitCount() {
+        return mOverLimitCount;
+    }
+
+    private boolean tryAcquireUpdate() {
+        if (mMaxUpdatesPerSecond == NO_LIMIT) {
+            return true;
+        }
+
+        long now = mClock.now();
+        mUpdateTokens = Math.min(mMaxUpdatesPerSecond,
+                mUpdateTokens + (now - mRefilledAtMillis) * mMaxUpdatesPerSecond / 1000d);
+        mRefilledAtMillis = now;
+
+        if (mUpdateTokens < 1) {
+            return false;
+        }
+        mUpdateTokens--;
+        return true;
+    }
+}
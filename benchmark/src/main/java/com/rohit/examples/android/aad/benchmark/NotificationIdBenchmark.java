@@ -0,0 +1,66 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+import com.rohit.examples.android.aad.core.NotificationIdAllocator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for notification ID allocation, with keys hitting and missing the allocator's LRU
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationIdBenchmark {
+
+    // Number of remembered keys, as configured in NotificationDispatcher
+    private static final int MAX_KEYS = 1024;
+
+    // Number of distinct keys posted, above MAX_KEYS every lookup evicts the eldest key
+    @Param({"64", "4096"})
+    public int keyCount;
+
+    private String[] mKeys;
+    private NotificationIdAllocator mAllocator;
+    private LocalNotificationManager mNotificationManager;
+    private NotificationContent mContent;
+    private int mCounter;
+
+    @Setup
+    public void setUp() {
+        mKeys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            mKeys[i] = "job_notification_" + i;
+        }
+        mAllocator = new NotificationIdAllocator(MAX_KEYS);
+        mNotificationManager = new LocalNotificationManager();
+        mContent = new NotificationContent.Builder("job_notification_channel").build();
+    }
+
+    @Benchmark
+    public int allocate() {
+        return mAllocator.idFor(mKeys[mCounter++ % keyCount]);
+    }
+
+    @Benchmark
+    public int allocateAndPost() {
+        int id = mAllocator.idFor(mKeys[mCounter++ % keyCount]);
+        mNotificationManager.notify(id, mContent);
+        return id;
+    }
+}
@@ -0,0 +1,68 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.NotificationContent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for cloning a notification template and changing its variable fields, as done on every post
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private NotificationContent mTemplate;
+    private String mContentText;
+
+    @Setup
+    public void setUp() {
+        mTemplate = new NotificationContent.Builder("primary_notification_channel")
+                .setContentTitle("You've been notified!")
+                .setContentText("This is your notification text.")
+                .setSmallIcon(1)
+                .setPriority(NotificationContent.PRIORITY_HIGH)
+                .setDefaults(NotificationContent.DEFAULT_ALL)
+                .setAutoCancel(true)
+                .build();
+        mContentText = "Your Job ran to completion!";
+    }
+
+    @Benchmark
+    public NotificationContent cloneTemplate() {
+        return new NotificationContent.Builder(mTemplate).build();
+    }
+
+    @Benchmark
+    public NotificationContent cloneAndUpdate() {
+        return new NotificationContent.Builder(mTemplate)
+                .setContentText(mContentText)
+                .build();
+    }
+
+    @Benchmark
+    public NotificationContent buildFromScratch() {
+        return new NotificationContent.Builder("primary_notification_channel")
+                .setContentTitle("You've been notified!")
+                .setContentText(mContentText)
+                .setSmallIcon(1)
+                .setPriority(NotificationContent.PRIORITY_HIGH)
+                .setDefaults(NotificationContent.DEFAULT_ALL)
+                .setAutoCancel(true)
+                .build();
+    }
+}
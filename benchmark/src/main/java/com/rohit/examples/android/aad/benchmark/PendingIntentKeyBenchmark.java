@@ -0,0 +1,59 @@
+package com.rohit.examples.android.aad.benchmark;
+
+import com.rohit.examples.android.aad.core.PendingIntentKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for PendingIntent pool lookups, a key is created and hashed on every notification post
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingIntentKeyBenchmark {
+
+    private static final String ACTION = "com.rohit.examples.android.aad.ACTION_UPDATE_NOTIFICATION";
+    private static final String COMPONENT = "com.rohit.examples.android.aad.MainActivity";
+
+    // Stand-in for the pool, values take the place of the PendingIntents
+    private final Map<PendingIntentKey, Object> mPool = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        for (int requestCode = 0; requestCode < 16; requestCode++) {
+            mPool.put(new PendingIntentKey(PendingIntentKey.TYPE_BROADCAST, ACTION, null, requestCode), new Object());
+            mPool.put(new PendingIntentKey(PendingIntentKey.TYPE_ACTIVITY, null, COMPONENT, requestCode), new Object());
+        }
+    }
+
+    @Benchmark
+    public int hashKey() {
+        return new PendingIntentKey(PendingIntentKey.TYPE_BROADCAST, ACTION, null, 0).hashCode();
+    }
+
+    @Benchmark
+    public Object lookupBroadcast() {
+        return mPool.get(new PendingIntentKey(PendingIntentKey.TYPE_BROADCAST, ACTION, null, 0));
+    }
+
+    @Benchmark
+    public Object lookupActivity() {
+        return mPool.get(new PendingIntentKey(PendingIntentKey.TYPE_ACTIVITY, null, COMPONENT, 0));
+    }
+}
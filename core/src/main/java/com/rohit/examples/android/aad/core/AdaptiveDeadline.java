@@ -0,0 +1,115 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for override deadlines learned from how long jobs wait for their constraints
+ * For every combination of network type, idle and charging requirements it keeps the waits of recent
+   jobs, scheduling to start, and proposes the wait at a target percentile as the deadline. Most jobs then
+   run on their constraints and only the slowest ones are forced to run, never later than the freshness SLO.
+ *
+ * A job run by its deadline only tells that its constraints took at least that long, its wait is cut at the
+   deadline. The proposed deadline is the percentile times HEADROOM, so when more jobs than expected are
+   forced the deadline grows until most of them run on their constraints again.
+ * Waits are kept in two generations of WINDOW_SAMPLES jobs each, older jobs are forgotten.
+ */
+public class AdaptiveDeadline {
+
+    // Number of waits needed before the deadline is learned, below it the freshness SLO is used
+    public static final int MIN_SAMPLES = 20;
+
+    // Number of waits of a generation
+    static final int WINDOW_SAMPLES = 256;
+
+    // Factor applied to the wait at the target percentile
+    static final double HEADROOM = 1.5;
+
+    // Shortest deadline proposed, so jobs are not forced by noise in very short waits
+    public static final long MIN_DEADLINE_MILLIS = 10 * 1000L;
+
+    // Constraint bits the waits are kept by, the deadline and periodic flags are left out
+    private static final int CONSTRAINT_MASK = JobConstraints.NETWORK_MASK | JobConstraints.FLAG_IDLE
+            | JobConstraints.FLAG_CHARGING;
+
+    private final double mTargetPercentile;
+    private final long mFreshnessSloMillis;
+
+    private final LatencyHistogram[] mCurrent = new LatencyHistogram[CONSTRAINT_MASK + 1];
+    private final LatencyHistogram[] mPrevious = new LatencyHistogram[CONSTRAINT_MASK + 1];
+
+    /**
+     * @param targetPercentile   Share of jobs, between 0 and 100, that should run on their constraints
+     * @param freshnessSloMillis Longest time a job may wait, every proposed deadline is at most this
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public AdaptiveDeadline(double targetPercentile, long freshnessSloMillis) {
+        if (!(targetPercentile > 0 && targetPercentile <= 100)) {
+            throw new IllegalArgumentException("Target percentile out of range: " + targetPercentile);
+        }
+        if (freshnessSloMillis < MIN_DEADLINE_MILLIS) {
+            throw new IllegalArgumentException("Freshness SLO too short: " + freshnessSloMillis);
+        }
+        mTargetPercentile = targetPercentile;
+        mFreshnessSloMillis = freshnessSloMillis;
+    }
+
+    /**
+     * Method to record how long a one-shot job waited before it started
+     * Periodic jobs and unknown constraint keys are not recorded.
+     *
+     * @param constraintKey Constraint key of the job, with or without the deadline flag
+     * @param waitMillis    Time between scheduling and start
+     */
+    public synchronized void recordWait(int constraintKey, long waitMillis) {
+        if (constraintKey < 0 || constraintKey >= JobConstraints.KEY_COUNT
+                || (constraintKey & JobConstraints.FLAG_PERIODIC) != 0) {
+            return;
+        }
+        int key = constraintKey & CONSTRAINT_MASK;
+        if (mCurrent[key] == null) {
+            mCurrent[key] = new LatencyHistogram();
+        }
+        mCurrent[key].record(waitMillis);
+
+        if (mCurrent[key].getCount() >= WINDOW_SAMPLES) {
+            mPrevious[key] = mCurrent[key];
+            mCurrent[key] = null;
+        }
+    }
+
+    /**
+     * Method to propose the override deadline of a job
+     *
+     * @param constraintKey Constraint key of the job, with or without the deadline flag
+     * @return deadline between MIN_DEADLINE_MILLIS and the freshness SLO, the SLO if too few waits are known
+     */
+    public synchronized long getDeadlineMillis(int constraintKey) {
+        LatencyHistogram waits = learnedWaits(constraintKey & CONSTRAINT_MASK);
+        if (waits == null) {
+            return mFreshnessSloMillis;
+        }
+        long deadline = (long) (waits.getPercentile(mTargetPercentile) * HEADROOM);
+        return Math.max(MIN_DEADLINE_MILLIS, Math.min(mFreshnessSloMillis, deadline));
+    }
+
+    /**
+     * @param constraintKey Constraint key, with or without the deadline flag
+     * @return number of waits the deadline of the key is learned from, 0 while the SLO is used
+     */
+    public synchronized long getSampleCount(int constraintKey) {
+        LatencyHistogram waits = learnedWaits(constraintKey & CONSTRAINT_MASK);
+        return waits == null ? 0 : waits.getCount();
+    }
+
+    public long getFreshnessSloMillis() {
+        return mFreshnessSloMillis;
+    }
+
+    /**
+     * Helper method returning the current generation once it holds enough waits, the previous one before
+     */
+    private LatencyHistogram learnedWaits(int key) {
+        if (mCurrent[key] != null && mCurrent[key].getCount() >= MIN_SAMPLES) {
+            return mCurrent[key];
+        }
+        return mPrevious[key];
+    }
+}
@@ -0,0 +1,132 @@
+package com.rohit.examples.android.aad.core;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class definition for a lightweight in-process event bus
+ * Subscribers are held through weak references, a subscriber that is no longer reachable is dropped
+   on the next post instead of being kept alive by the bus.
+ * Events are delivered synchronously on the posting thread, outside of the bus lock.
+ */
+public class EventBus {
+
+    private final Map<String, List<WeakReference<Subscriber>>> mSubscribers = new HashMap<>();
+
+    /**
+     * Method to subscribe to a topic
+     * The bus only holds a weak reference, the caller must keep the subscriber reachable.
+     *
+     * @param topic      Topic of the events, e.g. an intent action
+     * @param subscriber Subscriber to be called for every event posted on the topic
+     * @return Subscription used to unsubscribe
+     */
+    public synchronized Subscription subscribe(String topic, Subscriber subscriber) {
+        List<WeakReference<Subscriber>> subscribers = mSubscribers.get(topic);
+        if (subscribers == null) {
+            subscribers = new ArrayList<>();
+            mSubscribers.put(topic, subscribers);
+        }
+        WeakReference<Subscriber> reference = new WeakReference<>(subscriber);
+        subscribers.add(reference);
+        return new Subscription(topic, reference);
+    }
+
+    /**
+     * Method to post an event to the live subscribers of a topic
+     *
+     * @param topic   Topic of the event
+     * @param payload Event specific value, may be null
+     * @return number of subscribers the event was delivered to, 0 if nobody is listening
+     */
+    public int post(String topic, Object payload) {
+        List<Subscriber> live = new ArrayList<>();
+        synchronized (this) {
+            List<WeakReference<Subscriber>> subscribers = mSubscribers.get(topic);
+            if (subscribers == null) {
+                return 0;
+            }
+            for (Iterator<WeakReference<Subscriber>> iterator = subscribers.iterator(); iterator.hasNext(); ) {
+                Subscriber subscriber = iterator.next().get();
+                if (subscriber == null) {
+                    iterator.remove();
+                } else {
+                    live.add(subscriber);
+                }
+            }
+            if (subscribers.isEmpty()) {
+                mSubscribers.remove(topic);
+            }
+        }
+
+        for (Subscriber subscriber : live) {
+            subscriber.onEvent(topic, payload);
+        }
+        return live.size();
+    }
+
+    /**
+     * @param topic Topic of the events
+     * @return number of subscribers of the topic that are still reachable
+     */
+    public synchronized int getSubscriberCount(String topic) {
+        List<WeakReference<Subscriber>> subscribers = mSubscribers.get(topic);
+        if (subscribers == null) {
+            return 0;
+        }
+        int count = 0;
+        for (WeakReference<Subscriber> reference : subscribers) {
+            if (reference.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private synchronized void unsubscribe(String topic, WeakReference<Subscriber> reference) {
+        List<WeakReference<Subscriber>> subscribers = mSubscribers.get(topic);
+        if (subscribers != null) {
+            subscribers.remove(reference);
+            if (subscribers.isEmpty()) {
+                mSubscribers.remove(topic);
+            }
+        }
+    }
+
+    /**
+     * Callback for the events posted on a topic
+     */
+    public interface Subscriber {
+
+        /**
+         * @param topic   Topic the event was posted on
+         * @param payload Event specific value, may be null
+         */
+        void onEvent(String topic, Object payload);
+    }
+
+    /**
+     * Handle of a single subscription
+     */
+    public final class Subscription {
+
+        private final String mTopic;
+        private final WeakReference<Subscriber> mReference;
+
+        private Subscription(String topic, WeakReference<Subscriber> reference) {
+            mTopic = topic;
+            mReference = reference;
+        }
+
+        /**
+         * Method to stop the delivery of events, calling it more than once has no effect
+         */
+        public void unsubscribe() {
+            EventBus.this.unsubscribe(mTopic, mReference);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Class definition for pipeline checkpoints kept as one small file per job in a directory
+ * A checkpoint is written to a temporary file and renamed over the previous one, so a process killed
+   while saving leaves the previous checkpoint intact.
+ *
+ * File layout: pipeline name (UTF), completed steps (4), has output (1), output (UTF)
+ */
+public class FileCheckpointStore implements JobPipeline.CheckpointStore {
+
+    // Suffixes of the checkpoint files and of the file being written
+    private static final String SUFFIX = ".ckpt";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File mDirectory;
+
+    /**
+     * @param directory Directory the checkpoints are kept in, created on first save
+     */
+    public FileCheckpointStore(File directory) {
+        mDirectory = directory;
+    }
+
+    @Override
+    public synchronized JobPipeline.Checkpoint load(int jobId) throws IOException {
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new FileInputStream(fileOf(jobId)));
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        try {
+            String pipelineName = in.readUTF();
+            int completedSteps = in.readInt();
+            String output = in.readBoolean() ? in.readUTF() : null;
+            return new JobPipeline.Checkpoint(pipelineName, completedSteps, output);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public synchronized void save(int jobId, JobPipeline.Checkpoint checkpoint) throws IOException {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Can't create " + mDirectory);
+        }
+
+        File tempFile = new File(mDirectory, jobId + TEMP_SUFFIX);
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        DataOutputStream out = new DataOutputStream(fileOut);
+        try {
+            out.writeUTF(checkpoint.getPipelineName());
+            out.writeInt(checkpoint.getCompletedSteps());
+            out.writeBoolean(checkpoint.getOutput() != null);
+            if (checkpoint.getOutput() != null) {
+                out.writeUTF(checkpoint.getOutput());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } finally {
+            out.close();
+        }
+
+        if (!tempFile.renameTo(fileOf(jobId))) {
+            throw new IOException("Can't rename " + tempFile);
+        }
+    }
+
+    @Override
+    public synchronized void clear(int jobId) {
+        File file = fileOf(jobId);
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private File fileOf(int jobId) {
+        return new File(mDirectory, jobId + SUFFIX);
+    }
+}
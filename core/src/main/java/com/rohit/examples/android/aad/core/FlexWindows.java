@@ -0,0 +1,50 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for lining up the flex windows of periodic jobs
+ * A periodic job runs once in the flex window at the end of each interval, counted from the time it was scheduled.
+   Two jobs with the same interval and constraints scheduled at different times get windows that never overlap,
+   so the device wakes up once per job. Widening the flex window of the later job until it reaches the window
+   of the earlier one lets JobScheduler run both in the same wakeup.
+ */
+public final class FlexWindows {
+
+    /**
+     * Bounds enforced by JobScheduler, values match JobInfo.getMinPeriodMillis()
+       and JobInfo.getMinFlexMillis()
+     */
+    public static final long MIN_INTERVAL_MILLIS = 15 * 60 * 1000L;
+    public static final long MIN_FLEX_MILLIS = 5 * 60 * 1000L;
+
+    private FlexWindows() {
+    }
+
+    /**
+     * Method to compute the flex window of a new periodic job so it overlaps the windows of an anchor job
+     * The anchor is a live periodic job with the same interval and constraints, its windows end every
+       interval after the time it was scheduled.
+     *
+     * @param intervalMillis    Interval of both jobs
+     * @param flexMillis        Requested flex window of the new job
+     * @param anchorScheduledAt Time the anchor job was scheduled at
+     * @param anchorFlexMillis  Flex window of the anchor job
+     * @param nowMillis         Time the new job is scheduled at, on the same clock as anchorScheduledAt
+     * @return flex window, never below the requested one and never above the interval
+     */
+    public static long alignedFlex(long intervalMillis, long flexMillis, long anchorScheduledAt,
+                                   long anchorFlexMillis, long nowMillis) {
+        long windowEnd = nowMillis + intervalMillis;
+        if (windowEnd < anchorScheduledAt) {
+            return flexMillis;
+        }
+
+        // Distance from the end of the anchor window closing last before the end of the new window
+        long sinceAnchorEnd = (windowEnd - anchorScheduledAt) % intervalMillis;
+
+        // The end of the new window already falls into the next anchor window
+        if (sinceAnchorEnd >= intervalMillis - anchorFlexMillis) {
+            return flexMillis;
+        }
+        return Math.min(intervalMillis, Math.max(flexMillis, sinceAnchorEnd));
+    }
+}
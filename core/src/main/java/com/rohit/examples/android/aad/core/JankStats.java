@@ -0,0 +1,202 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class definition for the main thread jank statistics of the app, kept per screen
+ * For every screen it tracks the frame intervals, the frames over budget and the number of frames
+   they dropped, and the main thread messages that ran too long. Slow messages are also grouped by
+   call site, the stack of the code that was running, so the report names the code paths causing jank.
+ * At most MAX_CALL_SITES call sites are kept, slow messages of further call sites are only counted.
+ */
+public class JankStats {
+
+    // Number of call sites kept
+    public static final int MAX_CALL_SITES = 32;
+
+    // Percentiles of the frame intervals written by writeTo()
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final Map<String, Screen> mScreens = new LinkedHashMap<>();
+    private final Map<String, CallSite> mCallSites = new HashMap<>();
+
+    // Slow messages whose call site is unknown or wasn't kept
+    private long mUntrackedSlowMessages;
+
+    /**
+     * Method to record the interval between two frames
+     * A frame is over budget once it took the time of more than one frame, every further
+       budget it spans is a dropped frame. Intervals are rounded to the budget to absorb vsync jitter.
+     *
+     * @param screen            Name of the visible screen
+     * @param frameNanos        Time between the start of the previous frame and this one
+     * @param frameBudgetNanos  Time of one frame at the refresh rate of the display
+     */
+    public synchronized void recordFrame(String screen, long frameNanos, long frameBudgetNanos) {
+        Screen stats = screen(screen);
+        int frames = (int) ((frameNanos + frameBudgetNanos / 2) / frameBudgetNanos);
+        stats.mFrames++;
+        stats.mFrameMillis.record(frameNanos / 1000000);
+        if (frames > 1) {
+            stats.mJankyFrames++;
+            stats.mDroppedFrames += frames - 1;
+        }
+    }
+
+    /**
+     * Method to record a main thread message that ran over its budget
+     *
+     * @param screen         Name of the visible screen
+     * @param durationMillis Run time of the message
+     * @param callSite       Stack of the code running while the message was over budget, or null if unknown
+     */
+    public synchronized void recordSlowMessage(String screen, long durationMillis, String callSite) {
+        screen(screen).mSlowMessages++;
+        if (callSite == null) {
+            mUntrackedSlowMessages++;
+            return;
+        }
+
+        CallSite site = mCallSites.get(callSite);
+        if (site == null) {
+            if (mCallSites.size() >= MAX_CALL_SITES) {
+                mUntrackedSlowMessages++;
+                return;
+            }
+            site = new CallSite(callSite, screen);
+            mCallSites.put(callSite, site);
+        }
+        site.mCount++;
+        site.mTotalMillis += durationMillis;
+        site.mMaxMillis = Math.max(site.mMaxMillis, durationMillis);
+    }
+
+    public synchronized long getFrameCount(String screen) {
+        Screen stats = mScreens.get(screen);
+        return stats == null ? 0 : stats.mFrames;
+    }
+
+    public synchronized long getJankyFrameCount(String screen) {
+        Screen stats = mScreens.get(screen);
+        return stats == null ? 0 : stats.mJankyFrames;
+    }
+
+    public synchronized long getDroppedFrameCount(String screen) {
+        Screen stats = mScreens.get(screen);
+        return stats == null ? 0 : stats.mDroppedFrames;
+    }
+
+    public synchronized long getSlowMessageCount(String screen) {
+        Screen stats = mScreens.get(screen);
+        return stats == null ? 0 : stats.mSlowMessages;
+    }
+
+    /**
+     * @param callSite Stack passed to recordSlowMessage()
+     * @return number of slow messages recorded for the call site, 0 if it isn't kept
+     */
+    public synchronized long getCallSiteCount(String callSite) {
+        CallSite site = mCallSites.get(callSite);
+        return site == null ? 0 : site.mCount;
+    }
+
+    public synchronized long getUntrackedSlowMessages() {
+        return mUntrackedSlowMessages;
+    }
+
+    public synchronized void reset() {
+        mScreens.clear();
+        mCallSites.clear();
+        mUntrackedSlowMessages = 0;
+    }
+
+    /**
+     * Method to write a human readable report, one line per screen followed by the call sites,
+       the one costing the most main thread time first
+     *
+     * @param out Destination of the report
+     * @throws IOException if writing to out fails
+     */
+    public synchronized void writeTo(Appendable out) throws IOException {
+        for (Map.Entry<String, Screen> entry : mScreens.entrySet()) {
+            Screen stats = entry.getValue();
+            out.append(entry.getKey())
+                    .append(": frames=").append(String.valueOf(stats.mFrames))
+                    .append(" janky=").append(String.valueOf(stats.mJankyFrames))
+                    .append(" dropped=").append(String.valueOf(stats.mDroppedFrames))
+                    .append(" slow messages=").append(String.valueOf(stats.mSlowMessages));
+            if (stats.mFrameMillis.getCount() > 0) {
+                out.append(" frame");
+                for (double percentile : PERCENTILES) {
+                    out.append(" p").append(String.valueOf((int) percentile)).append('=')
+                            .append(String.valueOf(stats.mFrameMillis.getPercentile(percentile)));
+                }
+                out.append(" max=").append(String.valueOf(stats.mFrameMillis.getMax())).append(" ms");
+            }
+            out.append('\n');
+        }
+
+        List<CallSite> sites = new ArrayList<>(mCallSites.values());
+        Collections.sort(sites, new Comparator<CallSite>() {
+            @Override
+            public int compare(CallSite first, CallSite second) {
+                return first.mTotalMillis < second.mTotalMillis ? 1
+                        : first.mTotalMillis > second.mTotalMillis ? -1 : 0;
+            }
+        });
+        for (CallSite site : sites) {
+            out.append("slow call site on ").append(site.mScreen)
+                    .append(": count=").append(String.valueOf(site.mCount))
+                    .append(" total=").append(String.valueOf(site.mTotalMillis))
+                    .append(" max=").append(String.valueOf(site.mMaxMillis)).append(" ms\n")
+                    .append(site.mStack).append('\n');
+        }
+        if (mUntrackedSlowMessages > 0) {
+            out.append("slow messages without call site: ").append(String.valueOf(mUntrackedSlowMessages))
+                    .append('\n');
+        }
+    }
+
+    private Screen screen(String name) {
+        Screen stats = mScreens.get(name);
+        if (stats == null) {
+            stats = new Screen();
+            mScreens.put(name, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Frame and message counters of one screen
+     */
+    private static class Screen {
+        private final LatencyHistogram mFrameMillis = new LatencyHistogram();
+        private long mFrames;
+        private long mJankyFrames;
+        private long mDroppedFrames;
+        private long mSlowMessages;
+    }
+
+    /**
+     * Slow messages sharing the same stack, attributed to the screen they were first seen on
+     */
+    private static class CallSite {
+        private final String mStack;
+        private final String mScreen;
+        private long mCount;
+        private long mTotalMillis;
+        private long mMaxMillis;
+
+        CallSite(String stack, String screen) {
+            mStack = stack;
+            mScreen = screen;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for the scheduling policy applied to job specs
+ * Computes constraint keys and decides whether a job spec carries enough constraints to be scheduled.
+ */
+public final class JobConstraints {
+
+    // Bit flags used to build the constraint key of a job, network type takes the two lowest bits
+    public static final int NETWORK_MASK = 0x3;
+    public static final int FLAG_IDLE = 1 << 2;
+    public static final int FLAG_CHARGING = 1 << 3;
+    public static final int FLAG_DEADLINE = 1 << 4;
+    public static final int FLAG_PERIODIC = 1 << 5;
+
+    // Number of distinct constraint keys
+    public static final int KEY_COUNT = 1 << 6;
+
+    private JobConstraints() {
+    }
+
+    /**
+     * Helper method to compute a constraint key
+     * Jobs sharing network type, idle, charging and deadline requirements share the same key.
+     *
+     * @return constraint key between 0 and {@link #KEY_COUNT} - 1
+     */
+    public static int constraintKey(int networkType, boolean requiresDeviceIdle, boolean requiresCharging,
+                                    boolean hasDeadline) {
+        return constraintKey(networkType, requiresDeviceIdle, requiresCharging, hasDeadline, false);
+    }
+
+    /**
+     * Helper method to compute the constraint key of a job that may be periodic
+     * Periodic jobs never share a key with one-shot jobs of the same constraints.
+     *
+     * @return constraint key between 0 and {@link #KEY_COUNT} - 1
+     */
+    public static int constraintKey(int networkType, boolean requiresDeviceIdle, boolean requiresCharging,
+                                    boolean hasDeadline, boolean periodic) {
+        int key = networkType & NETWORK_MASK;
+        if (requiresDeviceIdle) {
+            key |= FLAG_IDLE;
+        }
+        if (requiresCharging) {
+            key |= FLAG_CHARGING;
+        }
+        if (hasDeadline) {
+            key |= FLAG_DEADLINE;
+        }
+        if (periodic) {
+            key |= FLAG_PERIODIC;
+        }
+        return key;
+    }
+
+    /**
+     * Helper method to describe a constraint key, e.g. "network=any idle=false charging=true deadline=false"
+     *
+     * @param constraintKey Constraint key
+     * @return readable description
+     */
+    public static String describe(int constraintKey) {
+        String network;
+        switch (constraintKey & NETWORK_MASK) {
+            case JobSpec.NETWORK_TYPE_NONE:
+                network = "none";
+                break;
+            case JobSpec.NETWORK_TYPE_ANY:
+                network = "any";
+                break;
+            case JobSpec.NETWORK_TYPE_UNMETERED:
+                network = "unmetered";
+                break;
+            default:
+                network = String.valueOf(constraintKey & NETWORK_MASK);
+        }
+        return "network=" + network
+                + " idle=" + ((constraintKey & FLAG_IDLE) != 0)
+                + " charging=" + ((constraintKey & FLAG_CHARGING) != 0)
+                + " deadline=" + ((constraintKey & FLAG_DEADLINE) != 0)
+                + " periodic=" + ((constraintKey & FLAG_PERIODIC) != 0);
+    }
+
+    /**
+     * A check to track whether a job spec has at least one constraint
+     * Default network option is NETWORK_TYPE_NONE and not a valid constraint on its own,
+       device idle, device charging, the override deadline and the period each count as a constraint.
+     *
+     * @param spec Job spec to be checked
+     * @return true if the spec may be scheduled
+     */
+    public static boolean isConstraintSet(JobSpec spec) {
+        return spec.getNetworkType() != JobSpec.NETWORK_TYPE_NONE
+                || spec.isRequireDeviceIdle() || spec.isRequireCharging()
+                || spec.hasOverrideDeadline() || spec.isPeriodic();
+    }
+
+    /**
+     * Method to tell why the system most likely stopped a running job
+     * JobParameters.getStopReason() needs Android S, so the reason is told apart from the device state at the
+       time of the stop. A required constraint that no longer holds comes first, then the execution limit.
+     *
+     * @param constraintKey        Constraint key of the job, or JobHistoryRecord.UNKNOWN_CONSTRAINTS
+     * @param runMillis            Time the job ran before it was stopped
+     * @param executionLimitMillis Longest time the system lets a job run
+     * @param networkType          Current network, NETWORK_TYPE_NONE if disconnected, NETWORK_TYPE_ANY if metered,
+     *                             NETWORK_TYPE_UNMETERED otherwise
+     * @param charging             Whether the device is charging
+     * @param idle                 Whether the device may be idle
+     * @return one of the JobHistoryRecord.STOP_REASON_* constants
+     */
+    public static int stopReason(int constraintKey, long runMillis, long executionLimitMillis, int networkType,
+                                 boolean charging, boolean idle) {
+        if (constraintKey >= 0 && constraintKey < KEY_COUNT) {
+            if ((constraintKey & FLAG_CHARGING) != 0 && !charging) {
+                return JobHistoryRecord.STOP_REASON_CHARGING;
+            }
+            if ((constraintKey & FLAG_IDLE) != 0 && !idle) {
+                return JobHistoryRecord.STOP_REASON_IDLE;
+            }
+            int requiredNetwork = constraintKey & NETWORK_MASK;
+            if ((requiredNetwork == JobSpec.NETWORK_TYPE_ANY && networkType == JobSpec.NETWORK_TYPE_NONE)
+                    || (requiredNetwork == JobSpec.NETWORK_TYPE_UNMETERED
+                    && networkType != JobSpec.NETWORK_TYPE_UNMETERED)) {
+                return JobHistoryRecord.STOP_REASON_CONNECTIVITY;
+            }
+        }
+        if (runMillis >= executionLimitMillis) {
+            return JobHistoryRecord.STOP_REASON_TIMEOUT;
+        }
+        return JobHistoryRecord.STOP_REASON_UNKNOWN;
+    }
+
+    /**
+     * Method to check the values of a job spec
+     *
+     * @param spec Job spec to be checked
+     * @throws IllegalArgumentException if the network type is unknown, the deadline is negative,
+     *                                  the period or flex window is out of range or a periodic spec has a deadline
+     */
+    public static void validate(JobSpec spec) {
+        int networkType = spec.getNetworkType();
+        if (networkType != JobSpec.NETWORK_TYPE_NONE && networkType != JobSpec.NETWORK_TYPE_ANY
+                && networkType != JobSpec.NETWORK_TYPE_UNMETERED) {
+            throw new IllegalArgumentException("Unknown network type: " + networkType);
+        }
+        if (spec.getOverrideDeadlineMillis() < 0 && spec.getOverrideDeadlineMillis() != JobSpec.NO_DEADLINE) {
+            throw new IllegalArgumentException("Negative override deadline: " + spec.getOverrideDeadlineMillis());
+        }
+        if (spec.isPeriodic()) {
+            if (spec.hasOverrideDeadline()) {
+                throw new IllegalArgumentException("Periodic jobs can't have an override deadline");
+            }
+            if (spec.getIntervalMillis() < FlexWindows.MIN_INTERVAL_MILLIS) {
+                throw new IllegalArgumentException("Interval too short: " + spec.getIntervalMillis());
+            }
+            if (spec.getFlexMillis() < FlexWindows.MIN_FLEX_MILLIS || spec.getFlexMillis() > spec.getIntervalMillis()) {
+                throw new IllegalArgumentException("Flex window out of range: " + spec.getFlexMillis());
+            }
+        }
+    }
+}
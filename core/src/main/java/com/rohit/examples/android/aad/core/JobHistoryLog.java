@@ -0,0 +1,221 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Class definition for an append-only binary log of job lifecycle events
+ * Every event is a fixed size record appended to the current file. Once the current file reaches
+   maxBytes it replaces the previous file, so at most two files and 2 * maxBytes are kept on disk.
+ * Queries stream the files record by record and never load a whole file into the heap.
+ *
+ * Record layout, big endian, RECORD_SIZE bytes:
+ * time millis (8), job ID (4), event (1), constraint key (1), detail (2), duration millis (8)
+ */
+public class JobHistoryLog implements Closeable {
+
+    // Size of one record in bytes
+    public static final int RECORD_SIZE = 24;
+
+    // Suffix of the previous file, next to the current one
+    private static final String PREVIOUS_SUFFIX = ".1";
+
+    // Number of records read from disk at once by queries
+    private static final int READ_BUFFER_RECORDS = 256;
+
+    /**
+     * Callback receiving the records matched by a query, oldest first
+     */
+    public interface Visitor {
+        void onRecord(JobHistoryRecord record);
+    }
+
+    private final File mFile;
+    private final File mPreviousFile;
+    private final long mMaxBytes;
+
+    // Reused buffer holding the record being appended
+    private final ByteBuffer mWriteBuffer = ByteBuffer.allocate(RECORD_SIZE);
+
+    private FileOutputStream mOut;
+    private long mSize;
+
+    /**
+     * @param file     Current log file, the previous file is kept next to it
+     * @param maxBytes Size the current file is rotated at, rounded down to whole records
+     */
+    public JobHistoryLog(File file, long maxBytes) {
+        if (maxBytes < RECORD_SIZE) {
+            throw new IllegalArgumentException("maxBytes must hold at least one record: " + maxBytes);
+        }
+        mFile = file;
+        mPreviousFile = new File(file.getPath() + PREVIOUS_SUFFIX);
+        mMaxBytes = maxBytes - maxBytes % RECORD_SIZE;
+    }
+
+    /**
+     * Method to append an event to the log
+     *
+     * @param timeMillis     Wall clock time of the event
+     * @param jobId          ID of the job
+     * @param event          One of the JobHistoryRecord.EVENT_* constants
+     * @param constraintKey  Constraint key of the job, or JobHistoryRecord.UNKNOWN_CONSTRAINTS
+     * @param detail         Event specific value, kept as an unsigned 16 bit value
+     * @param durationMillis Run duration or delay, 0 if not applicable
+     * @throws IOException if the log can't be written
+     */
+    public synchronized void append(long timeMillis, int jobId, int event, int constraintKey, int detail,
+                                    long durationMillis) throws IOException {
+        if (mOut == null) {
+            open();
+        }
+        if (mSize + RECORD_SIZE > mMaxBytes) {
+            rotate();
+        }
+
+        mWriteBuffer.clear();
+        mWriteBuffer.putLong(timeMillis)
+                .putInt(jobId)
+                .put((byte) event)
+                .put((byte) constraintKey)
+                .putShort((short) detail)
+                .putLong(durationMillis);
+        mOut.write(mWriteBuffer.array(), 0, RECORD_SIZE);
+        mSize += RECORD_SIZE;
+    }
+
+    /**
+     * Method to stream every record matching a job and a time range, oldest first
+     *
+     * @param jobId      ID of the job, or -1 for every job
+     * @param event      One of the JobHistoryRecord.EVENT_* constants, or -1 for every event
+     * @param sinceMillis Earliest event time included
+     * @param visitor    Callback receiving the matching records
+     * @throws IOException if the log can't be read
+     */
+    public synchronized void query(int jobId, int event, long sinceMillis, Visitor visitor) throws IOException {
+        if (mOut != null) {
+            mOut.flush();
+        }
+        scan(mPreviousFile, jobId, event, sinceMillis, visitor);
+        scan(mFile, jobId, event, sinceMillis, visitor);
+    }
+
+    /**
+     * Method to count the runs of a job since a point in time, e.g. runs of job X in the last day
+     *
+     * @param jobId       ID of the job, or -1 for every job
+     * @param sinceMillis Earliest start time included
+     * @return number of started events
+     * @throws IOException if the log can't be read
+     */
+    public int countRuns(int jobId, long sinceMillis) throws IOException {
+        final int[] count = new int[1];
+        query(jobId, JobHistoryRecord.EVENT_STARTED, sinceMillis, new Visitor() {
+            @Override
+            public void onRecord(JobHistoryRecord record) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * @return number of bytes on disk, both files included
+     */
+    public synchronized long sizeOnDisk() {
+        return mFile.length() + mPreviousFile.length();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (mOut != null) {
+            mOut.close();
+            mOut = null;
+        }
+    }
+
+    private void open() throws IOException {
+        // A partial record left by a crash is cut off so records stay aligned
+        long length = mFile.length();
+        mOut = new FileOutputStream(mFile, true);
+        if (length % RECORD_SIZE != 0) {
+            length -= length % RECORD_SIZE;
+            mOut.getChannel().truncate(length);
+        }
+        mSize = length;
+    }
+
+    private void rotate() throws IOException {
+        mOut.close();
+        mOut = null;
+        if (mPreviousFile.exists() && !mPreviousFile.delete()) {
+            throw new IOException("Can't delete " + mPreviousFile);
+        }
+        if (!mFile.renameTo(mPreviousFile)) {
+            throw new IOException("Can't rename " + mFile + " to " + mPreviousFile);
+        }
+        mOut = new FileOutputStream(mFile, true);
+        mSize = 0;
+    }
+
+    private static void scan(File file, int jobId, int event, long sinceMillis, Visitor visitor)
+            throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        byte[] chunk = new byte[RECORD_SIZE * READ_BUFFER_RECORDS];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        InputStream in = new BufferedInputStream(new FileInputStream(file), chunk.length);
+        try {
+            int read;
+            while ((read = readRecords(in, chunk)) > 0) {
+                buffer.clear();
+                for (int offset = 0; offset + RECORD_SIZE <= read; offset += RECORD_SIZE) {
+                    buffer.position(offset);
+                    long timeMillis = buffer.getLong();
+                    int recordJobId = buffer.getInt();
+                    int recordEvent = buffer.get() & 0xFF;
+
+                    if (timeMillis < sinceMillis
+                            || (jobId != -1 && recordJobId != jobId)
+                            || (event != -1 && recordEvent != event)) {
+                        continue;
+                    }
+
+                    int constraintKey = buffer.get() & 0xFF;
+                    int detail = buffer.getShort() & 0xFFFF;
+                    long durationMillis = buffer.getLong();
+                    visitor.onRecord(new JobHistoryRecord(timeMillis, recordJobId, recordEvent,
+                            constraintKey, detail, durationMillis));
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Helper method filling the chunk with whole records
+     *
+     * @return number of bytes read, a multiple of RECORD_SIZE, 0 at the end of the file
+     */
+    private static int readRecords(InputStream in, byte[] chunk) throws IOException {
+        int total = 0;
+        while (total < chunk.length) {
+            int read = in.read(chunk, total, chunk.length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total - total % RECORD_SIZE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for one job lifecycle event read back from the {@link JobHistoryLog}
+ */
+public final class JobHistoryRecord {
+
+    /**
+     * Lifecycle events of a job
+     */
+    public static final int EVENT_SCHEDULED = 1;
+    public static final int EVENT_STARTED = 2;
+    public static final int EVENT_FINISHED = 3;
+    public static final int EVENT_STOPPED = 4;
+    public static final int EVENT_RESCHEDULED = 5;
+    public static final int EVENT_GAVE_UP = 6;
+
+    // Detail of a start event whose duration holds the time the job waited since it was scheduled
+    public static final int DETAIL_WAIT_RECORDED = 1;
+
+    /**
+     * Details of a stop event, why the system most likely stopped the job, see JobConstraints.stopReason()
+     * STOP_REASON_UNKNOWN covers a job stopped with its constraints holding and within the execution limit,
+       e.g. cancelled or preempted.
+     */
+    public static final int STOP_REASON_UNKNOWN = 0;
+    public static final int STOP_REASON_TIMEOUT = 1;
+    public static final int STOP_REASON_CHARGING = 2;
+    public static final int STOP_REASON_IDLE = 3;
+    public static final int STOP_REASON_CONNECTIVITY = 4;
+
+    // Constraint key value when the constraints of the job are not known
+    public static final int UNKNOWN_CONSTRAINTS = 0xFF;
+
+    private final long mTimeMillis;
+    private final int mJobId;
+    private final int mEvent;
+    private final int mConstraintKey;
+    private final int mDetail;
+    private final long mDurationMillis;
+
+    /**
+     * @param timeMillis     Wall clock time of the event
+     * @param jobId          ID of the job
+     * @param event          One of the EVENT_* constants
+     * @param constraintKey  Constraint key of the job, see {@link JobConstraints}
+     * @param detail         Event specific value, e.g. the stop reason or the attempt number
+     * @param durationMillis Run duration for finished and stopped events, delay for rescheduled events
+     */
+    public JobHistoryRecord(long timeMillis, int jobId, int event, int constraintKey, int detail,
+                            long durationMillis) {
+        mTimeMillis = timeMillis;
+        mJobId = jobId;
+        mEvent = event;
+        mConstraintKey = constraintKey;
+        mDetail = detail;
+        mDurationMillis = durationMillis;
+    }
+
+    public long getTimeMillis() {
+        return mTimeMillis;
+    }
+
+    public int getJobId() {
+        return mJobId;
+    }
+
+    public int getEvent() {
+        return mEvent;
+    }
+
+    public int getConstraintKey() {
+        return mConstraintKey;
+    }
+
+    public int getDetail() {
+        return mDetail;
+    }
+
+    public long getDurationMillis() {
+        return mDurationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "JobHistoryRecord{time=" + mTimeMillis
+                + ", job=" + mJobId
+                + ", event=" + mEvent
+                + ", constraints=" + mConstraintKey
+                + ", detail=" + mDetail
+                + ", duration=" + mDurationMillis + "}";
+    }
+}
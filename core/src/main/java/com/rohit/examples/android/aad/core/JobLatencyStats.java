@@ -0,0 +1,115 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.IOException;
+
+/**
+ * Class definition for the latency statistics of jobs, kept per constraint combination
+ * For every constraint key it tracks the queueing latency (scheduling to start), the run duration
+   and how many jobs with an override deadline started after it. Histograms are created on first use.
+ * Jobs whose constraint key is unknown, e.g. JobHistoryRecord.UNKNOWN_CONSTRAINTS, are not recorded.
+ * Periodic jobs have no single scheduling time, only their run duration is recorded.
+ */
+public class JobLatencyStats {
+
+    // Percentiles written by writeTo()
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final LatencyHistogram[] mQueueing = new LatencyHistogram[JobConstraints.KEY_COUNT];
+    private final LatencyHistogram[] mRun = new LatencyHistogram[JobConstraints.KEY_COUNT];
+    private final long[] mDeadlineMisses = new long[JobConstraints.KEY_COUNT];
+
+    /**
+     * Method to record the start of a job
+     *
+     * @param constraintKey    Constraint key of the job
+     * @param queueingMillis   Time between scheduling and start
+     * @param deadlineMillis   Override deadline of the job, or JobSpec.NO_DEADLINE
+     */
+    public synchronized void recordStart(int constraintKey, long queueingMillis, long deadlineMillis) {
+        if (!isKnown(constraintKey) || (constraintKey & JobConstraints.FLAG_PERIODIC) != 0) {
+            return;
+        }
+        histogram(mQueueing, constraintKey).record(queueingMillis);
+        if (deadlineMillis != JobSpec.NO_DEADLINE && queueingMillis > deadlineMillis) {
+            mDeadlineMisses[constraintKey]++;
+        }
+    }
+
+    /**
+     * Method to record the run duration of a job that finished or was stopped
+     *
+     * @param constraintKey Constraint key of the job
+     * @param runMillis     Time between start and finish or stop
+     */
+    public synchronized void recordRun(int constraintKey, long runMillis) {
+        if (!isKnown(constraintKey)) {
+            return;
+        }
+        histogram(mRun, constraintKey).record(runMillis);
+    }
+
+    /**
+     * @return queueing latency histogram of a constraint key, or null if nothing was recorded
+     */
+    public synchronized LatencyHistogram getQueueing(int constraintKey) {
+        return mQueueing[constraintKey];
+    }
+
+    /**
+     * @return run duration histogram of a constraint key, or null if nothing was recorded
+     */
+    public synchronized LatencyHistogram getRun(int constraintKey) {
+        return mRun[constraintKey];
+    }
+
+    public synchronized long getDeadlineMisses(int constraintKey) {
+        return mDeadlineMisses[constraintKey];
+    }
+
+    /**
+     * Method to write a human readable report, one block per constraint combination seen
+     *
+     * @param out Destination of the report
+     * @throws IOException if writing to out fails
+     */
+    public synchronized void writeTo(Appendable out) throws IOException {
+        for (int key = 0; key < JobConstraints.KEY_COUNT; key++) {
+            if (mQueueing[key] == null && mRun[key] == null) {
+                continue;
+            }
+            out.append(JobConstraints.describe(key)).append('\n');
+            writeHistogram(out, "  queueing", mQueueing[key]);
+            writeHistogram(out, "  run", mRun[key]);
+            if ((key & JobConstraints.FLAG_DEADLINE) != 0) {
+                out.append("  started after deadline: ").append(String.valueOf(mDeadlineMisses[key])).append('\n');
+            }
+        }
+    }
+
+    private static void writeHistogram(Appendable out, String label, LatencyHistogram histogram)
+            throws IOException {
+        if (histogram == null) {
+            return;
+        }
+        out.append(label)
+                .append(": count=").append(String.valueOf(histogram.getCount()))
+                .append(" min=").append(String.valueOf(histogram.getMin()))
+                .append(" mean=").append(String.valueOf(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            out.append(" p").append(String.valueOf((int) percentile)).append('=')
+                    .append(String.valueOf(histogram.getPercentile(percentile)));
+        }
+        out.append(" max=").append(String.valueOf(histogram.getMax())).append(" ms\n");
+    }
+
+    private static boolean isKnown(int constraintKey) {
+        return constraintKey >= 0 && constraintKey < JobConstraints.KEY_COUNT;
+    }
+
+    private static LatencyHistogram histogram(LatencyHistogram[] histograms, int constraintKey) {
+        if (histograms[constraintKey] == null) {
+            histograms[constraintKey] = new LatencyHistogram();
+        }
+        return histograms[constraintKey];
+    }
+}
@@ -0,0 +1,185 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class definition for a pipeline of dependent work steps run inside a single job execution
+ * Each step receives the output of the previous one. After every step the number of completed steps and
+   the last output are saved as a checkpoint, so a job stopped half way resumes with the next step
+   instead of running the completed ones again. The checkpoint is dropped once the last step completed.
+ * Instances are immutable, use {@link Builder} to create them.
+ */
+public final class JobPipeline {
+
+    /**
+     * Checkpoint store keeping nothing, for short work that is simply run again from its first step
+     */
+    public static final CheckpointStore NO_CHECKPOINTS = new CheckpointStore() {
+        @Override
+        public Checkpoint load(int jobId) {
+            return null;
+        }
+
+        @Override
+        public void save(int jobId, Checkpoint checkpoint) {
+        }
+
+        @Override
+        public void clear(int jobId) {
+        }
+    };
+
+    private final String mName;
+    private final List<String> mStepNames;
+    private final List<Step> mSteps;
+
+    private JobPipeline(Builder builder) {
+        mName = builder.mName;
+        mStepNames = Collections.unmodifiableList(new ArrayList<>(builder.mStepNames));
+        mSteps = Collections.unmodifiableList(new ArrayList<>(builder.mSteps));
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return names of the steps, in the order they run
+     */
+    public List<String> getStepNames() {
+        return mStepNames;
+    }
+
+    /**
+     * Method to run the steps not yet completed by a job, resuming from its checkpoint
+     * The thread is checked for interruption before every step, a checkpoint of another pipeline
+       stored under the same job ID is ignored.
+     *
+     * @param jobId       ID of the job running the pipeline
+     * @param input       Input of the first step, unused when resuming
+     * @param checkpoints Store the checkpoints of the job are kept in
+     * @return output of the last step
+     * @throws InterruptedException if the job was stopped, the completed steps stay checkpointed
+     * @throws IOException          if a step or the checkpoint store failed
+     */
+    public String run(int jobId, String input, CheckpointStore checkpoints)
+            throws InterruptedException, IOException {
+        int completedSteps = 0;
+        String output = input;
+
+        Checkpoint checkpoint = checkpoints.load(jobId);
+        if (checkpoint != null && mName.equals(checkpoint.getPipelineName())
+                && checkpoint.getCompletedSteps() <= mSteps.size()) {
+            completedSteps = checkpoint.getCompletedSteps();
+            output = checkpoint.getOutput();
+        }
+
+        for (int step = completedSteps; step < mSteps.size(); step++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            output = mSteps.get(step).run(output);
+            checkpoints.save(jobId, new Checkpoint(mName, step + 1, output));
+        }
+
+        checkpoints.clear(jobId);
+        return output;
+    }
+
+    /**
+     * A single work step of a pipeline
+     */
+    public interface Step {
+
+        /**
+         * @param input Output of the previous step, or the input of the pipeline for the first step
+         * @return output handed to the next step and saved in the checkpoint, may be null
+         * @throws InterruptedException if the job was stopped while the step was running
+         * @throws IOException          if the step failed
+         */
+        String run(String input) throws InterruptedException, IOException;
+    }
+
+    /**
+     * Storage of the checkpoints of running pipelines, keyed by job ID
+     */
+    public interface CheckpointStore {
+
+        /**
+         * @return checkpoint of the job, or null if it has none
+         */
+        Checkpoint load(int jobId) throws IOException;
+
+        void save(int jobId, Checkpoint checkpoint) throws IOException;
+
+        void clear(int jobId);
+    }
+
+    /**
+     * Progress of a pipeline saved after a completed step
+     */
+    public static final class Checkpoint {
+
+        private final String mPipelineName;
+        private final int mCompletedSteps;
+        private final String mOutput;
+
+        public Checkpoint(String pipelineName, int completedSteps, String output) {
+            mPipelineName = pipelineName;
+            mCompletedSteps = completedSteps;
+            mOutput = output;
+        }
+
+        public String getPipelineName() {
+            return mPipelineName;
+        }
+
+        public int getCompletedSteps() {
+            return mCompletedSteps;
+        }
+
+        /**
+         * @return output of the last completed step, may be null
+         */
+        public String getOutput() {
+            return mOutput;
+        }
+    }
+
+    /**
+     * Builder for {@link JobPipeline}
+     */
+    public static final class Builder {
+
+        private final String mName;
+        private final List<String> mStepNames = new ArrayList<>();
+        private final List<Step> mSteps = new ArrayList<>();
+
+        /**
+         * @param name Name of the pipeline, stored in its checkpoints
+         */
+        public Builder(String name) {
+            mName = name;
+        }
+
+        public Builder addStep(String name, Step step) {
+            mStepNames.add(name);
+            mSteps.add(step);
+            return this;
+        }
+
+        /**
+         * @return new JobPipeline object
+         * @throws IllegalArgumentException if the pipeline has no step
+         */
+        public JobPipeline build() {
+            if (mSteps.isEmpty()) {
+                throw new IllegalArgumentException("Pipeline " + mName + " has no step");
+            }
+            return new JobPipeline(this);
+        }
+    }
+}
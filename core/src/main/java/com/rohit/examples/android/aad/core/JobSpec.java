@@ -0,0 +1,254 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for a platform independent description of a job and its constraints
+ * Instances are immutable and safe to build and share across threads, use {@link Builder} to create them.
+ */
+public final class JobSpec {
+
+    /**
+     * Network types a job can require, values match the JobInfo.NETWORK_TYPE_* constants
+     */
+    public static final int NETWORK_TYPE_NONE = 0;
+    public static final int NETWORK_TYPE_ANY = 1;
+    public static final int NETWORK_TYPE_UNMETERED = 2;
+
+    // Value of the override deadline when none is set
+    public static final long NO_DEADLINE = -1;
+
+    // Value of the interval of a one-shot job
+    public static final long NOT_PERIODIC = 0;
+
+    private final int mNetworkType;
+    private final boolean mRequiresDeviceIdle;
+    private final boolean mRequiresCharging;
+    private final long mOverrideDeadlineMillis;
+    private final long mIntervalMillis;
+    private final long mFlexMillis;
+    private final RetryPolicy mRetryPolicy;
+    private final String mPipeline;
+
+    private JobSpec(Builder builder) {
+        mNetworkType = builder.mNetworkType;
+        mRequiresDeviceIdle = builder.mRequiresDeviceIdle;
+        mRequiresCharging = builder.mRequiresCharging;
+        mOverrideDeadlineMillis = builder.mOverrideDeadlineMillis;
+        mIntervalMillis = builder.mIntervalMillis;
+        mFlexMillis = builder.mFlexMillis;
+        mRetryPolicy = builder.mRetryPolicy;
+        mPipeline = builder.mPipeline;
+    }
+
+    public int getNetworkType() {
+        return mNetworkType;
+    }
+
+    public boolean isRequireDeviceIdle() {
+        return mRequiresDeviceIdle;
+    }
+
+    public boolean isRequireCharging() {
+        return mRequiresCharging;
+    }
+
+    /**
+     * @return override deadline in milliseconds, or {@link #NO_DEADLINE}
+     */
+    public long getOverrideDeadlineMillis() {
+        return mOverrideDeadlineMillis;
+    }
+
+    public boolean hasOverrideDeadline() {
+        return mOverrideDeadlineMillis != NO_DEADLINE;
+    }
+
+    public boolean isPeriodic() {
+        return mIntervalMillis != NOT_PERIODIC;
+    }
+
+    /**
+     * @return interval of a periodic job in milliseconds, or {@link #NOT_PERIODIC}
+     */
+    public long getIntervalMillis() {
+        return mIntervalMillis;
+    }
+
+    /**
+     * @return flex window at the end of each period in which a periodic job may run, in milliseconds
+     */
+    public long getFlexMillis() {
+        return mFlexMillis;
+    }
+
+    /**
+     * @return retry policy of the job, or null to keep the JobScheduler default
+     */
+    public RetryPolicy getRetryPolicy() {
+        return mRetryPolicy;
+    }
+
+    /**
+     * @return name of the pipeline run by the job, or null for the default work of the job service
+     */
+    public String getPipeline() {
+        return mPipeline;
+    }
+
+    /**
+     * @return constraint key shared by every job spec with the same constraints
+     */
+    public int getConstraintKey() {
+        return JobConstraints.constraintKey(mNetworkType, mRequiresDeviceIdle, mRequiresCharging,
+                hasOverrideDeadline(), isPeriodic());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobSpec)) {
+            return false;
+        }
+        JobSpec other = (JobSpec) o;
+        return mNetworkType == other.mNetworkType
+                && mRequiresDeviceIdle == other.mRequiresDeviceIdle
+                && mRequiresCharging == other.mRequiresCharging
+                && mOverrideDeadlineMillis == other.mOverrideDeadlineMillis
+                && mIntervalMillis == other.mIntervalMillis
+                && mFlexMillis == other.mFlexMillis
+                && (mRetryPolicy == null ? other.mRetryPolicy == null : mRetryPolicy.equals(other.mRetryPolicy))
+                && (mPipeline == null ? other.mPipeline == null : mPipeline.equals(other.mPipeline));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mNetworkType;
+        result = 31 * result + (mRequiresDeviceIdle ? 1 : 0);
+        result = 31 * result + (mRequiresCharging ? 1 : 0);
+        result = 31 * result + (int) (mOverrideDeadlineMillis ^ (mOverrideDeadlineMillis >>> 32));
+        result = 31 * result + (int) (mIntervalMillis ^ (mIntervalMillis >>> 32));
+        result = 31 * result + (int) (mFlexMillis ^ (mFlexMillis >>> 32));
+        result = 31 * result + (mRetryPolicy == null ? 0 : mRetryPolicy.hashCode());
+        result = 31 * result + (mPipeline == null ? 0 : mPipeline.hashCode());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "JobSpec{network=" + mNetworkType
+                + ", idle=" + mRequiresDeviceIdle
+                + ", charging=" + mRequiresCharging
+                + ", deadline=" + mOverrideDeadlineMillis
+                + ", interval=" + mIntervalMillis
+                + ", flex=" + mFlexMillis
+                + ", retry=" + mRetryPolicy
+                + ", pipeline=" + mPipeline + "}";
+    }
+
+    /**
+     * Builder for {@link JobSpec}, mirrors the setters of JobInfo.Builder
+     */
+    public static final class Builder {
+
+        private int mNetworkType = NETWORK_TYPE_NONE;
+        private boolean mRequiresDeviceIdle;
+        private boolean mRequiresCharging;
+        private long mOverrideDeadlineMillis = NO_DEADLINE;
+        private long mIntervalMillis = NOT_PERIODIC;
+        private long mFlexMillis;
+        private RetryPolicy mRetryPolicy;
+        private String mPipeline;
+
+        public Builder() {
+        }
+
+        /**
+         * Creates a builder initialized with the values of an existing spec
+         *
+         * @param spec Job spec to copy
+         */
+        public Builder(JobSpec spec) {
+            mNetworkType = spec.mNetworkType;
+            mRequiresDeviceIdle = spec.mRequiresDeviceIdle;
+            mRequiresCharging = spec.mRequiresCharging;
+            mOverrideDeadlineMillis = spec.mOverrideDeadlineMillis;
+            mIntervalMillis = spec.mIntervalMillis;
+            mFlexMillis = spec.mFlexMillis;
+            mRetryPolicy = spec.mRetryPolicy;
+            mPipeline = spec.mPipeline;
+        }
+
+        public Builder setRequiredNetworkType(int networkType) {
+            mNetworkType = networkType;
+            return this;
+        }
+
+        public Builder setRequiresDeviceIdle(boolean requiresDeviceIdle) {
+            mRequiresDeviceIdle = requiresDeviceIdle;
+            return this;
+        }
+
+        public Builder setRequiresCharging(boolean requiresCharging) {
+            mRequiresCharging = requiresCharging;
+            return this;
+        }
+
+        /**
+         * @param overrideDeadlineMillis Maximum scheduling latency in milliseconds, or {@link #NO_DEADLINE}
+         */
+        public Builder setOverrideDeadline(long overrideDeadlineMillis) {
+            mOverrideDeadlineMillis = overrideDeadlineMillis;
+            return this;
+        }
+
+        /**
+         * Sets the override deadline from a value in seconds, as picked on the deadline SeekBar
+         *
+         * @param seconds Maximum scheduling latency in seconds, 0 or less means no deadline
+         */
+        public Builder setOverrideDeadlineSeconds(int seconds) {
+            mOverrideDeadlineMillis = seconds > 0 ? seconds * 1000L : NO_DEADLINE;
+            return this;
+        }
+
+        /**
+         * Makes the job periodic, it runs once in the flex window at the end of every interval
+         *
+         * @param intervalMillis Interval in milliseconds, at least {@link FlexWindows#MIN_INTERVAL_MILLIS},
+         *                       or {@link #NOT_PERIODIC} for a one-shot job
+         * @param flexMillis     Flex window in milliseconds, at least {@link FlexWindows#MIN_FLEX_MILLIS}
+         */
+        public Builder setPeriodic(long intervalMillis, long flexMillis) {
+            mIntervalMillis = intervalMillis;
+            mFlexMillis = intervalMillis == NOT_PERIODIC ? 0 : flexMillis;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy Retry policy of the job, or null to keep the JobScheduler default
+         */
+        public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+            mRetryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param pipeline Name of the pipeline of steps run by the job, or null for the default work
+         */
+        public Builder setPipeline(String pipeline) {
+            mPipeline = pipeline;
+            return this;
+        }
+
+        /**
+         * @return new JobSpec object
+         * @throws IllegalArgumentException if the spec is not valid, see {@link JobConstraints#validate(JobSpec)}
+         */
+        public JobSpec build() {
+            JobSpec spec = new JobSpec(this);
+            JobConstraints.validate(spec);
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rohit.examples.android.aad.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class definition for the difference between the live jobs and a batch of wanted job specs
+ * Wanted specs equal to a live job keep that job, the others have to be scheduled.
+ * Equal specs are matched one to one, so a batch asking for two identical jobs keeps at most two of them.
+ */
+public final class JobSpecDiff {
+
+    // Job ID of a wanted spec that has no live job yet
+    public static final int NOT_SCHEDULED = -1;
+
+    private final int[] mMatchedJobIds;
+    private final List<Integer> mUnmatchedJobIds;
+
+    private JobSpecDiff(int[] matchedJobIds, List<Integer> unmatchedJobIds) {
+        mMatchedJobIds = matchedJobIds;
+        mUnmatchedJobIds = Collections.unmodifiableList(unmatchedJobIds);
+    }
+
+    /**
+     * Method to match a batch of wanted specs against the live jobs
+     *
+     * @param liveSpecs Specs of the live jobs, keyed by job ID, lower IDs are matched first
+     * @param wanted    Wanted specs, in batch order
+     * @return JobSpecDiff object
+     */
+    public static JobSpecDiff compute(Map<Integer, JobSpec> liveSpecs, List<JobSpec> wanted) {
+        // Grouping the live job IDs by spec, ordered so the oldest equal job is kept
+        List<Integer> liveJobIds = new ArrayList<>(liveSpecs.keySet());
+        Collections.sort(liveJobIds);
+        Map<JobSpec, List<Integer>> liveBySpec = new HashMap<>();
+        for (int jobId : liveJobIds) {
+            JobSpec spec = liveSpecs.get(jobId);
+            List<Integer> jobIds = liveBySpec.get(spec);
+            if (jobIds == null) {
+                jobIds = new ArrayList<>();
+                liveBySpec.put(spec, jobIds);
+            }
+            jobIds.add(jobId);
+        }
+
+        int[] matchedJobIds = new int[wanted.size()];
+        for (int i = 0; i < wanted.size(); i++) {
+            List<Integer> jobIds = liveBySpec.get(wanted.get(i));
+            matchedJobIds[i] = jobIds == null || jobIds.isEmpty() ? NOT_SCHEDULED : jobIds.remove(0);
+        }
+
+        List<Integer> unmatchedJobIds = new ArrayList<>();
+        for (List<Integer> jobIds : liveBySpec.values()) {
+            unmatchedJobIds.addAll(jobIds);
+        }
+        Collections.sort(unmatchedJobIds);
+        return new JobSpecDiff(matchedJobIds, unmatchedJobIds);
+    }
+
+    /**
+     * @param index Index of the wanted spec in the batch
+     * @return ID of the live job equal to the spec, or {@link #NOT_SCHEDULED}
+     */
+    public int getMatchedJobId(int index) {
+        return mMatchedJobIds[index];
+    }
+
+    /**
+     * @return number of wanted specs that have no live job yet
+     */
+    public int getMissingCount() {
+        int count = 0;
+        for (int jobId : mMatchedJobIds) {
+            if (jobId == NOT_SCHEDULED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return IDs of the live jobs no wanted spec matched, in ascending order
+     */
+    public List<Integer> getUnmatchedJobIds() {
+        return mUnmatchedJobIds;
+    }
+}
@@ -0,0 +1,186 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class definition for a compact binary snapshot of job specs, written and read back in one sequential pass
+ * Every spec starts with its constraint key, which already holds the network type, idle, charging,
+   deadline and periodic requirements, and only the values the key says are set follow it.
+   Pipelines and retry policies are shared by most specs, each distinct one is written once in a
+   table up front and specs refer to it by index.
+ *
+ * Snapshot layout, big endian: version (4), pipeline count (2), pipelines (UTF), retry policy count (2),
+ * retry policies as backoff policy (1), initial backoff (8), jitter (4) and max attempts (4), spec count (4),
+ * then per spec flags (1), deadline (8) if set, interval (8) and flex (8) if periodic,
+ * retry policy index (2) if set, pipeline index (2) if set
+ */
+public final class JobSpecSnapshot {
+
+    // Version of the snapshot layout
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Flags of a spec in addition to its constraint key
+    private static final int FLAG_RETRY_POLICY = 1 << 6;
+    private static final int FLAG_PIPELINE = 1 << 7;
+
+    // Largest number of distinct pipelines or retry policies, indexes are written as unsigned shorts
+    private static final int MAX_TABLE_SIZE = 0xFFFF;
+
+    // Largest number of specs in a snapshot, a larger count read back comes from a corrupt file
+    private static final int MAX_SPEC_COUNT = 1 << 16;
+
+    private JobSpecSnapshot() {
+    }
+
+    /**
+     * Method to write a snapshot of job specs, to be restored by {@link #readFrom(DataInput)}
+     *
+     * @param out   Output the snapshot is written to
+     * @param specs Job specs to be written, in the order they are read back
+     * @throws IOException if the output can't be written
+     */
+    public static void writeTo(DataOutput out, Collection<JobSpec> specs) throws IOException {
+        Map<String, Integer> pipelines = new HashMap<>();
+        Map<RetryPolicy, Integer> retryPolicies = new HashMap<>();
+        List<String> pipelineTable = new ArrayList<>();
+        List<RetryPolicy> retryPolicyTable = new ArrayList<>();
+        for (JobSpec spec : specs) {
+            if (spec.getPipeline() != null && !pipelines.containsKey(spec.getPipeline())) {
+                pipelines.put(spec.getPipeline(), pipelineTable.size());
+                pipelineTable.add(spec.getPipeline());
+            }
+            if (spec.getRetryPolicy() != null && !retryPolicies.containsKey(spec.getRetryPolicy())) {
+                retryPolicies.put(spec.getRetryPolicy(), retryPolicyTable.size());
+                retryPolicyTable.add(spec.getRetryPolicy());
+            }
+        }
+        if (pipelineTable.size() > MAX_TABLE_SIZE || retryPolicyTable.size() > MAX_TABLE_SIZE) {
+            throw new IOException("Too many distinct pipelines or retry policies");
+        }
+        if (specs.size() > MAX_SPEC_COUNT) {
+            throw new IOException("Too many job specs " + specs.size());
+        }
+
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeShort(pipelineTable.size());
+        for (String pipeline : pipelineTable) {
+            out.writeUTF(pipeline);
+        }
+        out.writeShort(retryPolicyTable.size());
+        for (RetryPolicy retryPolicy : retryPolicyTable) {
+            out.writeByte(retryPolicy.getBackoffPolicy());
+            out.writeLong(retryPolicy.getInitialBackoffMillis());
+            out.writeFloat(retryPolicy.getJitter());
+            out.writeInt(retryPolicy.getMaxAttempts());
+        }
+
+        out.writeInt(specs.size());
+        for (JobSpec spec : specs) {
+            int flags = spec.getConstraintKey();
+            if (spec.getRetryPolicy() != null) {
+                flags |= FLAG_RETRY_POLICY;
+            }
+            if (spec.getPipeline() != null) {
+                flags |= FLAG_PIPELINE;
+            }
+            out.writeByte(flags);
+
+            if (spec.hasOverrideDeadline()) {
+                out.writeLong(spec.getOverrideDeadlineMillis());
+            }
+            if (spec.isPeriodic()) {
+                out.writeLong(spec.getIntervalMillis());
+                out.writeLong(spec.getFlexMillis());
+            }
+            if (spec.getRetryPolicy() != null) {
+                out.writeShort(retryPolicies.get(spec.getRetryPolicy()));
+            }
+            if (spec.getPipeline() != null) {
+                out.writeShort(pipelines.get(spec.getPipeline()));
+            }
+        }
+    }
+
+    /**
+     * Method to restore the job specs of a snapshot written by {@link #writeTo(DataOutput, Collection)}
+     *
+     * @param in Input the snapshot is read from
+     * @return job specs, in the order they were written
+     * @throws IOException if the input can't be read, holds an unknown snapshot version, an invalid spec
+     *                     or a spec count that is negative or too large
+     */
+    public static List<JobSpec> readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unknown snapshot version " + version);
+        }
+
+        String[] pipelineTable = new String[in.readUnsignedShort()];
+        for (int i = 0; i < pipelineTable.length; i++) {
+            pipelineTable[i] = in.readUTF();
+        }
+        RetryPolicy[] retryPolicyTable = new RetryPolicy[in.readUnsignedShort()];
+        try {
+            for (int i = 0; i < retryPolicyTable.length; i++) {
+                retryPolicyTable[i] = new RetryPolicy.Builder()
+                        .setBackoffPolicy(in.readUnsignedByte())
+                        .setInitialBackoffMillis(in.readLong())
+                        .setJitter(in.readFloat())
+                        .setMaxAttempts(in.readInt())
+                        .build();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid retry policy", e);
+        }
+
+        int count = in.readInt();
+        if (count < 0 || count > MAX_SPEC_COUNT) {
+            throw new IOException("Invalid spec count " + count);
+        }
+
+        // Not presized, the list only grows with specs that could actually be read
+        List<JobSpec> specs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int flags = in.readUnsignedByte();
+            JobSpec.Builder specBuilder = new JobSpec.Builder()
+                    .setRequiredNetworkType(flags & JobConstraints.NETWORK_MASK)
+                    .setRequiresDeviceIdle((flags & JobConstraints.FLAG_IDLE) != 0)
+                    .setRequiresCharging((flags & JobConstraints.FLAG_CHARGING) != 0);
+
+            if ((flags & JobConstraints.FLAG_DEADLINE) != 0) {
+                specBuilder.setOverrideDeadline(in.readLong());
+            }
+            if ((flags & JobConstraints.FLAG_PERIODIC) != 0) {
+                long intervalMillis = in.readLong();
+                specBuilder.setPeriodic(intervalMillis, in.readLong());
+            }
+            if ((flags & FLAG_RETRY_POLICY) != 0) {
+                specBuilder.setRetryPolicy(entry(retryPolicyTable, in.readUnsignedShort()));
+            }
+            if ((flags & FLAG_PIPELINE) != 0) {
+                specBuilder.setPipeline(entry(pipelineTable, in.readUnsignedShort()));
+            }
+
+            try {
+                specs.add(specBuilder.build());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid job spec " + i, e);
+            }
+        }
+        return specs;
+    }
+
+    private static <T> T entry(T[] table, int index) throws IOException {
+        if (index >= table.length) {
+            throw new IOException("Invalid table index " + index);
+        }
+        return table[index];
+    }
+}
@@ -0,0 +1,110 @@
+package com.rohit.examples.android.aad.core;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for a fixed memory histogram of latencies in milliseconds
+ * Values below 8 ms get a bucket each, above that every power of two range is split in 8 buckets,
+   so any recorded value is reported within 12.5% of its real value and memory never grows.
+ */
+public class LatencyHistogram {
+
+    // Number of buckets per power of two range, as a power of two
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // Highest power of two covered, values above 2^MAX_EXPONENT ms (about 35 years) share the last bucket
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] mCounts = new long[BUCKET_COUNT];
+
+    private long mTotalCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax;
+
+    /**
+     * Method to record a latency, negative values are recorded as 0
+     *
+     * @param millis Latency in milliseconds
+     */
+    public synchronized void record(long millis) {
+        long value = Math.max(0, millis);
+        mCounts[bucketOf(value)]++;
+        mTotalCount++;
+        mSum += value;
+        mMin = Math.min(mMin, value);
+        mMax = Math.max(mMax, value);
+    }
+
+    public synchronized long getCount() {
+        return mTotalCount;
+    }
+
+    public synchronized long getMin() {
+        return mTotalCount == 0 ? 0 : mMin;
+    }
+
+    public synchronized long getMax() {
+        return mMax;
+    }
+
+    public synchronized long getMean() {
+        return mTotalCount == 0 ? 0 : mSum / mTotalCount;
+    }
+
+    /**
+     * Returns the value at a percentile
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return upper bound of the bucket holding the percentile, capped to the highest recorded value
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (mTotalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * mTotalCount);
+        rank = Math.max(1, Math.min(rank, mTotalCount));
+
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += mCounts[bucket];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(mCounts, 0);
+        mTotalCount = 0;
+        mSum = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = 0;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
@@ -0,0 +1,249 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for the platform independent content of a notification
+ * Instances are immutable, a template is cloned through {@link Builder#Builder(NotificationContent)}
+   and only the fields that vary are changed before building the copy.
+ */
+public final class NotificationContent {
+
+    /**
+     * Priority and defaults values, matching the NotificationCompat constants
+     */
+    public static final int PRIORITY_DEFAULT = 0;
+    public static final int PRIORITY_HIGH = 1;
+    public static final int DEFAULT_ALL = -1;
+
+    private final String mChannelId;
+    private final CharSequence mContentTitle;
+    private final CharSequence mContentText;
+    private final int mSmallIcon;
+    private final int mPriority;
+    private final int mDefaults;
+    private final boolean mAutoCancel;
+    private final int mActionIcon;
+    private final CharSequence mActionTitle;
+    private final String mAction;
+    private final int mBigPicture;
+    private final CharSequence mBigContentTitle;
+
+    private NotificationContent(Builder builder) {
+        mChannelId = builder.mChannelId;
+        mContentTitle = builder.mContentTitle;
+        mContentText = builder.mContentText;
+        mSmallIcon = builder.mSmallIcon;
+        mPriority = builder.mPriority;
+        mDefaults = builder.mDefaults;
+        mAutoCancel = builder.mAutoCancel;
+        mActionIcon = builder.mActionIcon;
+        mActionTitle = builder.mActionTitle;
+        mAction = builder.mAction;
+        mBigPicture = builder.mBigPicture;
+        mBigContentTitle = builder.mBigContentTitle;
+    }
+
+    public String getChannelId() {
+        return mChannelId;
+    }
+
+    public CharSequence getContentTitle() {
+        return mContentTitle;
+    }
+
+    public CharSequence getContentText() {
+        return mContentText;
+    }
+
+    public int getSmallIcon() {
+        return mSmallIcon;
+    }
+
+    public int getPriority() {
+        return mPriority;
+    }
+
+    public int getDefaults() {
+        return mDefaults;
+    }
+
+    public boolean isAutoCancel() {
+        return mAutoCancel;
+    }
+
+    public int getActionIcon() {
+        return mActionIcon;
+    }
+
+    public CharSequence getActionTitle() {
+        return mActionTitle;
+    }
+
+    /**
+     * @return broadcast action sent when the action button is clicked, or null if there is no action button
+     */
+    public String getAction() {
+        return mAction;
+    }
+
+    /**
+     * @return drawable resource shown with the big picture style, or 0 for the default style
+     */
+    public int getBigPicture() {
+        return mBigPicture;
+    }
+
+    public CharSequence getBigContentTitle() {
+        return mBigContentTitle;
+    }
+
+    /**
+     * Two contents are equal when they would show the same notification, text is compared as plain strings
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NotificationContent)) {
+            return false;
+        }
+        NotificationContent other = (NotificationContent) o;
+        return mSmallIcon == other.mSmallIcon
+                && mPriority == other.mPriority
+                && mDefaults == other.mDefaults
+                && mAutoCancel == other.mAutoCancel
+                && mActionIcon == other.mActionIcon
+                && mBigPicture == other.mBigPicture
+                && equal(mChannelId, other.mChannelId)
+                && equal(mAction, other.mAction)
+                && equal(mContentTitle, other.mContentTitle)
+                && equal(mContentText, other.mContentText)
+                && equal(mActionTitle, other.mActionTitle)
+                && equal(mBigContentTitle, other.mBigContentTitle);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash(mChannelId);
+        result = 31 * result + hash(mContentTitle);
+        result = 31 * result + hash(mContentText);
+        result = 31 * result + mSmallIcon;
+        result = 31 * result + mBigPicture;
+        result = 31 * result + hash(mAction);
+        return result;
+    }
+
+    private static boolean equal(CharSequence a, CharSequence b) {
+        return a == null ? b == null : b != null && a.toString().equals(b.toString());
+    }
+
+    private static int hash(CharSequence value) {
+        return value == null ? 0 : value.toString().hashCode();
+    }
+
+    /**
+     * Builder for {@link NotificationContent}, mirrors the setters of NotificationCompat.Builder
+     */
+    public static final class Builder {
+
+        private String mChannelId;
+        private CharSequence mContentTitle;
+        private CharSequence mContentText;
+        private int mSmallIcon;
+        private int mPriority = PRIORITY_DEFAULT;
+        private int mDefaults;
+        private boolean mAutoCancel;
+        private int mActionIcon;
+        private CharSequence mActionTitle;
+        private String mAction;
+        private int mBigPicture;
+        private CharSequence mBigContentTitle;
+
+        /**
+         * @param channelId Channel the notification is posted to
+         */
+        public Builder(String channelId) {
+            mChannelId = channelId;
+        }
+
+        /**
+         * Creates a builder initialized with the fields of an existing content, used to clone templates
+         *
+         * @param content Notification content to copy
+         */
+        public Builder(NotificationContent content) {
+            mChannelId = content.mChannelId;
+            mContentTitle = content.mContentTitle;
+            mContentText = content.mContentText;
+            mSmallIcon = content.mSmallIcon;
+            mPriority = content.mPriority;
+            mDefaults = content.mDefaults;
+            mAutoCancel = content.mAutoCancel;
+            mActionIcon = content.mActionIcon;
+            mActionTitle = content.mActionTitle;
+            mAction = content.mAction;
+            mBigPicture = content.mBigPicture;
+            mBigContentTitle = content.mBigContentTitle;
+        }
+
+        public Builder setContentTitle(CharSequence contentTitle) {
+            mContentTitle = contentTitle;
+            return this;
+        }
+
+        public Builder setContentText(CharSequence contentText) {
+            mContentText = contentText;
+            return this;
+        }
+
+        public Builder setSmallIcon(int smallIcon) {
+            mSmallIcon = smallIcon;
+            return this;
+        }
+
+        public Builder setPriority(int priority) {
+            mPriority = priority;
+            return this;
+        }
+
+        public Builder setDefaults(int defaults) {
+            mDefaults = defaults;
+            return this;
+        }
+
+        public Builder setAutoCancel(boolean autoCancel) {
+            mAutoCancel = autoCancel;
+            return this;
+        }
+
+        /**
+         * Sets the action button of the notification
+         *
+         * @param icon   Drawable resource of the button
+         * @param title  Label of the button
+         * @param action Broadcast action sent when the button is clicked, or null to remove the button
+         */
+        public Builder setAction(int icon, CharSequence title, String action) {
+            mActionIcon = action == null ? 0 : icon;
+            mActionTitle = action == null ? null : title;
+            mAction = action;
+            return this;
+        }
+
+        /**
+         * Sets the big picture style of the notification
+         *
+         * @param bigPicture      Drawable resource of the picture, or 0 for the default style
+         * @param bigContentTitle Title shown with the picture
+         */
+        public Builder setBigPicture(int bigPicture, CharSequence bigContentTitle) {
+            mBigPicture = bigPicture;
+            mBigContentTitle = bigPicture == 0 ? null : bigContentTitle;
+            return this;
+        }
+
+        public NotificationContent build() {
+            return new NotificationContent(this);
+        }
+    }
+}
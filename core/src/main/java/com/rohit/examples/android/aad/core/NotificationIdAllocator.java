@@ -0,0 +1,92 @@
+package com.rohit.examples.android.aad.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class definition to hand out notification IDs for logical notification keys
+ * The same key always maps to the same ID while it is remembered, so later posts update the notification
+   instead of adding a new one. The least recently used keys are forgotten once maxKeys is reached.
+ */
+public class NotificationIdAllocator {
+
+    // First notification ID handed out, IDs below it are free for fixed use
+    public static final int FIRST_NOTIFICATION_ID = 1;
+
+    // Remembered keys in access order, eldest entries are dropped past the limit
+    private final LinkedHashMap<String, Integer> mIds;
+
+    // Next notification ID candidate
+    private int mNextId = FIRST_NOTIFICATION_ID;
+
+    /**
+     * @param maxKeys Number of keys remembered at most
+     */
+    public NotificationIdAllocator(final int maxKeys) {
+        mIds = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Returns the notification ID for a key, allocating a new one on first use
+     *
+     * @param key Logical notification key
+     * @return notification ID
+     */
+    public synchronized int idFor(String key) {
+        Integer id = mIds.get(key);
+        if (id == null) {
+            id = mNextId;
+            mNextId = mNextId == Integer.MAX_VALUE ? FIRST_NOTIFICATION_ID : mNextId + 1;
+            mIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the notification ID of a key without allocating one
+     *
+     * @param key Logical notification key
+     * @return notification ID or -1 if the key is unknown
+     */
+    public synchronized int peek(String key) {
+        Integer id = mIds.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Remembers the ID a key was given before, e.g. by an earlier process, unless the key already has one
+     *
+     * @param key Logical notification key
+     * @param id  Notification ID of the key
+     * @return notification ID of the key
+     */
+    public synchronized int assign(String key, int id) {
+        Integer current = mIds.get(key);
+        if (current != null) {
+            return current;
+        }
+        mIds.put(key, id);
+        return id;
+    }
+
+    /**
+     * Forgets a key, a later post with the same key gets a new ID
+     *
+     * @param key Logical notification key
+     */
+    public synchronized void release(String key) {
+        mIds.remove(key);
+    }
+
+    /**
+     * @return number of remembered keys
+     */
+    public synchronized int size() {
+        return mIds.size();
+    }
+}
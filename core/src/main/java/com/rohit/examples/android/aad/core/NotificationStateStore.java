@@ -0,0 +1,146 @@
+package com.rohit.examples.android.aad.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class definition for the state of the notifications of the app, kept without any UI
+ * Models the notify, update and dismiss or cancel lifecycle of every notification key and keeps a snapshot
+   of the content last posted, so a post with unchanged content can be skipped and a post changing a shown
+   notification can be made to alert only once.
+ * The least recently used keys are forgotten once maxKeys is reached, like in NotificationIdAllocator, so
+   a process posting one key per job or task doesn't grow the store without bound. A forgotten key is in
+   STATE_NONE again, its next post alerts as usual.
+ */
+public class NotificationStateStore {
+
+    /**
+     * States of a notification key
+     */
+    public static final int STATE_NONE = 0;
+    public static final int STATE_POSTED = 1;
+    public static final int STATE_UPDATED = 2;
+    public static final int STATE_DISMISSED = 3;
+    public static final int STATE_CANCELLED = 4;
+
+    /**
+     * Results of {@link #post(String, NotificationContent)}
+     */
+    public static final int RESULT_UNCHANGED = 0;
+    public static final int RESULT_POST = 1;
+    public static final int RESULT_UPDATE = 2;
+
+    // Remembered keys in access order, eldest entries are dropped past the limit
+    private final LinkedHashMap<String, KeyState> mEntries;
+
+    /**
+     * @param maxKeys Number of keys remembered at most
+     */
+    public NotificationStateStore(final int maxKeys) {
+        mEntries = new LinkedHashMap<String, KeyState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KeyState> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Method to record a post and decide how it has to reach the system
+     *
+     * @param key     Logical notification key
+     * @param content Content to be shown
+     * @return RESULT_POST for a notification that is not shown, which alerts as usual, RESULT_UPDATE
+     * for a change to a shown notification, which should alert only once, or RESULT_UNCHANGED if the
+     * notification already shows this content and nothing has to be posted
+     */
+    public synchronized int post(String key, NotificationContent content) {
+        KeyState entry = mEntries.get(key);
+        if (entry == null) {
+            entry = new KeyState();
+            mEntries.put(key, entry);
+        }
+
+        if (!isShown(entry.mState)) {
+            entry.mState = STATE_POSTED;
+            entry.mContent = content;
+            return RESULT_POST;
+        }
+        if (content.equals(entry.mContent)) {
+            return RESULT_UNCHANGED;
+        }
+        entry.mState = STATE_UPDATED;
+        entry.mContent = content;
+        return RESULT_UPDATE;
+    }
+
+    /**
+     * Method to record that the app cancelled a notification
+     *
+     * @param key Logical notification key
+     * @return true if the notification was shown
+     */
+    public synchronized boolean cancel(String key) {
+        return end(key, STATE_CANCELLED);
+    }
+
+    /**
+     * Method to record that the user dismissed a notification
+     *
+     * @param key Logical notification key
+     * @return true if the notification was shown
+     */
+    public synchronized boolean onDismissed(String key) {
+        return end(key, STATE_DISMISSED);
+    }
+
+    /**
+     * @param key Logical notification key
+     * @return one of the STATE_* constants
+     */
+    public synchronized int getState(String key) {
+        KeyState entry = mEntries.get(key);
+        return entry == null ? STATE_NONE : entry.mState;
+    }
+
+    /**
+     * @param key Logical notification key
+     * @return content shown by the notification, or null if it is not shown
+     */
+    public synchronized NotificationContent getContent(String key) {
+        KeyState entry = mEntries.get(key);
+        return entry == null ? null : entry.mContent;
+    }
+
+    /**
+     * @return number of remembered keys
+     */
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * A check to track whether a state is one of a notification shown in the status bar
+     */
+    public static boolean isShown(int state) {
+        return state == STATE_POSTED || state == STATE_UPDATED;
+    }
+
+    private boolean end(String key, int state) {
+        KeyState entry = mEntries.get(key);
+        if (entry == null || !isShown(entry.mState)) {
+            return false;
+        }
+        entry.mState = state;
+        entry.mContent = null;
+        return true;
+    }
+
+    /**
+     * State and content snapshot of one notification key
+     */
+    private static class KeyState {
+        int mState = STATE_NONE;
+        NotificationContent mContent;
+    }
+}
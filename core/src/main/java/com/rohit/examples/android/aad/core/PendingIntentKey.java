@@ -0,0 +1,78 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for the identity of a pooled PendingIntent
+ * Two keys are equal when they would resolve to the same system-side PendingIntent token:
+   same kind, action, target component and request code.
+ */
+public final class PendingIntentKey {
+
+    // Kinds of PendingIntent, as created by getActivity(), getBroadcast() and getService()
+    public static final int TYPE_ACTIVITY = 1;
+    public static final int TYPE_BROADCAST = 2;
+    public static final int TYPE_SERVICE = 3;
+
+    private final int mType;
+    private final String mAction;
+    private final String mComponent;
+    private final int mRequestCode;
+
+    // Hash code computed once, keys are looked up on every notification post
+    private final int mHashCode;
+
+    /**
+     * @param type        One of TYPE_ACTIVITY, TYPE_BROADCAST or TYPE_SERVICE
+     * @param action      Intent action, may be null
+     * @param component   Class name of the target component, may be null
+     * @param requestCode Request code of the PendingIntent
+     */
+    public PendingIntentKey(int type, String action, String component, int requestCode) {
+        mType = type;
+        mAction = action;
+        mComponent = component;
+        mRequestCode = requestCode;
+
+        int hashCode = type;
+        hashCode = 31 * hashCode + (action == null ? 0 : action.hashCode());
+        hashCode = 31 * hashCode + (component == null ? 0 : component.hashCode());
+        hashCode = 31 * hashCode + requestCode;
+        mHashCode = hashCode;
+    }
+
+    public int getType() {
+        return mType;
+    }
+
+    public String getAction() {
+        return mAction;
+    }
+
+    public String getComponent() {
+        return mComponent;
+    }
+
+    public int getRequestCode() {
+        return mRequestCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PendingIntentKey)) {
+            return false;
+        }
+        PendingIntentKey other = (PendingIntentKey) o;
+        return mHashCode == other.mHashCode
+                && mType == other.mType
+                && mRequestCode == other.mRequestCode
+                && (mAction == null ? other.mAction == null : mAction.equals(other.mAction))
+                && (mComponent == null ? other.mComponent == null : mComponent.equals(other.mComponent));
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+}
@@ -0,0 +1,98 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.IOException;
+
+/**
+ * Class definition for a fixed size ring buffer of timed phases
+ * Once full, each new phase overwrites the oldest one, so memory use never grows.
+ */
+public class PhaseTimings {
+
+    private final String[] mNames;
+    private final long[] mStartNanos;
+    private final long[] mDurationNanos;
+
+    // Index the next phase is written at, and number of phases held
+    private int mHead;
+    private int mCount;
+
+    /**
+     * @param capacity Number of phases kept
+     */
+    public PhaseTimings(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        mNames = new String[capacity];
+        mStartNanos = new long[capacity];
+        mDurationNanos = new long[capacity];
+    }
+
+    /**
+     * Method to record a finished phase
+     *
+     * @param name          Name of the phase
+     * @param startNanos    Start time, from System.nanoTime() or an equivalent clock
+     * @param durationNanos Duration of the phase
+     */
+    public synchronized void record(String name, long startNanos, long durationNanos) {
+        mNames[mHead] = name;
+        mStartNanos[mHead] = startNanos;
+        mDurationNanos[mHead] = durationNanos;
+        mHead = (mHead + 1) % mNames.length;
+        if (mCount < mNames.length) {
+            mCount++;
+        }
+    }
+
+    /**
+     * @return number of phases held
+     */
+    public synchronized int size() {
+        return mCount;
+    }
+
+    /**
+     * @param index Index of the phase, 0 being the oldest one held
+     * @return name of the phase
+     */
+    public synchronized String getName(int index) {
+        return mNames[slot(index)];
+    }
+
+    /**
+     * @param index Index of the phase, 0 being the oldest one held
+     * @return duration of the phase in nanoseconds
+     */
+    public synchronized long getDurationNanos(int index) {
+        return mDurationNanos[slot(index)];
+    }
+
+    public synchronized void clear() {
+        mHead = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Method to write every phase held, oldest first, one tab separated line per phase:
+       name, start time in nanoseconds and duration in microseconds
+     *
+     * @param out Destination of the dump
+     * @throws IOException if writing to out fails
+     */
+    public synchronized void writeTo(Appendable out) throws IOException {
+        for (int i = 0; i < mCount; i++) {
+            int slot = slot(i);
+            out.append(mNames[slot]).append('\t')
+                    .append(String.valueOf(mStartNanos[slot])).append('\t')
+                    .append(String.valueOf(mDurationNanos[slot] / 1000)).append('\n');
+        }
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= mCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mCount);
+        }
+        return (mHead - mCount + index + mNames.length) % mNames.length;
+    }
+}
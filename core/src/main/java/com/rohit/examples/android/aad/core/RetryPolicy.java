@@ -0,0 +1,210 @@
+package com.rohit.examples.android.aad.core;
+
+/**
+ * Class definition for the retry policy of a job that was stopped before it could finish
+ * Backoff grows linearly or exponentially from the initial backoff and is spread by a per-job jitter,
+   so jobs losing their constraints at the same moment do not all retry at the same moment.
+ * After the maximum number of attempts the job is given up instead of being rescheduled.
+ * Instances are immutable, use {@link Builder} to create them.
+ */
+public final class RetryPolicy {
+
+    /**
+     * Backoff policies, values match the JobInfo.BACKOFF_POLICY_* constants
+     */
+    public static final int BACKOFF_POLICY_LINEAR = 0;
+    public static final int BACKOFF_POLICY_EXPONENTIAL = 1;
+
+    /**
+     * Bounds of the backoff enforced by JobScheduler, values match JobInfo.MIN_BACKOFF_MILLIS
+       and JobInfo.MAX_BACKOFF_DELAY_MILLIS
+     */
+    public static final long MIN_BACKOFF_MILLIS = 10 * 1000L;
+    public static final long MAX_BACKOFF_MILLIS = 5 * 60 * 60 * 1000L;
+
+    // Value of the maximum number of attempts when a job is retried for ever
+    public static final int UNLIMITED_ATTEMPTS = 0;
+
+    private final int mBackoffPolicy;
+    private final long mInitialBackoffMillis;
+    private final float mJitter;
+    private final int mMaxAttempts;
+
+    private RetryPolicy(Builder builder) {
+        mBackoffPolicy = builder.mBackoffPolicy;
+        mInitialBackoffMillis = builder.mInitialBackoffMillis;
+        mJitter = builder.mJitter;
+        mMaxAttempts = builder.mMaxAttempts;
+    }
+
+    public int getBackoffPolicy() {
+        return mBackoffPolicy;
+    }
+
+    public long getInitialBackoffMillis() {
+        return mInitialBackoffMillis;
+    }
+
+    /**
+     * @return jitter as a fraction of the backoff, between 0 and 1
+     */
+    public float getJitter() {
+        return mJitter;
+    }
+
+    /**
+     * @return maximum number of attempts, or {@link #UNLIMITED_ATTEMPTS}
+     */
+    public int getMaxAttempts() {
+        return mMaxAttempts;
+    }
+
+    /**
+     * Returns the initial backoff of a single job, to be passed to JobInfo.Builder.setBackoffCriteria()
+     * The jitter is derived from the job ID, so the same job always gets the same backoff
+       and JobScheduler keeps the spread for every following attempt.
+     *
+     * @param jobId ID of the job
+     * @return jittered initial backoff in milliseconds
+     */
+    public long getInitialBackoffMillis(int jobId) {
+        return clamp(Math.round(mInitialBackoffMillis * jitterFactor(jobId)));
+    }
+
+    /**
+     * Returns the delay JobScheduler waits before an attempt, as computed from the jittered initial backoff
+     *
+     * @param jobId   ID of the job
+     * @param attempt Number of the retry, starting at 1
+     * @return backoff in milliseconds
+     */
+    public long getBackoffMillis(int jobId, int attempt) {
+        long initial = getInitialBackoffMillis(jobId);
+        int retry = Math.max(1, attempt);
+        if (mBackoffPolicy == BACKOFF_POLICY_LINEAR) {
+            return clamp(initial * retry);
+        }
+        // Shifting past the maximum backoff would overflow, which the clamp could not catch
+        int shift = Math.min(retry - 1, Long.numberOfLeadingZeros(initial) - 1);
+        return clamp(initial << shift);
+    }
+
+    /**
+     * A check to track whether a job stopped after the given number of attempts may be retried again
+     *
+     * @param attempts Number of attempts made so far, including the one that was just stopped
+     * @return true if the job should be rescheduled, false if it should be given up
+     */
+    public boolean shouldRetry(int attempts) {
+        return mMaxAttempts == UNLIMITED_ATTEMPTS || attempts < mMaxAttempts;
+    }
+
+    /**
+     * Helper method mapping a job ID to a factor between 1 - jitter and 1 + jitter
+     */
+    private double jitterFactor(int jobId) {
+        // Finalizer of MurmurHash3, so neighbouring job IDs land far apart
+        int hash = jobId;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+
+        double unit = (hash & 0xFFFFFF) / (double) 0x1000000;
+        return 1 + mJitter * (2 * unit - 1);
+    }
+
+    private static long clamp(long backoffMillis) {
+        return Math.max(MIN_BACKOFF_MILLIS, Math.min(MAX_BACKOFF_MILLIS, backoffMillis));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RetryPolicy)) {
+            return false;
+        }
+        RetryPolicy other = (RetryPolicy) o;
+        return mBackoffPolicy == other.mBackoffPolicy
+                && mInitialBackoffMillis == other.mInitialBackoffMillis
+                && Float.compare(mJitter, other.mJitter) == 0
+                && mMaxAttempts == other.mMaxAttempts;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mBackoffPolicy;
+        result = 31 * result + (int) (mInitialBackoffMillis ^ (mInitialBackoffMillis >>> 32));
+        result = 31 * result + Float.floatToIntBits(mJitter);
+        result = 31 * result + mMaxAttempts;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{policy=" + mBackoffPolicy
+                + ", initial=" + mInitialBackoffMillis
+                + ", jitter=" + mJitter
+                + ", maxAttempts=" + mMaxAttempts + "}";
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}, defaults to the JobScheduler default of 30 seconds exponential backoff
+     */
+    public static final class Builder {
+
+        private int mBackoffPolicy = BACKOFF_POLICY_EXPONENTIAL;
+        private long mInitialBackoffMillis = 30 * 1000L;
+        private float mJitter;
+        private int mMaxAttempts = UNLIMITED_ATTEMPTS;
+
+        public Builder setBackoffPolicy(int backoffPolicy) {
+            mBackoffPolicy = backoffPolicy;
+            return this;
+        }
+
+        public Builder setInitialBackoffMillis(long initialBackoffMillis) {
+            mInitialBackoffMillis = initialBackoffMillis;
+            return this;
+        }
+
+        /**
+         * @param jitter Fraction of the backoff each job is moved by at most, between 0 and 1
+         */
+        public Builder setJitter(float jitter) {
+            mJitter = jitter;
+            return this;
+        }
+
+        /**
+         * @param maxAttempts Number of attempts before a job is given up, or {@link #UNLIMITED_ATTEMPTS}
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            mMaxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @return new RetryPolicy object
+         * @throws IllegalArgumentException if a value is out of range
+         */
+        public RetryPolicy build() {
+            if (mBackoffPolicy != BACKOFF_POLICY_LINEAR && mBackoffPolicy != BACKOFF_POLICY_EXPONENTIAL) {
+                throw new IllegalArgumentException("Unknown backoff policy " + mBackoffPolicy);
+            }
+            if (mInitialBackoffMillis < MIN_BACKOFF_MILLIS || mInitialBackoffMillis > MAX_BACKOFF_MILLIS) {
+                throw new IllegalArgumentException("Initial backoff out of range: " + mInitialBackoffMillis);
+            }
+            if (!(mJitter >= 0 && mJitter <= 1)) {
+                throw new IllegalArgumentException("Jitter out of range: " + mJitter);
+            }
+            if (mMaxAttempts < 0) {
+                throw new IllegalArgumentException("Negative max attempts: " + mMaxAttempts);
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
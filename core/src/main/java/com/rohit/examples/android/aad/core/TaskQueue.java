@@ -0,0 +1,333 @@
+package com.rohit.examples.android.aad.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class definition for an unbounded queue of logical tasks, grouped into slots by their constraints
+ * Tasks sharing network type, idle and charging requirements land in the same slot, so a single job
+   per slot is enough to run all of them once its constraints hold. A slot job carries the earliest
+   deadline of its tasks, see getSlotSpec().
+ * Tasks of a slot are handed out oldest first and stay queued until they are removed, so a task
+   interrupted half way is handed out again.
+ *
+ * Snapshot layout, big endian: version (4), next task ID (4), task count (4), then per task
+ * ID (4), slot (1), attempts (1), enqueue time (8), deadline (8), has pipeline (1), pipeline (UTF)
+ */
+public class TaskQueue {
+
+    // Number of slots, every combination of network type, idle and charging requirements
+    public static final int SLOT_COUNT = JobConstraints.FLAG_DEADLINE;
+
+    // Deadline of a task without an override deadline
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Retry policy of the slot jobs, exponential backoff from 30 seconds moved by up to half of it per slot,
+       so slots stopped together by a lost constraint retry at different times. Slot jobs are never given up,
+       a task is dropped once it ran out of attempts of its own.
+     */
+    public static final RetryPolicy SLOT_RETRY_POLICY = new RetryPolicy.Builder()
+            .setBackoffPolicy(RetryPolicy.BACKOFF_POLICY_EXPONENTIAL)
+            .setInitialBackoffMillis(30 * 1000L)
+            .setJitter(0.5f)
+            .setMaxAttempts(RetryPolicy.UNLIMITED_ATTEMPTS)
+            .build();
+
+    // Version of the snapshot layout
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Queued tasks of every slot by task ID, oldest first
+    private final List<LinkedHashMap<Integer, Task>> mSlots = new ArrayList<>(SLOT_COUNT);
+
+    // Queued tasks by task ID
+    private final Map<Integer, Task> mTasks = new HashMap<>();
+
+    // Next task ID, task IDs are never 0
+    private int mNextTaskId = 1;
+
+    public TaskQueue() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            mSlots.add(new LinkedHashMap<Integer, Task>());
+        }
+    }
+
+    /**
+     * Helper method to compute the slot of a job spec
+     *
+     * @param spec Job spec of a task
+     * @return slot between 0 and {@link #SLOT_COUNT} - 1
+     * @throws IllegalArgumentException if the spec is periodic, periodic work needs a job of its own
+     */
+    public static int slotOf(JobSpec spec) {
+        if (spec.isPeriodic()) {
+            throw new IllegalArgumentException("Periodic specs can't be queued as tasks");
+        }
+        return JobConstraints.constraintKey(spec.getNetworkType(), spec.isRequireDeviceIdle(),
+                spec.isRequireCharging(), false);
+    }
+
+    /**
+     * Method to queue a task
+     *
+     * @param spec      Constraints, deadline and pipeline of the task, the retry policy is not used
+     * @param nowMillis Current wall clock time, the deadline of the spec counts from it
+     * @return queued task
+     * @throws IllegalArgumentException if the spec is invalid or periodic
+     */
+    public synchronized Task add(JobSpec spec, long nowMillis) {
+        JobConstraints.validate(spec);
+        int slot = slotOf(spec);
+        long deadlineAtMillis = spec.hasOverrideDeadline() ? nowMillis + spec.getOverrideDeadlineMillis() : NO_DEADLINE;
+
+        Task task = new Task(nextTaskId(), slot, spec.getPipeline(), nowMillis, deadlineAtMillis, 0);
+        put(task);
+        return task;
+    }
+
+    /**
+     * @param slot Slot of the tasks
+     * @return oldest task of the slot, or null if the slot is empty
+     */
+    public synchronized Task peek(int slot) {
+        Iterator<Task> iterator = mSlots.get(slot).values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Method to drop a task, once it ran or was given up
+     *
+     * @param taskId ID of the task
+     * @return true if the task was queued
+     */
+    public synchronized boolean remove(int taskId) {
+        Task task = mTasks.remove(taskId);
+        if (task == null) {
+            return false;
+        }
+        mSlots.get(task.mSlot).remove(taskId);
+        return true;
+    }
+
+    /**
+     * Method to count a failed attempt of a task, the task stays queued
+     *
+     * @param taskId ID of the task
+     * @return number of failed attempts so far, 0 if the task is not queued
+     */
+    public synchronized int recordFailure(int taskId) {
+        Task task = mTasks.get(taskId);
+        if (task == null) {
+            return 0;
+        }
+        task.mAttempts = Math.min(task.mAttempts + 1, 0xFF);
+        return task.mAttempts;
+    }
+
+    /**
+     * Method to drop every task
+     */
+    public synchronized void clear() {
+        mTasks.clear();
+        for (Map<Integer, Task> slot : mSlots) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * @return number of queued tasks
+     */
+    public synchronized int size() {
+        return mTasks.size();
+    }
+
+    /**
+     * @param slot Slot of the tasks
+     * @return number of queued tasks of the slot
+     */
+    public synchronized int size(int slot) {
+        return mSlots.get(slot).size();
+    }
+
+    /**
+     * @return slots with at least one queued task, in ascending order
+     */
+    public synchronized List<Integer> getActiveSlots() {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (!mSlots.get(i).isEmpty()) {
+                slots.add(i);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * @param slot Slot of the tasks
+     * @return earliest deadline of the queued tasks of the slot, or NO_DEADLINE
+     */
+    public synchronized long getEarliestDeadline(int slot) {
+        long earliest = NO_DEADLINE;
+        for (Task task : mSlots.get(slot).values()) {
+            earliest = Math.min(earliest, task.mDeadlineAtMillis);
+        }
+        return earliest;
+    }
+
+    /**
+     * Method to describe the job running the tasks of a slot
+     * The job requires the constraints of the slot and has the earliest deadline of its tasks. A slot
+       without any constraint or deadline gets a deadline of 0, as a job needs at least one constraint.
+       A failed task is retried with the backoff of {@link #SLOT_RETRY_POLICY}.
+     *
+     * @param slot      Slot of the tasks
+     * @param nowMillis Current wall clock time
+     * @return job spec of the slot, without a pipeline
+     */
+    public synchronized JobSpec getSlotSpec(int slot, long nowMillis) {
+        JobSpec.Builder specBuilder = new JobSpec.Builder()
+                .setRequiredNetworkType(slot & JobConstraints.NETWORK_MASK)
+                .setRequiresDeviceIdle((slot & JobConstraints.FLAG_IDLE) != 0)
+                .setRequiresCharging((slot & JobConstraints.FLAG_CHARGING) != 0)
+                .setRetryPolicy(SLOT_RETRY_POLICY);
+
+        long earliestDeadline = getEarliestDeadline(slot);
+        if (earliestDeadline != NO_DEADLINE) {
+            specBuilder.setOverrideDeadline(Math.max(0, earliestDeadline - nowMillis));
+        } else if (slot == 0) {
+            specBuilder.setOverrideDeadline(0);
+        }
+        return specBuilder.build();
+    }
+
+    /**
+     * Method to write every queued task, to be restored by {@link #readFrom(DataInput)}
+     *
+     * @param out Output the snapshot is written to
+     * @throws IOException if the output can't be written
+     */
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(mNextTaskId);
+        out.writeInt(mTasks.size());
+        for (Map<Integer, Task> slot : mSlots) {
+            for (Task task : slot.values()) {
+                out.writeInt(task.mId);
+                out.writeByte(task.mSlot);
+                out.writeByte(task.mAttempts);
+                out.writeLong(task.mEnqueuedAtMillis);
+                out.writeLong(task.mDeadlineAtMillis);
+                out.writeBoolean(task.mPipeline != null);
+                if (task.mPipeline != null) {
+                    out.writeUTF(task.mPipeline);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to restore a queue written by {@link #writeTo(DataOutput)}
+     *
+     * @param in Input the snapshot is read from
+     * @return restored queue, tasks keep their IDs and order
+     * @throws IOException if the input can't be read or holds an unknown snapshot version
+     */
+    public static TaskQueue readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unknown snapshot version " + version);
+        }
+
+        TaskQueue queue = new TaskQueue();
+        queue.mNextTaskId = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int id = in.readInt();
+            int slot = in.readUnsignedByte();
+            int attempts = in.readUnsignedByte();
+            long enqueuedAtMillis = in.readLong();
+            long deadlineAtMillis = in.readLong();
+            String pipeline = in.readBoolean() ? in.readUTF() : null;
+            if (slot >= SLOT_COUNT) {
+                throw new IOException("Invalid slot " + slot + " of task " + id);
+            }
+            queue.put(new Task(id, slot, pipeline, enqueuedAtMillis, deadlineAtMillis, attempts));
+        }
+        return queue;
+    }
+
+    private void put(Task task) {
+        mTasks.put(task.mId, task);
+        mSlots.get(task.mSlot).put(task.mId, task);
+    }
+
+    private int nextTaskId() {
+        while (mTasks.containsKey(mNextTaskId)) {
+            advance();
+        }
+        int taskId = mNextTaskId;
+        advance();
+        return taskId;
+    }
+
+    private void advance() {
+        mNextTaskId = mNextTaskId == Integer.MAX_VALUE ? 1 : mNextTaskId + 1;
+    }
+
+    /**
+     * Class definition for a queued task
+     */
+    public static final class Task {
+
+        private final int mId;
+        private final int mSlot;
+        private final String mPipeline;
+        private final long mEnqueuedAtMillis;
+        private final long mDeadlineAtMillis;
+
+        // Guarded by the queue
+        private int mAttempts;
+
+        Task(int id, int slot, String pipeline, long enqueuedAtMillis, long deadlineAtMillis, int attempts) {
+            mId = id;
+            mSlot = slot;
+            mPipeline = pipeline;
+            mEnqueuedAtMillis = enqueuedAtMillis;
+            mDeadlineAtMillis = deadlineAtMillis;
+            mAttempts = attempts;
+        }
+
+        public int getId() {
+            return mId;
+        }
+
+        public int getSlot() {
+            return mSlot;
+        }
+
+        /**
+         * @return name of the pipeline run by the task, or null for the default work
+         */
+        public String getPipeline() {
+            return mPipeline;
+        }
+
+        public long getEnqueuedAtMillis() {
+            return mEnqueuedAtMillis;
+        }
+
+        /**
+         * @return wall clock time the task should have run by, or NO_DEADLINE
+         */
+        public long getDeadlineAtMillis() {
+            return mDeadlineAtMillis;
+        }
+    }
+}
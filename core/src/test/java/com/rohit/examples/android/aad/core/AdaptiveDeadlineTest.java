@@ -0,0 +1,76 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for deadlines learned from job waits
+ */
+public class AdaptiveDeadlineTest {
+
+    private static final long SLO = 60 * 60 * 1000L;
+    private static final int CHARGING = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_NONE, false, true, false);
+    private static final int CHARGING_DEADLINE = CHARGING | JobConstraints.FLAG_DEADLINE;
+
+    @Test
+    public void withoutEnoughWaits_usesFreshnessSlo() {
+        AdaptiveDeadline deadline = new AdaptiveDeadline(90, SLO);
+        for (int i = 0; i < AdaptiveDeadline.MIN_SAMPLES - 1; i++) {
+            deadline.recordWait(CHARGING, 60 * 1000L);
+        }
+
+        assertEquals(SLO, deadline.getDeadlineMillis(CHARGING));
+        assertEquals(0, deadline.getSampleCount(CHARGING));
+    }
+
+    @Test
+    public void learnedDeadline_followsTargetPercentile() {
+        AdaptiveDeadline deadline = new AdaptiveDeadline(90, SLO);
+        for (int i = 1; i <= 100; i++) {
+            // Waits of 1 to 100 minutes, jobs with and without deadlines share the same waits
+            deadline.recordWait(i % 2 == 0 ? CHARGING : CHARGING_DEADLINE, i * 20 * 1000L);
+        }
+
+        long expected = (long) (90 * 20 * 1000L * AdaptiveDeadline.HEADROOM);
+        long proposed = deadline.getDeadlineMillis(CHARGING_DEADLINE);
+        assertTrue("proposed " + proposed, proposed >= expected && proposed <= expected * 1.125);
+        assertEquals(100, deadline.getSampleCount(CHARGING));
+    }
+
+    @Test
+    public void learnedDeadline_isCappedBySloAndFloor() {
+        AdaptiveDeadline deadline = new AdaptiveDeadline(90, SLO);
+        int anyNetwork = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_ANY, false, false, false);
+        for (int i = 0; i < AdaptiveDeadline.MIN_SAMPLES; i++) {
+            deadline.recordWait(CHARGING, 3 * SLO);
+            deadline.recordWait(anyNetwork, 5);
+        }
+
+        assertEquals(SLO, deadline.getDeadlineMillis(CHARGING));
+        assertEquals(AdaptiveDeadline.MIN_DEADLINE_MILLIS, deadline.getDeadlineMillis(anyNetwork));
+    }
+
+    @Test
+    public void oldWaits_areForgotten() {
+        AdaptiveDeadline deadline = new AdaptiveDeadline(50, SLO);
+        for (int i = 0; i < AdaptiveDeadline.WINDOW_SAMPLES * 2; i++) {
+            deadline.recordWait(CHARGING, 40 * 60 * 1000L);
+        }
+        for (int i = 0; i < AdaptiveDeadline.MIN_SAMPLES; i++) {
+            deadline.recordWait(CHARGING, 60 * 1000L);
+        }
+
+        assertEquals((long) (60 * 1000L * AdaptiveDeadline.HEADROOM), deadline.getDeadlineMillis(CHARGING), 8000);
+    }
+
+    @Test
+    public void periodicWaits_areIgnored() {
+        AdaptiveDeadline deadline = new AdaptiveDeadline(90, SLO);
+        for (int i = 0; i < AdaptiveDeadline.MIN_SAMPLES; i++) {
+            deadline.recordWait(CHARGING | JobConstraints.FLAG_PERIODIC, 1000);
+        }
+
+        assertEquals(SLO, deadline.getDeadlineMillis(CHARGING));
+    }
+}
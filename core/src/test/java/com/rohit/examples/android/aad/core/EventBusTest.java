@@ -0,0 +1,66 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the in-process event bus
+ */
+public class EventBusTest {
+
+    private static final String TOPIC = "topic";
+
+    @Test
+    public void post_reachesSubscribersOfTheTopicOnly() {
+        EventBus eventBus = new EventBus();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        RecordingSubscriber other = new RecordingSubscriber();
+        eventBus.subscribe(TOPIC, subscriber);
+        eventBus.subscribe("other", other);
+
+        assertEquals(1, eventBus.post(TOPIC, "payload"));
+        assertEquals(1, subscriber.mPayloads.size());
+        assertEquals("payload", subscriber.mPayloads.get(0));
+        assertTrue(other.mPayloads.isEmpty());
+    }
+
+    @Test
+    public void unsubscribe_stopsDelivery() {
+        EventBus eventBus = new EventBus();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        EventBus.Subscription subscription = eventBus.subscribe(TOPIC, subscriber);
+
+        subscription.unsubscribe();
+        subscription.unsubscribe();
+
+        assertEquals(0, eventBus.post(TOPIC, null));
+        assertTrue(subscriber.mPayloads.isEmpty());
+    }
+
+    @Test
+    public void unreachableSubscriber_isDropped() throws InterruptedException {
+        EventBus eventBus = new EventBus();
+        eventBus.subscribe(TOPIC, new RecordingSubscriber());
+
+        for (int i = 0; i < 10 && eventBus.getSubscriberCount(TOPIC) > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, eventBus.post(TOPIC, null));
+    }
+
+    private static class RecordingSubscriber implements EventBus.Subscriber {
+
+        final List<Object> mPayloads = new ArrayList<>();
+
+        @Override
+        public void onEvent(String topic, Object payload) {
+            mPayloads.add(payload);
+        }
+    }
+}
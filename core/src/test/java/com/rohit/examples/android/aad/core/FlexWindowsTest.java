@@ -0,0 +1,40 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for lining up flex windows
+ */
+public class FlexWindowsTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long INTERVAL = 60 * MINUTE;
+    private static final long FLEX = 10 * MINUTE;
+
+    @Test
+    public void jobScheduledWithAnchor_keepsItsFlex() {
+        assertEquals(FLEX, FlexWindows.alignedFlex(INTERVAL, FLEX, 0, FLEX, 0));
+        assertEquals(FLEX, FlexWindows.alignedFlex(INTERVAL, FLEX, 0, FLEX, INTERVAL));
+    }
+
+    @Test
+    public void laterJob_widensFlexBackToAnchorWindow() {
+        long flex = FlexWindows.alignedFlex(INTERVAL, FLEX, 0, FLEX, 20 * MINUTE);
+
+        // New window ends at 80 min, the anchor window ends at 60 min
+        assertEquals(20 * MINUTE, flex);
+    }
+
+    @Test
+    public void windowEndingInsideNextAnchorWindow_keepsItsFlex() {
+        // New window ends at 115 min, inside the anchor window from 110 to 120 min
+        assertEquals(FLEX, FlexWindows.alignedFlex(INTERVAL, FLEX, 0, FLEX, 55 * MINUTE));
+    }
+
+    @Test
+    public void alignedFlex_neverExceedsInterval() {
+        assertTrue(FlexWindows.alignedFlex(INTERVAL, FLEX, 0, 0, 59 * MINUTE) <= INTERVAL);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the main thread jank statistics
+ */
+public class JankStatsTest {
+
+    private static final long BUDGET = 16666667;
+
+    @Test
+    public void framesOnTime_areNotJanky() {
+        JankStats stats = new JankStats();
+        stats.recordFrame("Main", BUDGET, BUDGET);
+        stats.recordFrame("Main", BUDGET + 2000000, BUDGET);
+
+        assertEquals(2, stats.getFrameCount("Main"));
+        assertEquals(0, stats.getJankyFrameCount("Main"));
+        assertEquals(0, stats.getDroppedFrameCount("Main"));
+    }
+
+    @Test
+    public void longFrame_countsDroppedFrames() {
+        JankStats stats = new JankStats();
+        stats.recordFrame("Main", 4 * BUDGET, BUDGET);
+        stats.recordFrame("Jobs", 2 * BUDGET, BUDGET);
+
+        assertEquals(1, stats.getJankyFrameCount("Main"));
+        assertEquals(3, stats.getDroppedFrameCount("Main"));
+        assertEquals(1, stats.getDroppedFrameCount("Jobs"));
+    }
+
+    @Test
+    public void slowMessages_areGroupedByCallSite() throws IOException {
+        JankStats stats = new JankStats();
+        stats.recordSlowMessage("Main", 80, "at Decoder.decode");
+        stats.recordSlowMessage("Main", 120, "at Decoder.decode");
+        stats.recordSlowMessage("Jobs", 300, "at Registry.schedule");
+        stats.recordSlowMessage("Jobs", 60, null);
+
+        assertEquals(2, stats.getSlowMessageCount("Main"));
+        assertEquals(2, stats.getCallSiteCount("at Decoder.decode"));
+        assertEquals(1, stats.getUntrackedSlowMessages());
+
+        StringBuilder report = new StringBuilder();
+        stats.writeTo(report);
+        assertTrue(report.toString(), report.indexOf("at Registry.schedule") < report.indexOf("at Decoder.decode"));
+        assertTrue(report.toString(), report.indexOf("count=2 total=200 max=120 ms") >= 0);
+    }
+
+    @Test
+    public void callSites_areBounded() {
+        JankStats stats = new JankStats();
+        for (int i = 0; i <= JankStats.MAX_CALL_SITES; i++) {
+            stats.recordSlowMessage("Main", 100, "at Site.run" + i);
+        }
+
+        assertEquals(0, stats.getCallSiteCount("at Site.run" + JankStats.MAX_CALL_SITES));
+        assertEquals(1, stats.getUntrackedSlowMessages());
+        assertEquals(JankStats.MAX_CALL_SITES + 1, stats.getSlowMessageCount("Main"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the job scheduling policy
+ */
+public class JobConstraintsTest {
+
+    private static final long INTERVAL = 60 * 60 * 1000L;
+    private static final long FLEX = 10 * 60 * 1000L;
+    private static final long LIMIT = 10 * 60 * 1000L;
+
+    @Test
+    public void defaultSpec_hasNoConstraint() {
+        JobSpec spec = new JobSpec.Builder().build();
+
+        assertFalse(JobConstraints.isConstraintSet(spec));
+        assertFalse(spec.hasOverrideDeadline());
+        assertEquals(0, spec.getConstraintKey());
+    }
+
+    @Test
+    public void eachConstraint_isEnoughToSchedule() {
+        assertTrue(JobConstraints.isConstraintSet(new JobSpec.Builder()
+                .setRequiredNetworkType(JobSpec.NETWORK_TYPE_ANY).build()));
+        assertTrue(JobConstraints.isConstraintSet(new JobSpec.Builder()
+                .setRequiresDeviceIdle(true).build()));
+        assertTrue(JobConstraints.isConstraintSet(new JobSpec.Builder()
+                .setRequiresCharging(true).build()));
+        assertTrue(JobConstraints.isConstraintSet(new JobSpec.Builder()
+                .setOverrideDeadlineSeconds(5).build()));
+    }
+
+    @Test
+    public void deadlineSeconds_convertedToMillis() {
+        assertEquals(5000, new JobSpec.Builder().setOverrideDeadlineSeconds(5).build().getOverrideDeadlineMillis());
+        assertEquals(JobSpec.NO_DEADLINE, new JobSpec.Builder().setOverrideDeadlineSeconds(0).build()
+                .getOverrideDeadlineMillis());
+    }
+
+    @Test
+    public void constraintKey_isUniquePerCombination() {
+        boolean[] seen = new boolean[JobConstraints.KEY_COUNT];
+        int combinations = 0;
+        for (int network = JobSpec.NETWORK_TYPE_NONE; network <= JobSpec.NETWORK_TYPE_UNMETERED; network++) {
+            for (int flags = 0; flags < 8; flags++) {
+                int key = JobConstraints.constraintKey(network, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+                assertFalse(seen[key]);
+                seen[key] = true;
+                combinations++;
+            }
+        }
+        assertEquals(24, combinations);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownNetworkType_isRejected() {
+        new JobSpec.Builder().setRequiredNetworkType(7).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDeadline_isRejected() {
+        new JobSpec.Builder().setOverrideDeadline(-5).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void periodicSpec_withDeadline_isRejected() {
+        new JobSpec.Builder().setPeriodic(INTERVAL, FLEX).setOverrideDeadline(1000).build();
+    }
+
+    @Test
+    public void periodicSpec_hasItsOwnConstraintKey() {
+        JobSpec oneShot = new JobSpec.Builder().setRequiresCharging(true).build();
+        JobSpec periodic = new JobSpec.Builder().setRequiresCharging(true).setPeriodic(INTERVAL, FLEX).build();
+
+        assertTrue(JobConstraints.isConstraintSet(new JobSpec.Builder().setPeriodic(INTERVAL, FLEX).build()));
+        assertNotEquals(oneShot.getConstraintKey(), periodic.getConstraintKey());
+    }
+
+    @Test
+    public void stopReason_prefersLostConstraint() {
+        int key = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_UNMETERED, false, true, false);
+
+        assertEquals(JobHistoryRecord.STOP_REASON_CHARGING, JobConstraints.stopReason(key, 2 * LIMIT, LIMIT,
+                JobSpec.NETWORK_TYPE_UNMETERED, false, false));
+        assertEquals(JobHistoryRecord.STOP_REASON_CONNECTIVITY, JobConstraints.stopReason(key, 1000, LIMIT,
+                JobSpec.NETWORK_TYPE_ANY, true, false));
+        assertEquals(JobHistoryRecord.STOP_REASON_IDLE, JobConstraints.stopReason(JobConstraints.FLAG_IDLE, 1000,
+                LIMIT, JobSpec.NETWORK_TYPE_NONE, false, false));
+    }
+
+    @Test
+    public void stopReason_withConstraintsHolding() {
+        int key = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_ANY, false, false, false);
+
+        assertEquals(JobHistoryRecord.STOP_REASON_TIMEOUT, JobConstraints.stopReason(key, LIMIT, LIMIT,
+                JobSpec.NETWORK_TYPE_UNMETERED, false, false));
+        assertEquals(JobHistoryRecord.STOP_REASON_UNKNOWN, JobConstraints.stopReason(key, 1000, LIMIT,
+                JobSpec.NETWORK_TYPE_ANY, false, false));
+
+        // Unknown constraints can only be told apart by the execution limit
+        assertEquals(JobHistoryRecord.STOP_REASON_UNKNOWN, JobConstraints.stopReason(
+                JobHistoryRecord.UNKNOWN_CONSTRAINTS, 1000, LIMIT, JobSpec.NETWORK_TYPE_NONE, false, false));
+    }
+}
@@ -0,0 +1,92 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the job history log
+ */
+public class JobHistoryLogTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+    private JobHistoryLog mLog;
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = new File(mFolder.getRoot(), "job_history.bin");
+        mLog = new JobHistoryLog(mFile, 10 * JobHistoryLog.RECORD_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mLog.close();
+    }
+
+    @Test
+    public void query_returnsMatchingRecordsInOrder() throws Exception {
+        mLog.append(100, 1, JobHistoryRecord.EVENT_SCHEDULED, 3, 0, 0);
+        mLog.append(200, 1, JobHistoryRecord.EVENT_STARTED, 3, 0, 0);
+        mLog.append(300, 2, JobHistoryRecord.EVENT_STARTED, 4, 0, 0);
+        mLog.append(400, 1, JobHistoryRecord.EVENT_FINISHED, 3, 0, 200);
+
+        final List<JobHistoryRecord> records = new ArrayList<>();
+        mLog.query(1, -1, 0, new JobHistoryLog.Visitor() {
+            @Override
+            public void onRecord(JobHistoryRecord record) {
+                records.add(record);
+            }
+        });
+
+        assertEquals(3, records.size());
+        assertEquals(JobHistoryRecord.EVENT_SCHEDULED, records.get(0).getEvent());
+        assertEquals(JobHistoryRecord.EVENT_FINISHED, records.get(2).getEvent());
+        assertEquals(200, records.get(2).getDurationMillis());
+        assertEquals(3, records.get(2).getConstraintKey());
+    }
+
+    @Test
+    public void countRuns_honoursTimeRange() throws Exception {
+        mLog.append(100, 7, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+        mLog.append(500, 7, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+        mLog.append(900, 7, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+
+        assertEquals(3, mLog.countRuns(7, 0));
+        assertEquals(2, mLog.countRuns(7, 500));
+        assertEquals(0, mLog.countRuns(8, 0));
+    }
+
+    @Test
+    public void append_rotatesAndKeepsPreviousFile() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            mLog.append(i, 1, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+        }
+
+        // The current file holds 5 records and the previous one the 10 before, older records are gone
+        assertEquals(15, mLog.countRuns(1, 0));
+        assertEquals(10, mLog.countRuns(1, 15));
+        assertTrue(mLog.sizeOnDisk() <= 20 * JobHistoryLog.RECORD_SIZE);
+    }
+
+    @Test
+    public void reopen_appendsAfterExistingRecords() throws Exception {
+        mLog.append(100, 1, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+        mLog.close();
+
+        mLog = new JobHistoryLog(mFile, 10 * JobHistoryLog.RECORD_SIZE);
+        mLog.append(200, 1, JobHistoryRecord.EVENT_STARTED, 0, 0, 0);
+
+        assertEquals(2, mLog.countRuns(1, 0));
+    }
+}
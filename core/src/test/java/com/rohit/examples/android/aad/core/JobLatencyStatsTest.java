@@ -0,0 +1,80 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the job latency statistics kept per constraint combination
+ */
+public class JobLatencyStatsTest {
+
+    private static final int CHARGING = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_NONE, false, true, false);
+    private static final int CHARGING_DEADLINE = CHARGING | JobConstraints.FLAG_DEADLINE;
+    private static final int ANY_NETWORK = JobConstraints.constraintKey(JobSpec.NETWORK_TYPE_ANY, false, false, false);
+
+    @Test
+    public void starts_areKeptPerConstraintKey() {
+        JobLatencyStats stats = new JobLatencyStats();
+        stats.recordStart(CHARGING, 100, JobSpec.NO_DEADLINE);
+        stats.recordStart(CHARGING, 300, JobSpec.NO_DEADLINE);
+        stats.recordStart(ANY_NETWORK, 50, JobSpec.NO_DEADLINE);
+
+        assertEquals(2, stats.getQueueing(CHARGING).getCount());
+        assertEquals(300, stats.getQueueing(CHARGING).getMax());
+        assertEquals(1, stats.getQueueing(ANY_NETWORK).getCount());
+        assertNull(stats.getRun(CHARGING));
+    }
+
+    @Test
+    public void startsAfterDeadline_areCountedAsMisses() {
+        JobLatencyStats stats = new JobLatencyStats();
+        stats.recordStart(CHARGING_DEADLINE, 1000, 5000);
+        stats.recordStart(CHARGING_DEADLINE, 5000, 5000);
+        stats.recordStart(CHARGING_DEADLINE, 7000, 5000);
+
+        assertEquals(3, stats.getQueueing(CHARGING_DEADLINE).getCount());
+        assertEquals(1, stats.getDeadlineMisses(CHARGING_DEADLINE));
+    }
+
+    @Test
+    public void periodicJobs_onlyRecordRuns() {
+        JobLatencyStats stats = new JobLatencyStats();
+        int periodic = CHARGING | JobConstraints.FLAG_PERIODIC;
+        stats.recordStart(periodic, 100, JobSpec.NO_DEADLINE);
+        stats.recordRun(periodic, 20);
+
+        assertNull(stats.getQueueing(periodic));
+        assertEquals(1, stats.getRun(periodic).getCount());
+    }
+
+    @Test
+    public void unknownConstraintKeys_areIgnored() {
+        JobLatencyStats stats = new JobLatencyStats();
+        stats.recordStart(JobHistoryRecord.UNKNOWN_CONSTRAINTS, 100, JobSpec.NO_DEADLINE);
+        stats.recordRun(JobConstraints.KEY_COUNT, 20);
+
+        for (int key = 0; key < JobConstraints.KEY_COUNT; key++) {
+            assertNull(stats.getQueueing(key));
+            assertNull(stats.getRun(key));
+        }
+    }
+
+    @Test
+    public void report_listsSeenCombinationsOnly() throws IOException {
+        JobLatencyStats stats = new JobLatencyStats();
+        stats.recordStart(CHARGING_DEADLINE, 7000, 5000);
+        stats.recordRun(CHARGING_DEADLINE, 40);
+
+        StringBuilder report = new StringBuilder();
+        stats.writeTo(report);
+        String text = report.toString();
+        assertTrue(text, text.startsWith(JobConstraints.describe(CHARGING_DEADLINE) + "\n"));
+        assertTrue(text, text.contains("  queueing: count=1"));
+        assertTrue(text, text.contains("  run: count=1"));
+        assertTrue(text, text.contains("  started after deadline: 1\n"));
+        assertFalse(text, text.contains(JobConstraints.describe(ANY_NETWORK)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for job pipelines and their checkpoints
+ */
+public class JobPipelineTest {
+
+    private static final int JOB_ID = 7;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private FileCheckpointStore mCheckpoints;
+    private final List<String> mRunSteps = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mCheckpoints = new FileCheckpointStore(mFolder.getRoot());
+    }
+
+    @Test
+    public void run_chainsOutputsAndDropsCheckpoint() throws Exception {
+        JobPipeline pipeline = pipeline(-1);
+
+        assertEquals("in>fetch>transform>notify", pipeline.run(JOB_ID, "in", mCheckpoints));
+        assertNull(mCheckpoints.load(JOB_ID));
+    }
+
+    @Test
+    public void stoppedPipeline_resumesAfterLastCompletedStep() throws Exception {
+        try {
+            pipeline(1).run(JOB_ID, "in", mCheckpoints);
+            fail("The stopped pipeline should not complete");
+        } catch (InterruptedException expected) {
+            // Stopped while running the transform step
+        }
+        assertEquals(1, mCheckpoints.load(JOB_ID).getCompletedSteps());
+
+        mRunSteps.clear();
+        assertEquals("in>fetch>transform>notify", pipeline(-1).run(JOB_ID, "ignored", mCheckpoints));
+
+        // The fetch step is not run again
+        assertEquals(2, mRunSteps.size());
+        assertEquals("transform", mRunSteps.get(0));
+    }
+
+    @Test
+    public void checkpointOfAnotherPipeline_isIgnored() throws Exception {
+        mCheckpoints.save(JOB_ID, new JobPipeline.Checkpoint("other", 2, "stale"));
+
+        assertEquals("in>fetch>transform>notify", pipeline(-1).run(JOB_ID, "in", mCheckpoints));
+        assertEquals(3, mRunSteps.size());
+    }
+
+    @Test
+    public void withoutCheckpoints_stoppedPipelineStartsOver() throws Exception {
+        try {
+            pipeline(1).run(JOB_ID, "in", JobPipeline.NO_CHECKPOINTS);
+            fail("The stopped pipeline should not complete");
+        } catch (InterruptedException expected) {
+            // Stopped while running the transform step
+        }
+
+        mRunSteps.clear();
+        assertEquals("in>fetch>transform>notify", pipeline(-1).run(JOB_ID, "in", JobPipeline.NO_CHECKPOINTS));
+        assertEquals(3, mRunSteps.size());
+    }
+
+    /**
+     * Helper method building a three step pipeline, the step at stopAt is interrupted
+     */
+    private JobPipeline pipeline(int stopAt) {
+        JobPipeline.Builder builder = new JobPipeline.Builder("refresh");
+        String[] names = {"fetch", "transform", "notify"};
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            final boolean stop = i == stopAt;
+            builder.addStep(name, new JobPipeline.Step() {
+                @Override
+                public String run(String input) throws InterruptedException {
+                    if (stop) {
+                        throw new InterruptedException();
+                    }
+                    mRunSteps.add(name);
+                    return input + ">" + name;
+                }
+            });
+        }
+        return builder.build();
+    }
+}
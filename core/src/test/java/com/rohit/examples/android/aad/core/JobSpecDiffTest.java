@@ -0,0 +1,60 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for diffing wanted job specs against live jobs
+ */
+public class JobSpecDiffTest {
+
+    private static final JobSpec CHARGING = new JobSpec.Builder().setRequiresCharging(true).build();
+    private static final JobSpec ANY_NETWORK = new JobSpec.Builder()
+            .setRequiredNetworkType(JobSpec.NETWORK_TYPE_ANY).build();
+
+    @Test
+    public void identicalBatch_changesNothing() {
+        Map<Integer, JobSpec> live = new HashMap<>();
+        live.put(3, CHARGING);
+        live.put(4, ANY_NETWORK);
+
+        JobSpecDiff diff = JobSpecDiff.compute(live, Arrays.asList(ANY_NETWORK, CHARGING));
+
+        assertEquals(4, diff.getMatchedJobId(0));
+        assertEquals(3, diff.getMatchedJobId(1));
+        assertEquals(0, diff.getMissingCount());
+        assertTrue(diff.getUnmatchedJobIds().isEmpty());
+    }
+
+    @Test
+    public void equalSpecs_areMatchedOneToOne() {
+        Map<Integer, JobSpec> live = new HashMap<>();
+        live.put(5, CHARGING);
+        live.put(2, CHARGING);
+
+        JobSpecDiff diff = JobSpecDiff.compute(live, Arrays.asList(CHARGING, new JobSpec.Builder(CHARGING).build(),
+                CHARGING));
+
+        assertEquals(2, diff.getMatchedJobId(0));
+        assertEquals(5, diff.getMatchedJobId(1));
+        assertEquals(JobSpecDiff.NOT_SCHEDULED, diff.getMatchedJobId(2));
+        assertEquals(1, diff.getMissingCount());
+    }
+
+    @Test
+    public void unwantedJobs_areReported() {
+        Map<Integer, JobSpec> live = new HashMap<>();
+        live.put(1, CHARGING);
+        live.put(2, ANY_NETWORK);
+
+        JobSpecDiff diff = JobSpecDiff.compute(live, Collections.singletonList(ANY_NETWORK));
+
+        assertEquals(Collections.singletonList(1), diff.getUnmatchedJobIds());
+    }
+}
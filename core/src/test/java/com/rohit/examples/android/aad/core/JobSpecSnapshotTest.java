@@ -0,0 +1,109 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the binary snapshot of job specs
+ */
+public class JobSpecSnapshotTest {
+
+    private static final RetryPolicy RETRY_POLICY = new RetryPolicy.Builder()
+            .setBackoffPolicy(RetryPolicy.BACKOFF_POLICY_EXPONENTIAL)
+            .setInitialBackoffMillis(30 * 1000L)
+            .setJitter(0.5f)
+            .setMaxAttempts(5)
+            .build();
+
+    @Test
+    public void snapshot_restoresSpecsInOrder() throws IOException {
+        List<JobSpec> specs = Arrays.asList(
+                new JobSpec.Builder().setRequiresCharging(true).build(),
+                new JobSpec.Builder()
+                        .setRequiredNetworkType(JobSpec.NETWORK_TYPE_UNMETERED)
+                        .setOverrideDeadline(90 * 1000L)
+                        .setRetryPolicy(RETRY_POLICY)
+                        .setPipeline("refresh")
+                        .build(),
+                new JobSpec.Builder()
+                        .setRequiresDeviceIdle(true)
+                        .setPeriodic(2 * FlexWindows.MIN_INTERVAL_MILLIS, FlexWindows.MIN_FLEX_MILLIS)
+                        .setPipeline("notify")
+                        .build());
+
+        assertEquals(specs, roundTrip(specs));
+    }
+
+    @Test
+    public void sharedValues_areWrittenOnce() throws IOException {
+        List<JobSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            specs.add(new JobSpec.Builder()
+                    .setRequiredNetworkType(JobSpec.NETWORK_TYPE_ANY)
+                    .setOverrideDeadline(i * 1000L)
+                    .setRetryPolicy(RETRY_POLICY)
+                    .setPipeline("refresh")
+                    .build());
+        }
+
+        byte[] bytes = write(specs);
+
+        // Flags, deadline and two table indexes per spec
+        assertTrue("snapshot of " + bytes.length + " bytes", bytes.length < 1000 * 13 + 64);
+        assertEquals(specs, read(bytes));
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownVersion_isRejected() throws IOException {
+        byte[] bytes = write(new ArrayList<JobSpec>());
+        bytes[3] = 42;
+        read(bytes);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedSnapshot_isRejected() throws IOException {
+        byte[] bytes = write(Arrays.asList(new JobSpec.Builder().setOverrideDeadline(1000).build()));
+        read(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test
+    public void invalidSpecCount_isRejected() throws IOException {
+        byte[] bytes = write(new ArrayList<JobSpec>());
+        for (int count : new int[]{-1, Integer.MAX_VALUE}) {
+            // The spec count follows the version and the two empty table sizes
+            ByteBuffer.wrap(bytes).putInt(8, count);
+            try {
+                read(bytes);
+                fail("count " + count + " was accepted");
+            } catch (IOException e) {
+                assertEquals("Invalid spec count " + count, e.getMessage());
+            }
+        }
+    }
+
+    private static List<JobSpec> roundTrip(List<JobSpec> specs) throws IOException {
+        return read(write(specs));
+    }
+
+    private static byte[] write(List<JobSpec> specs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JobSpecSnapshot.writeTo(new DataOutputStream(bytes), specs);
+        return bytes.toByteArray();
+    }
+
+    private static List<JobSpec> read(byte[] bytes) throws IOException {
+        return JobSpecSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the latency histogram
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogram_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 4; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(2, histogram.getPercentile(50));
+        assertEquals(4, histogram.getPercentile(100));
+        assertEquals(1, histogram.getMin());
+    }
+
+    @Test
+    public void percentiles_stayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(5000, histogram.getPercentile(50), 5000 / 8);
+        assertEquals(9900, histogram.getPercentile(99), 9900 / 8);
+        assertEquals(10000, histogram.getMax());
+    }
+
+    @Test
+    public void buckets_coverTheirUpperBound() {
+        for (long value : new long[]{0, 7, 8, 9, 15, 16, 1000, 123456789L}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+    }
+}
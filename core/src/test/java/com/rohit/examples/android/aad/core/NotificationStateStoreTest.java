@@ -0,0 +1,80 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the notification state store
+ */
+public class NotificationStateStoreTest {
+
+    private static final String KEY = "mascot_notification";
+    private static final int MAX_KEYS = 16;
+
+    private static final NotificationContent CONTENT = new NotificationContent.Builder("primary")
+            .setContentTitle("You've been notified!")
+            .setContentText(new StringBuilder("This is your notification text."))
+            .setDefaults(NotificationContent.DEFAULT_ALL)
+            .build();
+
+    @Test
+    public void lifecycle_notifyUpdateCancel() {
+        NotificationStateStore store = new NotificationStateStore(MAX_KEYS);
+        NotificationContent updated = new NotificationContent.Builder(CONTENT).setBigPicture(7, "Updated").build();
+
+        assertEquals(NotificationStateStore.RESULT_POST, store.post(KEY, CONTENT));
+        assertEquals(NotificationStateStore.STATE_POSTED, store.getState(KEY));
+
+        assertEquals(NotificationStateStore.RESULT_UPDATE, store.post(KEY, updated));
+        assertEquals(NotificationStateStore.STATE_UPDATED, store.getState(KEY));
+        assertSame(updated, store.getContent(KEY));
+
+        assertTrue(store.cancel(KEY));
+        assertFalse(store.cancel(KEY));
+        assertEquals(NotificationStateStore.STATE_CANCELLED, store.getState(KEY));
+        assertNull(store.getContent(KEY));
+    }
+
+    @Test
+    public void unchangedContent_isNotPostedAgain() {
+        NotificationStateStore store = new NotificationStateStore(MAX_KEYS);
+        store.post(KEY, CONTENT);
+
+        // Equal text held by a different CharSequence type is the same content
+        NotificationContent copy = new NotificationContent.Builder(CONTENT)
+                .setContentText("This is your notification text.")
+                .build();
+
+        assertEquals(NotificationStateStore.RESULT_UNCHANGED, store.post(KEY, copy));
+        assertEquals(NotificationStateStore.STATE_POSTED, store.getState(KEY));
+    }
+
+    @Test
+    public void dismissedNotification_alertsAgainOnNextPost() {
+        NotificationStateStore store = new NotificationStateStore(MAX_KEYS);
+        store.post(KEY, CONTENT);
+
+        assertTrue(store.onDismissed(KEY));
+        assertEquals(NotificationStateStore.STATE_DISMISSED, store.getState(KEY));
+        assertEquals(NotificationStateStore.RESULT_POST, store.post(KEY, CONTENT));
+    }
+
+    @Test
+    public void leastRecentlyUsedKeys_areForgottenPastTheLimit() {
+        NotificationStateStore store = new NotificationStateStore(MAX_KEYS);
+        store.post(KEY, CONTENT);
+        for (int i = 0; i < 3 * MAX_KEYS; i++) {
+            store.post("job_notification_" + i, CONTENT);
+            store.cancel("job_notification_" + i);
+
+            // Touching the key keeps it remembered
+            store.getState(KEY);
+        }
+
+        assertEquals(MAX_KEYS, store.size());
+        assertEquals(NotificationStateStore.STATE_POSTED, store.getState(KEY));
+        assertEquals(NotificationStateStore.STATE_NONE, store.getState("job_notification_0"));
+        assertEquals(NotificationStateStore.STATE_CANCELLED, store.getState("job_notification_" + (3 * MAX_KEYS - 1)));
+    }
+}
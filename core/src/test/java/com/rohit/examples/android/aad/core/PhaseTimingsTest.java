@@ -0,0 +1,45 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the phase timings ring buffer
+ */
+public class PhaseTimingsTest {
+
+    @Test
+    public void record_keepsPhasesInOrder() {
+        PhaseTimings timings = new PhaseTimings(4);
+        timings.record("inflate", 0, 1000);
+        timings.record("findViews", 1000, 2000);
+
+        assertEquals(2, timings.size());
+        assertEquals("inflate", timings.getName(0));
+        assertEquals(2000, timings.getDurationNanos(1));
+    }
+
+    @Test
+    public void record_overwritesOldestOnceFull() {
+        PhaseTimings timings = new PhaseTimings(2);
+        timings.record("a", 0, 1);
+        timings.record("b", 1, 2);
+        timings.record("c", 2, 3);
+
+        assertEquals(2, timings.size());
+        assertEquals("b", timings.getName(0));
+        assertEquals("c", timings.getName(1));
+    }
+
+    @Test
+    public void writeTo_dumpsOneLinePerPhase() throws Exception {
+        PhaseTimings timings = new PhaseTimings(2);
+        timings.record("inflate", 5, 3000);
+
+        StringBuilder out = new StringBuilder();
+        timings.writeTo(out);
+
+        assertEquals("inflate\t5\t3\n", out.toString());
+    }
+}
@@ -0,0 +1,62 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the retry policy
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void exponentialBackoff_doublesPerAttempt() {
+        RetryPolicy policy = new RetryPolicy.Builder().setInitialBackoffMillis(20000).build();
+
+        assertEquals(20000, policy.getBackoffMillis(1, 1));
+        assertEquals(40000, policy.getBackoffMillis(1, 2));
+        assertEquals(80000, policy.getBackoffMillis(1, 3));
+        assertEquals(RetryPolicy.MAX_BACKOFF_MILLIS, policy.getBackoffMillis(1, 100));
+    }
+
+    @Test
+    public void linearBackoff_growsByInitialBackoff() {
+        RetryPolicy policy = new RetryPolicy.Builder()
+                .setBackoffPolicy(RetryPolicy.BACKOFF_POLICY_LINEAR)
+                .setInitialBackoffMillis(20000)
+                .build();
+
+        assertEquals(60000, policy.getBackoffMillis(1, 3));
+    }
+
+    @Test
+    public void jitter_spreadsJobsWithinBounds() {
+        RetryPolicy policy = new RetryPolicy.Builder().setInitialBackoffMillis(60000).setJitter(0.5f).build();
+
+        Set<Long> backoffs = new HashSet<>();
+        for (int jobId = 1; jobId <= 100; jobId++) {
+            long backoff = policy.getInitialBackoffMillis(jobId);
+            assertTrue(backoff >= 30000 && backoff <= 90000);
+            assertEquals(backoff, policy.getInitialBackoffMillis(jobId));
+            backoffs.add(backoff);
+        }
+        assertTrue(backoffs.size() > 90);
+    }
+
+    @Test
+    public void maxAttempts_givesUp() {
+        RetryPolicy policy = new RetryPolicy.Builder().setMaxAttempts(3).build();
+
+        assertTrue(policy.shouldRetry(2));
+        assertFalse(policy.shouldRetry(3));
+        assertTrue(new RetryPolicy.Builder().build().shouldRetry(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initialBackoff_belowPlatformMinimum_isRejected() {
+        new RetryPolicy.Builder().setInitialBackoffMillis(1000).build();
+    }
+}
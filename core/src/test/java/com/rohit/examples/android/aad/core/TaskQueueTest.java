@@ -0,0 +1,108 @@
+package com.rohit.examples.android.aad.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the task queue multiplexing tasks onto slot jobs
+ */
+public class TaskQueueTest {
+
+    private static final JobSpec CHARGING = new JobSpec.Builder().setRequiresCharging(true).build();
+    private static final JobSpec ANY_NETWORK = new JobSpec.Builder()
+            .setRequiredNetworkType(JobSpec.NETWORK_TYPE_ANY).build();
+
+    @Test
+    public void tasksWithSameConstraints_shareSlot() {
+        TaskQueue queue = new TaskQueue();
+        TaskQueue.Task first = queue.add(CHARGING, 0);
+        TaskQueue.Task second = queue.add(new JobSpec.Builder(CHARGING).setOverrideDeadline(500).build(), 0);
+        TaskQueue.Task other = queue.add(ANY_NETWORK, 0);
+
+        assertEquals(first.getSlot(), second.getSlot());
+        assertNotEquals(first.getSlot(), other.getSlot());
+        assertEquals(2, queue.size(first.getSlot()));
+        assertEquals(Arrays.asList(ANY_NETWORK.getConstraintKey(), CHARGING.getConstraintKey()),
+                queue.getActiveSlots());
+    }
+
+    @Test
+    public void tasksAreHandedOutOldestFirst_untilRemoved() {
+        TaskQueue queue = new TaskQueue();
+        TaskQueue.Task first = queue.add(CHARGING, 0);
+        TaskQueue.Task second = queue.add(CHARGING, 1);
+        int slot = first.getSlot();
+
+        assertSame(first, queue.peek(slot));
+        assertSame(first, queue.peek(slot));
+        assertTrue(queue.remove(first.getId()));
+        assertSame(second, queue.peek(slot));
+        assertTrue(queue.remove(second.getId()));
+        assertNull(queue.peek(slot));
+        assertFalse(queue.remove(second.getId()));
+    }
+
+    @Test
+    public void slotSpec_carriesEarliestDeadline() {
+        TaskQueue queue = new TaskQueue();
+        queue.add(CHARGING, 1000);
+        queue.add(new JobSpec.Builder(CHARGING).setOverrideDeadline(5000).build(), 1000);
+        TaskQueue.Task urgent = queue.add(new JobSpec.Builder(CHARGING).setOverrideDeadline(2000).build(), 2000);
+
+        JobSpec slotSpec = queue.getSlotSpec(urgent.getSlot(), 3000);
+
+        assertTrue(slotSpec.isRequireCharging());
+        assertEquals(1000, slotSpec.getOverrideDeadlineMillis());
+        assertEquals(TaskQueue.SLOT_RETRY_POLICY, slotSpec.getRetryPolicy());
+        assertEquals(4000, queue.getEarliestDeadline(urgent.getSlot()));
+    }
+
+    @Test
+    public void unconstrainedSlot_runsRightAway() {
+        TaskQueue queue = new TaskQueue();
+        TaskQueue.Task task = queue.add(new JobSpec.Builder().build(), 0);
+
+        JobSpec slotSpec = queue.getSlotSpec(task.getSlot(), 0);
+
+        assertEquals(0, slotSpec.getOverrideDeadlineMillis());
+        assertTrue(JobConstraints.isConstraintSet(slotSpec));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void periodicSpec_isRejected() {
+        new TaskQueue().add(new JobSpec.Builder(CHARGING)
+                .setPeriodic(FlexWindows.MIN_INTERVAL_MILLIS, FlexWindows.MIN_FLEX_MILLIS).build(), 0);
+    }
+
+    @Test
+    public void snapshot_restoresTasksInOrder() throws IOException {
+        TaskQueue queue = new TaskQueue();
+        TaskQueue.Task first = queue.add(new JobSpec.Builder(CHARGING).setPipeline("refresh").build(), 10);
+        TaskQueue.Task second = queue.add(new JobSpec.Builder(CHARGING).setOverrideDeadline(50).build(), 20);
+        queue.recordFailure(first.getId());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        queue.writeTo(new DataOutputStream(bytes));
+        TaskQueue restored = TaskQueue.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        TaskQueue.Task head = restored.peek(first.getSlot());
+        assertEquals(first.getId(), head.getId());
+        assertEquals("refresh", head.getPipeline());
+        assertEquals(2, restored.recordFailure(first.getId()));
+        assertEquals(70, restored.getEarliestDeadline(second.getSlot()));
+
+        // IDs handed out after a restore never collide with restored tasks
+        TaskQueue.Task added = restored.add(CHARGING, 30);
+        assertNotEquals(first.getId(), added.getId());
+        assertNotEquals(second.getId(), added.getId());
+        assertEquals(3, restored.size());
+    }
+}